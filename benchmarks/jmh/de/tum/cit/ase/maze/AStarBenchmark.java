@@ -0,0 +1,50 @@
+package de.tum.cit.ase.maze;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AStar#findPath} between random floor tiles that can reach each other, one query per call, cycling
+ * through a fixed set of queries so every run measures the same mix of short and long paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class AStarBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({"level-4", "51", "201", "801"})
+    public String map;
+
+    private AStar aStar;
+    private int height;
+    private int[] starts;
+    private int[] goals;
+    private int query;
+
+    @Setup
+    public void setUp() {
+        Maze maze = BenchmarkMazes.load(map);
+        height = maze.getLayout()[0].length;
+        int[][] pairs = BenchmarkMazes.reachablePairs(maze, QUERIES);
+        starts = pairs[0];
+        goals = pairs[1];
+        aStar = new AStar(maze.getSnapshot().createNodes());
+        aStar.setComponents(maze.getComponents());
+    }
+
+    @Benchmark
+    public int findPath() {
+        int i = query;
+        query = (query + 1) % QUERIES;
+        return aStar.findPath(starts[i] / height, starts[i] % height, goals[i] / height, goals[i] % height).size();
+    }
+}
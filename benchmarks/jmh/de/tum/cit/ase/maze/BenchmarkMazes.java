@@ -0,0 +1,83 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The mazes the JMH benchmarks run on. A map name is either a shipped level, {@code level-1} to {@code level-5},
+ * read from the directory in the {@code maze.maps} system property, or a size such as {@code 201}, generated
+ * with a fixed seed so every run measures the same maze.
+ */
+final class BenchmarkMazes {
+    static final long SEED = 42;
+    static final int TILE_SIZE = 16;
+
+    private BenchmarkMazes() {
+    }
+
+    /**
+     * @return The map file of a shipped level.
+     */
+    static FileHandle mapFile(String level) {
+        return new FileHandle(new File(System.getProperty("maze.maps", "maps"), level + ".properties"));
+    }
+
+    /**
+     * @return The layout of a square maze of the given size, with one enemy per 200 tiles and one trap per 100.
+     */
+    static int[][] generate(int size) {
+        int tiles = size * size;
+        return MazeGenerator.generate(size, size, SEED, 0.1f, tiles / 200, tiles / 100);
+    }
+
+    /**
+     * @param map A shipped level or the size of a generated maze.
+     */
+    static Maze load(String map) {
+        return map.startsWith("level-") ? new Maze(mapFile(map)) : new Maze(generate(Integer.parseInt(map)));
+    }
+
+    /**
+     * @return Every floor tile, as x * height + y.
+     */
+    static int[] floorTiles(Maze maze) {
+        int[][] layout = maze.getLayout();
+        int height = layout[0].length;
+        int[] floor = new int[layout.length * height];
+        int count = 0;
+        for (int x = 0; x < layout.length; x++) {
+            for (int y = 0; y < height; y++) {
+                if (layout[x][y] == -1) {
+                    floor[count++] = x * height + y;
+                }
+            }
+        }
+        return Arrays.copyOf(floor, count);
+    }
+
+    /**
+     * Picks start and goal tiles that can reach each other, as x * height + y.
+     *
+     * @return The starts in the first row, the goals in the second.
+     */
+    static int[][] reachablePairs(Maze maze, int count) {
+        int height = maze.getLayout()[0].length;
+        int[] floor = floorTiles(maze);
+        WalkableComponents components = maze.getComponents();
+        Random random = new Random(SEED);
+        int[][] pairs = new int[2][count];
+        for (int i = 0; i < count; i++) {
+            int start, goal;
+            do {
+                start = floor[random.nextInt(floor.length)];
+                goal = floor[random.nextInt(floor.length)];
+            } while (start == goal || !components.canReach(start / height, start % height, goal / height, goal % height));
+            pairs[0][i] = start;
+            pairs[1][i] = goal;
+        }
+        return pairs;
+    }
+}
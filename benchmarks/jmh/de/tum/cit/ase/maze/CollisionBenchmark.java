@@ -0,0 +1,56 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Maze#checkCollision} for the player's feet at positions spread over the maze: on floor tiles, shifted
+ * by up to a tile so the probes straddle walls, traps and the exit as they do while walking.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"level-4", "51", "201", "801"})
+    public String map;
+
+    private Maze maze;
+    private final Rectangle[] probes = new Rectangle[PROBES];
+
+    @Setup
+    public void setUp() {
+        maze = BenchmarkMazes.load(map);
+        int height = maze.getLayout()[0].length;
+        int[] floor = BenchmarkMazes.floorTiles(maze);
+        Random random = new Random(BenchmarkMazes.SEED);
+        for (int i = 0; i < PROBES; i++) {
+            int tile = floor[random.nextInt(floor.length)];
+            float x = tile / height * BenchmarkMazes.TILE_SIZE + random.nextInt(BenchmarkMazes.TILE_SIZE * 2) - BenchmarkMazes.TILE_SIZE;
+            float y = tile % height * BenchmarkMazes.TILE_SIZE + random.nextInt(BenchmarkMazes.TILE_SIZE * 2) - BenchmarkMazes.TILE_SIZE;
+            probes[i] = new Rectangle(x + 2, y + 2, 8, 4); // The player's feet
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int checkCollision() {
+        int result = 0;
+        for (Rectangle probe : probes) {
+            result += maze.checkCollision(probe, false);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package de.tum.cit.ase.maze;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of all enemies: the {@link EnemySystem} that replaced the per-enemy update, with the game's per-frame
+ * node budget in TIME_SLICED mode. The player stands still in the middle of the maze, so the enemies around it
+ * chase and the rest patrol, and the ticks run on without a reset between them, as in a level.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class EnemyUpdateBenchmark {
+    private static final float DELTA = 1 / 60f;
+
+    @Param({"201", "401"})
+    public int size;
+
+    @Param({"100", "1000", "5000"})
+    public int enemies;
+
+    private EnemySystem enemySystem;
+    private final PathfindingBudget pathfindingBudget = new PathfindingBudget();
+    private float playerX;
+    private float playerY;
+
+    @Setup
+    public void setUp() {
+        Maze maze = new Maze(MazeGenerator.generate(size, size, BenchmarkMazes.SEED, 0.1f, enemies, 0));
+        enemySystem = new EnemySystem(maze, maze.getEnemySpawnCount(), BenchmarkMazes.SEED);
+        enemySystem.setPathfindingBudget(pathfindingBudget);
+        enemySystem.setPathfindingMode(PathfindingMode.TIME_SLICED);
+        for (int i = 0; i < maze.getEnemySpawnCount(); i++) {
+            enemySystem.spawn(maze.getEnemySpawnX(i) * BenchmarkMazes.TILE_SIZE, maze.getEnemySpawnY(i) * BenchmarkMazes.TILE_SIZE);
+        }
+        int[] floor = BenchmarkMazes.floorTiles(maze);
+        int middle = floor[floor.length / 2];
+        playerX = middle / size * BenchmarkMazes.TILE_SIZE;
+        playerY = middle % size * BenchmarkMazes.TILE_SIZE;
+    }
+
+    @TearDown
+    public void tearDown() {
+        enemySystem.dispose();
+    }
+
+    @Benchmark
+    public EnemySystem update() {
+        pathfindingBudget.reset();
+        enemySystem.update(DELTA, playerX, playerY);
+        return enemySystem;
+    }
+}
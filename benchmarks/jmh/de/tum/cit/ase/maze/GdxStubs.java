@@ -0,0 +1,114 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.backends.headless.mock.audio.MockAudio;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Just enough of libGDX for the benchmarks to build screen objects without a window: the gdx natives for the
+ * camera math, the headless backend's files, audio and graphics, and a GL and a batch that do nothing. Nothing
+ * is drawn, so textures only need their size; the font is the one shipped in the gdx jar, with its glyphs on an
+ * empty texture.
+ */
+final class GdxStubs {
+    private static boolean installed;
+
+    private GdxStubs() {
+    }
+
+    /**
+     * Sets up the Gdx globals, once per JVM.
+     */
+    static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        GdxNativesLoader.load();
+        Gdx.files = new HeadlessFiles();
+        Gdx.audio = new MockAudio();
+        Gdx.graphics = new MockGraphics();
+        Gdx.gl = Gdx.gl20 = stub(GL20.class);
+    }
+
+    /**
+     * @return An implementation of the interface whose methods do nothing and return zero, false or null.
+     */
+    static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (returnType == boolean.class) {
+                return false;
+            } else if (returnType == void.class || !returnType.isPrimitive()) {
+                return null;
+            } else if (returnType == float.class) {
+                return 0f;
+            } else if (returnType == double.class) {
+                return 0d;
+            } else if (returnType == long.class) {
+                return 0L;
+            }
+            return returnType == int.class ? 0 : (Object) (byte) 0; // short and char never occur in GL20 or Batch
+        }));
+    }
+
+    /**
+     * @return A texture of the given size that holds no pixels.
+     */
+    static Texture texture(int width, int height) {
+        install();
+        return new Texture(new TextureData() {
+            @Override public TextureDataType getType() { return TextureDataType.Custom; }
+            @Override public boolean isPrepared() { return true; }
+            @Override public void prepare() { }
+            @Override public Pixmap consumePixmap() { return null; }
+            @Override public boolean disposePixmap() { return false; }
+            @Override public void consumeCustomData(int target) { }
+            @Override public int getWidth() { return width; }
+            @Override public int getHeight() { return height; }
+            @Override public Pixmap.Format getFormat() { return Pixmap.Format.RGBA8888; }
+            @Override public boolean useMipMaps() { return false; }
+            @Override public boolean isManaged() { return false; }
+        });
+    }
+
+    /**
+     * @return A region of a 16x16 texture.
+     */
+    static TextureRegion region() {
+        return new TextureRegion(texture(16, 16));
+    }
+
+    /**
+     * @return An animation of a few frames, like the key's.
+     */
+    static Animation<TextureRegion> animation() {
+        return new Animation<>(0.1f, region(), region(), region(), region());
+    }
+
+    /**
+     * @return A HUD on a stage whose batch draws nothing.
+     */
+    static HUD hud(TimerWheel timerWheel) {
+        install();
+        BitmapFont font = new BitmapFont(new BitmapFont.BitmapFontData(
+                Gdx.files.classpath("com/badlogic/gdx/utils/lsans-15.fnt"), false), new TextureRegion(texture(256, 128)), false);
+        Stage stage = new Stage(new ScreenViewport(), stub(Batch.class));
+        return new HUD(region(), region(), animation(), animation(), PlayerState.MAX_LIVES, timerWheel, new FrameProfiler(),
+                stage, font, null);
+    }
+}
@@ -0,0 +1,72 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The HUD update methods the game screen calls every frame, each on its own and all together as in a frame.
+ * The invincibility timer counts down, so its label text changes every frame as it does after a hit. Drawing
+ * the stage needs a GL context and is left out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class HudBenchmark {
+    private static final float DELTA = 1 / 60f;
+
+    private HUD hud;
+    private TextureRegion fullHeart;
+    private TextureRegion emptyHeart;
+    private float invincibility;
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        hud = GdxStubs.hud(new TimerWheel());
+        fullHeart = GdxStubs.region();
+        emptyHeart = GdxStubs.region();
+    }
+
+    private float nextInvincibility() {
+        invincibility -= DELTA;
+        if (invincibility <= 0) {
+            invincibility = 20; // A shield
+        }
+        return invincibility;
+    }
+
+    @Benchmark
+    public HUD updateHearts() {
+        hud.updateHearts(3, fullHeart, emptyHeart);
+        return hud;
+    }
+
+    @Benchmark
+    public HUD updateInvincibilityTimer() {
+        hud.updateInvincibilityTimer(nextInvincibility());
+        return hud;
+    }
+
+    @Benchmark
+    public HUD updateKey() {
+        hud.updateKey(DELTA, (frame++ & 1024) != 0);
+        return hud;
+    }
+
+    @Benchmark
+    public HUD frame() {
+        hud.updateHearts(3, fullHeart, emptyHeart);
+        hud.updateInvincibilityTimer(nextInvincibility());
+        hud.updateKey(DELTA, (frame++ & 1024) != 0);
+        hud.updateExit(false);
+        return hud;
+    }
+}
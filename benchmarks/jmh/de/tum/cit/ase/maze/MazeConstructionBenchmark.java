@@ -0,0 +1,58 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a {@link Maze}: parsing each shipped map file, and indexing a generated layout of growing size, which
+ * leaves out the parsing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MazeConstructionBenchmark {
+
+    @State(Scope.Thread)
+    public static class MapFile {
+        @Param({"level-1", "level-2", "level-3", "level-4", "level-5"})
+        public String level;
+
+        FileHandle file;
+
+        @Setup
+        public void setUp() {
+            file = BenchmarkMazes.mapFile(level);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Generated {
+        @Param({"51", "201", "801"})
+        public int size;
+
+        int[][] layout;
+
+        @Setup
+        public void setUp() {
+            layout = BenchmarkMazes.generate(size);
+        }
+    }
+
+    @Benchmark
+    public Maze fromFile(MapFile map) {
+        return new Maze(map.file);
+    }
+
+    @Benchmark
+    public Maze fromLayout(Generated map) {
+        return new Maze(map.layout);
+    }
+}
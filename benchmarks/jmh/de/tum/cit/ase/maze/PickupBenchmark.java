@@ -0,0 +1,56 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-frame collectible check, which the screen's updateCollectibles loop became: the {@link PickupSystem}
+ * testing the player against every dropped collectible. The collectibles lie on the floor away from the player,
+ * so a frame only tests and never picks up, which is what almost every frame of a level does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class PickupBenchmark {
+    private static final float DELTA = 1 / 60f;
+
+    @Param({"16", "256", "4096"})
+    public int collectibles;
+
+    private final Engine engine = new Engine();
+
+    @Setup
+    public void setUp() {
+        GdxStubs.install();
+        TimerWheel timerWheel = new TimerWheel();
+        HUD hud = GdxStubs.hud(timerWheel);
+        Character player = new Character(-100, -100, PlayerState.MAX_LIVES, WalkAnimations.none(),
+                WalkAnimations.none(), new OrthographicCamera(), timerWheel);
+        CollectiblePool pool = new CollectiblePool(new MazeRunnerGame(null), player, hud);
+        engine.addSystem(new PickupSystem(player, pool, new FrameProfiler(), 0)); // The profiler stays disabled
+
+        Random random = new Random(BenchmarkMazes.SEED);
+        for (int i = 0; i < collectibles; i++) {
+            engine.addEntity(pool.obtain(random.nextInt(CollectiblePool.KINDS),
+                    random.nextInt(200) * BenchmarkMazes.TILE_SIZE, random.nextInt(200) * BenchmarkMazes.TILE_SIZE));
+        }
+        engine.update(DELTA); // Adds the entities to the system's family
+    }
+
+    @Benchmark
+    public Engine update() {
+        engine.update(DELTA);
+        return engine;
+    }
+}
@@ -0,0 +1,113 @@
+package de.tum.cit.ase.maze;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the time of one {@link EnemySystem} tick with many enemies on a large generated maze,
+ * on the calling thread only. The player walks around randomly so that enemies near it start chasing
+ * and use the time-sliced pathfinder under the game's per-frame budget. A tick has to stay well below
+ * 16.7 ms for 60 Hz. Each enemy count is run with the default simulation tiers and with every enemy
+ * in the NEAR tier, and the average number of enemies per tier is reported.
+ */
+public class EnemySystemBenchmark {
+    private static final int[] ENEMY_COUNTS = {1_000, 10_000, 20_000};
+    private static final int MAZE_SIZE = 401;
+    private static final long SEED = 42;
+    private static final float DELTA = 1 / 60f;
+    private static final int WARMUP_TICKS = 600;
+    private static final int MEASURED_TICKS = 3600; // One minute of game time
+    private static final float PLAYER_STEP_INTERVAL = 0.25f; // Seconds per tile the player walks
+
+    public static void main(String[] args) {
+        System.out.printf("%-8s %-5s %10s %10s %10s %10s %8s %8s %8s %6s%n", "enemies", "LOD", "mean ms", "p99 ms",
+                "max ms", "chasing", "near", "mid", "far", "60 Hz");
+        for (int enemies : ENEMY_COUNTS) {
+            for (boolean levelOfDetail : new boolean[]{false, true}) {
+                run(enemies, levelOfDetail, WARMUP_TICKS, false); // Warm up the JIT, discard
+                run(enemies, levelOfDetail, MEASURED_TICKS, true);
+            }
+        }
+    }
+
+    private static void run(int enemies, boolean levelOfDetail, int ticks, boolean print) {
+        int[][] layout = MazeGenerator.generate(MAZE_SIZE, MAZE_SIZE, SEED, 0.1f, 0, 0);
+        Maze maze = new Maze(layout);
+        maze.enableLandmarks(8);
+        EnemySystem system = new EnemySystem(maze, enemies, SEED);
+        system.setPathfindingMode(PathfindingMode.TIME_SLICED);
+        if (!levelOfDetail) {
+            system.setLevelOfDetail(MAZE_SIZE * 2, MAZE_SIZE * 2, 1); // Everything is NEAR
+        }
+
+        int[] floor = new int[MAZE_SIZE * MAZE_SIZE];
+        int floorCount = 0;
+        for (int x = 0; x < MAZE_SIZE; x++) {
+            for (int y = 0; y < MAZE_SIZE; y++) {
+                if (layout[x][y] == -1) {
+                    floor[floorCount++] = x * MAZE_SIZE + y;
+                }
+            }
+        }
+        Random random = new Random(SEED);
+        for (int i = 0; i < enemies; i++) {
+            int cell = floor[random.nextInt(floorCount)];
+            system.spawn(cell / MAZE_SIZE * 16, cell % MAZE_SIZE * 16);
+        }
+        PathfindingBudget budget = new PathfindingBudget(); // The game's budget
+        system.setPathfindingBudget(budget);
+
+        int playerCell = floor[random.nextInt(floorCount)];
+        float stepTimer = 0;
+        long[] tickNanos = new long[ticks];
+        long chasing = 0;
+        long[] tiers = new long[SimulationTier.values().length];
+        for (int tick = 0; tick < ticks; tick++) {
+            stepTimer += DELTA;
+            if (stepTimer >= PLAYER_STEP_INTERVAL) {
+                stepTimer -= PLAYER_STEP_INTERVAL;
+                playerCell = randomNeighbor(layout, playerCell, random);
+            }
+            budget.reset();
+            long begin = System.nanoTime();
+            system.update(DELTA, playerCell / MAZE_SIZE * 16, playerCell % MAZE_SIZE * 16);
+            tickNanos[tick] = System.nanoTime() - begin;
+            for (int i = 0; i < system.getCount(); i++) {
+                if (system.getState(i) == EnemyState.CHASING) {
+                    chasing++;
+                }
+            }
+            for (SimulationTier tier : SimulationTier.values()) {
+                tiers[tier.ordinal()] += system.getTierCount(tier);
+            }
+        }
+
+        if (print) {
+            long total = 0;
+            for (long nanos : tickNanos) {
+                total += nanos;
+            }
+            Arrays.sort(tickNanos);
+            double mean = total / 1e6 / ticks;
+            double p99 = tickNanos[(int) (ticks * 0.99)] / 1e6;
+            double max = tickNanos[ticks - 1] / 1e6;
+            System.out.printf("%-8d %-5s %10.3f %10.3f %10.3f %10.1f %8d %8d %8d %6s%n", enemies, levelOfDetail ? "on" : "off",
+                    mean, p99, max, (double) chasing / ticks, tiers[0] / ticks, tiers[1] / ticks, tiers[2] / ticks,
+                    p99 < 1000.0 / 60 ? "yes" : "no");
+        }
+    }
+
+    private static int randomNeighbor(int[][] layout, int cell, Random random) {
+        int x = cell / MAZE_SIZE, y = cell % MAZE_SIZE;
+        int[] offsets = {0, 1, 0, -1, 1, 0, -1, 0};
+        int first = random.nextInt(4);
+        for (int k = 0; k < 4; k++) {
+            int i = (first + k) % 4 * 2;
+            int nx = x + offsets[i], ny = y + offsets[i + 1];
+            if (layout[nx][ny] == -1) {
+                return nx * MAZE_SIZE + ny;
+            }
+        }
+        return cell;
+    }
+}
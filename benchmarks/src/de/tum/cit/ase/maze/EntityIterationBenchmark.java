@@ -0,0 +1,122 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Compares the per-frame cost of updating the maze's entities with the old loop, which walks every element
+ * and finds out what it is with instanceof, against the Ashley systems, which only visit the entities of
+ * their family. Both sides do the same work: advance the animations of traps and keys and read the position
+ * of every enemy. Drawing needs a GL context and is left out, as is the enemy simulation itself, which
+ * {@link EnemySystemBenchmark} measures.
+ */
+public class EntityIterationBenchmark {
+    private static final int[] MAZE_SIZES = {51, 101, 201, 401};
+    private static final long SEED = 42;
+    private static final float DELTA = 1 / 60f;
+    private static final int WARMUP_FRAMES = 2_000;
+    private static final int MEASURED_FRAMES = 5_000;
+
+    private static float sink; // Keeps the JIT from dropping the work
+
+    public static void main(String[] args) {
+        System.out.printf("%-6s %9s %9s %14s %14s %8s%n", "maze", "elements", "entities", "loop us/frame",
+                "ashley us/frame", "speedup");
+        for (int size : MAZE_SIZES) {
+            run(size);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static void run(int size) {
+        int tiles = size * size;
+        int[][] layout = MazeGenerator.generate(size, size, SEED, 0.1f, tiles / 200, tiles / 100);
+        Maze maze = new Maze(layout);
+        EnemySystem enemySystem = new EnemySystem(maze, maze.getEnemySpawnCount(), SEED);
+        TextureRegion region = new TextureRegion();
+        Animation<TextureRegion> animation = new Animation<>(0.1f, region, new TextureRegion(), new TextureRegion());
+
+        // The old screen: one polymorphic array with every element
+        Array<MazeElement> elements = new Array<>();
+        // The new screen: static tiles stay elements, the rest becomes entities
+        Engine engine = new Engine();
+        engine.addSystem(new MovementSystem(1));
+        engine.addSystem(new AnimationSystem(2));
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                MazeElement element = switch (layout[x][y]) {
+                    case 0 -> new Wall(region, x * 16, y * 16);
+                    case 1 -> new EntryPoint(region, x * 16, y * 16);
+                    case 2 -> new Exit(region, x * 16, y * 16);
+                    case 3 -> new Trap(animation, x * 16, y * 16);
+                    case 5 -> new Key(animation, x * 16, y * 16);
+                    default -> null;
+                };
+                if (element == null) {
+                    continue;
+                }
+                elements.add(element);
+                if (element instanceof Trap || element instanceof Key) {
+                    Entity entity = new Entity();
+                    entity.add(new ElementComponent(element));
+                    entity.add(new PositionComponent(element.getX(), element.getY()));
+                    entity.add(new AnimationComponent(animation));
+                    engine.addEntity(entity);
+                }
+            }
+        }
+        for (int i = 0; i < maze.getEnemySpawnCount(); i++) {
+            Enemy enemy = new Enemy(region, maze.getEnemySpawnX(i) * 16, maze.getEnemySpawnY(i) * 16, enemySystem,
+                    WalkAnimations.none(), animation);
+            elements.add(enemy);
+            Entity entity = new Entity();
+            entity.add(new ElementComponent(enemy));
+            entity.add(new PositionComponent(enemy.getX(), enemy.getY()));
+            entity.add(new EnemyComponent(enemy));
+            engine.addEntity(entity);
+        }
+
+        for (int frame = 0; frame < WARMUP_FRAMES; frame++) {
+            oldLoop(elements);
+            engine.update(DELTA);
+        }
+        long begin = System.nanoTime();
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+            oldLoop(elements);
+        }
+        double loopMicros = (System.nanoTime() - begin) / 1e3 / MEASURED_FRAMES;
+        begin = System.nanoTime();
+        for (int frame = 0; frame < MEASURED_FRAMES; frame++) {
+            engine.update(DELTA);
+        }
+        double ashleyMicros = (System.nanoTime() - begin) / 1e3 / MEASURED_FRAMES;
+        for (Entity entity : engine.getEntities()) {
+            sink += entity.getComponent(PositionComponent.class).x;
+        }
+
+        System.out.printf("%-6s %9d %9d %14.2f %14.2f %7.1fx%n", size + "x" + size, elements.size,
+                engine.getEntities().size(), loopMicros, ashleyMicros, loopMicros / ashleyMicros);
+    }
+
+    /**
+     * The update part of the old render loop: an instanceof chain over all elements, static tiles included.
+     */
+    private static void oldLoop(Array<MazeElement> elements) {
+        for (MazeElement element : elements) {
+            if (element instanceof Enemy enemy) {
+                sink += enemy.getX() + enemy.getY();
+            } else if (element instanceof Trap trap) {
+                trap.update(DELTA);
+            } else if (element instanceof Lava lava) {
+                lava.update(DELTA);
+            } else if (element instanceof Key key) {
+                key.update(DELTA);
+            } // Static tiles fall through the chain; both screens draw them the same way
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.util.Arrays;
+
+/**
+ * Runs one level on the headless backend with the frame rate uncapped and reports how long each part of a tick
+ * takes. The level comes from a map file or the maze generator, and the player follows an {@link InputScript},
+ * either from a file or a seeded random walk, so two runs with the same arguments do the same work.
+ * <p>
+ * Every tick is timed per subsystem: pathfinding bookkeeping (the shared node budget and the paths delivered by
+ * the worker threads), timers, the player's moves, the enemies and the tile under the player. The report holds
+ * ticks per second, the p50, p99, max and mean time of each subsystem and the statistics of the path queries of
+ * the measured ticks, and is written as JSON so runs can be compared over time.
+ * <p>
+ * A run can be recorded to an {@link InputLog} and replayed later with the same seed, tick lengths and input,
+ * without warmup; the report then tells whether the replay ended in the recorded state, so a recording serves as
+ * a performance regression test. Recording and replaying make the pathfinding service deterministic. Recordings
+ * made in the game replay in the game, since chests and collectibles are not part of the simulation.
+ * <p>
+ * With {@code --metrics <file>} the run also records the game's metrics, warmup included, and exports them to the
+ * file every second, like the game does.
+ * <p>
+ * Usage: {@code HeadlessBenchmarkLauncher [--map <file> | --generate <w>x<h>] [--seed <n>] [--ticks <n>]
+ * [--warmup <n>] [--input <script>] [--mode <PathfindingMode>] [--out <file>] [--record <file> | --replay <file>]
+ * [--metrics <file>]}
+ * <p>
+ * Paths are relative to the project directory. The report goes to {@code benchmark-results.json} unless
+ * {@code --out} says otherwise; keep reports under {@code results/}, which git ignores, or outside the tree.
+ */
+public class HeadlessBenchmarkLauncher {
+    private static final float TICK = 1 / 60f; // Fixed, so the work of a tick does not depend on the machine
+    private static final int LIVES = 1_000_000; // Enough that the player never runs out during a run
+    private static final int RANDOM_WALK_RUNS = 1000;
+    private static final String[] STAGES = {"pathfinding", "timers", "player", "enemies", "status", "tick"};
+    private static final float METRICS_INTERVAL = 1; // Seconds between two snapshots in the metrics file
+
+    public static void main(String[] args) {
+        Run run = new Run();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--map":      run.map = args[++i]; run.generate = null; break;
+                case "--generate": run.generate = args[++i]; break;
+                case "--seed":     run.seed = Long.parseLong(args[++i]); break;
+                case "--ticks":    run.ticks = Integer.parseInt(args[++i]); break;
+                case "--warmup":   run.warmup = Integer.parseInt(args[++i]); break;
+                case "--input":    run.input = args[++i]; break;
+                case "--mode":     run.mode = PathfindingMode.valueOf(args[++i].toUpperCase()); break;
+                case "--out":      run.out = args[++i]; break;
+                case "--record":   run.record = args[++i]; break;
+                case "--replay":   run.replayFile = args[++i]; break;
+                case "--metrics":  run.metricsFile = args[++i]; break;
+                default: throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (run.replayFile != null) {
+            // The recording decides the seed and the ticks; warming up would replay it from the middle
+            run.replay = InputLog.load(new FileHandle(run.replayFile));
+            run.seed = run.replay.getSeed();
+            run.ticks = run.replay.getTickCount();
+            run.warmup = 0;
+        }
+        if (run.ticks < 1 || run.warmup < 0) {
+            throw new IllegalArgumentException("At least one measured tick is needed");
+        }
+
+        GdxNativesLoader.disableNativesLoading = true; // The simulation runs no native code
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = 0; // Uncapped: the next tick starts as soon as the last one returns
+        new HeadlessApplication(run, config);
+    }
+
+    /**
+     * The application that sets up the level on start and runs one tick per render call. Its options are set
+     * from the command line before it starts.
+     */
+    private static class Run extends ApplicationAdapter {
+        String map = "maps/level-4.properties";
+        String generate;
+        long seed = 42;
+        int ticks = 100_000;
+        int warmup = 20_000;
+        String input;
+        PathfindingMode mode = PathfindingMode.BACKGROUND;
+        String out = "benchmark-results.json";
+        String record; // File to record the run's input to, or null
+        String replayFile; // File of the recording to replay, or null
+        InputLog replay;
+        String metricsFile; // File to export the metrics to, or null
+
+        private GcPauseMonitor gcPauseMonitor;
+        private MetricsExporter metricsExporter;
+        private TickMetrics tickMetrics;
+        private final PathfindingStats pathfindingStats = new PathfindingStats();
+
+        private Simulation simulation;
+        private PathfindingBudget pathfindingBudget;
+        private PathfindingService pathfindingService;
+        private InputScript script;
+        private InputLog recording;
+        private long[][] samples; // Nanoseconds per stage and measured tick
+        private int tick; // Ticks run so far, warmup included
+        private long begin; // When the first measured tick started
+
+        @Override
+        public void create() {
+            Maze maze;
+            if (generate != null) {
+                String[] size = generate.toLowerCase().split("x");
+                maze = new Maze(MazeGenerator.generate(Integer.parseInt(size[0]), Integer.parseInt(size[1]), seed,
+                        0.1f, 50, 100));
+            } else {
+                maze = new Maze(new FileHandle(map));
+            }
+            simulation = Simulation.create(maze, LIVES, seed);
+            if (simulation == null) {
+                Gdx.app.error("Benchmark", "The maze has no entry point");
+                Gdx.app.exit();
+                return;
+            }
+            pathfindingBudget = new PathfindingBudget();
+            pathfindingService = new PathfindingService(Runtime.getRuntime().availableProcessors() - 1);
+            pathfindingService.setDeterministic(replay != null || record != null);
+            EnemySystem enemies = simulation.getEnemies();
+            enemies.setPathfindingBudget(pathfindingBudget);
+            enemies.setPathfindingService(pathfindingService);
+            enemies.setPathfindingMode(mode);
+            enemies.setPathfindingStats(pathfindingStats);
+            pathfindingService.setStats(pathfindingStats);
+            if (metricsFile != null) {
+                MetricsRegistry metrics = new MetricsRegistry();
+                enemies.setMetrics(metrics);
+                tickMetrics = new TickMetrics(metrics, maze);
+                gcPauseMonitor = new GcPauseMonitor(metrics);
+                metricsExporter = new MetricsExporter(metrics, new FileHandle(metricsFile), METRICS_INTERVAL);
+            }
+            long layoutHash = InputLog.hashLayout(maze.getLayout());
+            if (replay != null && replay.getLayoutHash() != layoutHash) {
+                throw new IllegalStateException("The replay was recorded in a different maze");
+            }
+            if (record != null) {
+                recording = new InputLog(seed, layoutHash);
+            }
+            script = input != null ? InputScript.parse(new FileHandle(input).readString())
+                    : InputScript.randomWalk(RANDOM_WALK_RUNS, seed);
+            samples = new long[STAGES.length][ticks];
+        }
+
+        @Override
+        public void render() {
+            if (simulation == null || tick >= warmup + ticks) {
+                return; // Exit has been requested
+            }
+            if (tick == warmup) {
+                begin = System.nanoTime();
+                pathfindingStats.reset();
+            }
+            int measured = tick - warmup;
+            int held = replay != null ? replay.next() : script.next();
+            float delta = replay != null ? replay.getDelta() : TICK;
+            if (recording != null) {
+                recording.record(held, delta);
+            }
+
+            long start = System.nanoTime();
+            pathfindingBudget.reset();
+            pathfindingService.deliverResults(simulation.getMaze().getLayoutVersion());
+            long pathfinding = System.nanoTime();
+            simulation.advanceTimers(delta);
+            long timers = System.nanoTime();
+            simulation.movePlayer(delta, held);
+            long player = System.nanoTime();
+            simulation.updateEnemies(delta);
+            long enemies = System.nanoTime();
+            simulation.updateStatus();
+            long status = System.nanoTime();
+            if (tickMetrics != null) {
+                tickMetrics.recordTick(status - start);
+            }
+
+            if (measured >= 0) {
+                samples[0][measured] = pathfinding - start;
+                samples[1][measured] = timers - pathfinding;
+                samples[2][measured] = player - timers;
+                samples[3][measured] = enemies - player;
+                samples[4][measured] = status - enemies;
+                samples[5][measured] = status - start;
+            }
+            if (++tick == warmup + ticks) {
+                if (recording != null) {
+                    recording.setEndChecksum(simulation.checksum());
+                    recording.save(new FileHandle(record));
+                }
+                report((System.nanoTime() - begin) / 1e9);
+                Gdx.app.exit();
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (simulation != null) {
+                simulation.getEnemies().dispose();
+                pathfindingService.dispose();
+            }
+            if (metricsExporter != null) {
+                gcPauseMonitor.dispose();
+                metricsExporter.dispose();
+            }
+        }
+
+        private void report(double seconds) {
+            JsonValue result = new JsonValue(JsonValue.ValueType.object);
+            result.addChild("map", new JsonValue(generate != null ? "generated " + generate : map));
+            result.addChild("seed", new JsonValue(seed));
+            result.addChild("input", new JsonValue(replayFile != null ? replayFile : input != null ? input : "random walk"));
+            result.addChild("mode", new JsonValue(mode.name()));
+            result.addChild("enemies", new JsonValue(simulation.getEnemies().getCount()));
+            result.addChild("warmupTicks", new JsonValue(warmup));
+            result.addChild("ticks", new JsonValue(ticks));
+            result.addChild("seconds", new JsonValue(seconds));
+            result.addChild("ticksPerSecond", new JsonValue(ticks / seconds));
+            result.addChild("livesLost", new JsonValue(LIVES - simulation.getPlayer().getLives()));
+            result.addChild("checksum", new JsonValue(Long.toHexString(simulation.checksum())));
+            if (replay != null && replay.hasEndChecksum()) {
+                result.addChild("endStateMatches", new JsonValue(replay.getEndChecksum() == simulation.checksum()));
+            }
+            result.addChild("timestamp", new JsonValue(System.currentTimeMillis()));
+
+            JsonValue stages = new JsonValue(JsonValue.ValueType.object);
+            for (int s = 0; s < STAGES.length; s++) {
+                long[] sorted = samples[s].clone();
+                Arrays.sort(sorted);
+                long total = 0;
+                for (long sample : sorted) {
+                    total += sample;
+                }
+                JsonValue stage = new JsonValue(JsonValue.ValueType.object);
+                stage.addChild("p50Micros", new JsonValue(sorted[(int) (sorted.length * 0.50)] / 1e3));
+                stage.addChild("p99Micros", new JsonValue(sorted[(int) (sorted.length * 0.99)] / 1e3));
+                stage.addChild("maxMicros", new JsonValue(sorted[sorted.length - 1] / 1e3));
+                stage.addChild("meanMicros", new JsonValue(total / 1e3 / sorted.length));
+                stages.addChild(STAGES[s], stage);
+            }
+            result.addChild("stages", stages);
+
+            JsonValue queries = new JsonValue(JsonValue.ValueType.object);
+            queries.addChild("queries", new JsonValue(pathfindingStats.getQueries()));
+            queries.addChild("failed", new JsonValue(pathfindingStats.getFailed()));
+            queries.addChild("replans", new JsonValue(pathfindingStats.getReplans()));
+            queries.addChild("meanNodesExpanded", new JsonValue(pathfindingStats.getMeanNodesExpanded()));
+            queries.addChild("maxNodesExpanded", new JsonValue(pathfindingStats.getMaxNodesExpanded()));
+            queries.addChild("meanOpenPeak", new JsonValue(pathfindingStats.getMeanOpenPeak()));
+            queries.addChild("maxOpenPeak", new JsonValue(pathfindingStats.getMaxOpenPeak()));
+            queries.addChild("meanPathLength", new JsonValue(pathfindingStats.getMeanPathLength()));
+            queries.addChild("meanSearchMillis", new JsonValue(pathfindingStats.getMeanMillis()));
+            queries.addChild("maxSearchMillis", new JsonValue(pathfindingStats.getMaxMillis()));
+            result.addChild("pathfinding", queries);
+
+            String json = result.prettyPrint(JsonWriter.OutputType.json, 0);
+            FileHandle file = new FileHandle(out);
+            file.writeString(json + "\n", false);
+            System.out.println(json);
+            System.out.println("Written to " + file.path());
+        }
+    }
+}
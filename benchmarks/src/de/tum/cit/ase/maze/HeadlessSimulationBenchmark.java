@@ -0,0 +1,61 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.io.File;
+
+/**
+ * Runs whole levels on the {@link Simulation} alone, without a window, GL context or audio, and reports how many
+ * ticks per second it manages. A bot holds a random direction for a random number of ticks; with a lot of lives
+ * it keeps walking into enemies and traps, so every rule of a tick is exercised.
+ */
+public class HeadlessSimulationBenchmark {
+    private static final float TICK = 1 / 60f;
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 100_000;
+    private static final int LIVES = 1_000_000;
+    private static final long SEED = 42;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    public static void main(String[] args) {
+        System.out.printf("%-16s %8s %12s %12s %8s %8s%n", "map", "enemies", "ticks/s", "us/tick", "hits", "killed");
+        for (int level = 1; level <= 5; level++) {
+            run("level-" + level, new Maze(new FileHandle(new File("maps/level-" + level + ".properties"))));
+        }
+        run("generated 101", new Maze(MazeGenerator.generate(101, 101, SEED, 0.1f, 50, 100)));
+    }
+
+    private static void run(String name, Maze maze) {
+        Simulation simulation = Simulation.create(maze, LIVES, SEED);
+        if (simulation == null) {
+            System.out.printf("%-16s no entry point%n", name);
+            return;
+        }
+        RandomXS128 random = new RandomXS128(SEED);
+        int[] bot = new int[2]; // Held input, ticks left to hold it
+        play(simulation, random, bot, WARMUP_TICKS);
+        long begin = System.nanoTime();
+        play(simulation, random, bot, MEASURED_TICKS);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        EnemySystem enemies = simulation.getEnemies();
+        int killed = 0;
+        for (int i = 0; i < enemies.getCount(); i++) {
+            killed += enemies.isDead(i) ? 1 : 0;
+        }
+        System.out.printf("%-16s %8d %12.0f %12.2f %8d %8d%n", name, enemies.getCount(), MEASURED_TICKS / seconds,
+                seconds * 1e6 / MEASURED_TICKS, LIVES - simulation.getPlayer().getLives(), killed);
+    }
+
+    private static void play(Simulation simulation, RandomXS128 random, int[] bot, int ticks) {
+        for (int t = 0; t < ticks; t++) {
+            if (bot[1]-- <= 0) {
+                bot[0] = Simulation.inputBit(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+                bot[1] = 10 + random.nextInt(50);
+                simulation.getPlayer().setArmed(random.nextInt(4) == 0); // Slays enemies now and then
+            }
+            simulation.tick(TICK, bot[0]);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package de.tum.cit.ase.maze;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the cost of repairing a D* Lite search with a full A* replan on large generated mazes.
+ * Four scenarios are measured: small tile edits (a wall appears or disappears, half of them on the
+ * current path), the player moving one tile, the chaser moving one tile along its path, and a chase in which
+ * both move every step.
+ */
+public class IncrementalReplanBenchmark {
+    private static final int[] SIZES = {101, 201, 401};
+    private static final long SEED = 42;
+    private static final int WARMUP_STEPS = 200;
+    private static final int MEASURED_STEPS = 1000;
+
+    /**
+     * Accumulated cost of one planner in one scenario.
+     */
+    private static final class Result {
+        long nanos;
+        long expansions;
+        int steps;
+
+        void add(long nanos, int expansions) {
+            this.nanos += nanos;
+            this.expansions += expansions;
+            this.steps++;
+        }
+
+        String format() {
+            return String.format("%9.1f us %9.0f nodes", nanos / 1000.0 / steps, (double) expansions / steps);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println("size     scenario       D* Lite repair                 full A* replan");
+        for (int size : SIZES) {
+            for (String scenario : new String[]{"tile edit", "player move", "chaser move", "chase"}) {
+                Result[] results = run(size, scenario, WARMUP_STEPS); // Warm up the JIT, discard
+                results = run(size, scenario, MEASURED_STEPS);
+                System.out.printf("%-8s %-14s %s    %s%n", size + "x" + size, scenario,
+                        results[0].format(), results[1].format());
+            }
+        }
+    }
+
+    private static Result[] run(int size, String scenario, int steps) {
+        int[][] layout = MazeGenerator.generate(size, size, SEED, 0.1f, 0, 0);
+        layout[1][1] = -1; // The chaser starts on the entry tile
+        Maze maze = new Maze(layout);
+        Node[][] nodes = maze.getSnapshot().createNodes();
+        maze.addListener((x, y, oldType, newType) -> nodes[x][y].walkable = newType == -1);
+        AStar aStar = new AStar(nodes);
+        DStarLite dStarLite = new DStarLite(maze);
+        Random random = new Random(SEED);
+
+        int startX = 1, startY = 1;
+        int goalX = size - 2, goalY = size - 2;
+        dStarLite.update(startX, startY, goalX, goalY);
+
+        Result repair = new Result();
+        Result replan = new Result();
+        for (int step = 0; step < steps; step++) {
+            if (scenario.equals("tile edit")) {
+                editTile(maze, layout, dStarLite.getPath(), random, startX, startY, goalX, goalY);
+            }
+            if (scenario.equals("player move") || scenario.equals("chase")) {
+                int[] goal = moveAlongFloor(layout, goalX, goalY, random);
+                goalX = goal[0];
+                goalY = goal[1];
+            }
+            if (scenario.equals("chaser move") || scenario.equals("chase")) {
+                List<Node> path = dStarLite.getPath();
+                if (path.size() > 1) {
+                    startX = path.get(0).x;
+                    startY = path.get(0).y;
+                } else {
+                    startX = 1; // Caught the player, start over from the corner
+                    startY = 1;
+                }
+            }
+
+            long begin = System.nanoTime();
+            dStarLite.update(startX, startY, goalX, goalY);
+            int dStarLength = dStarLite.getPath().size();
+            repair.add(System.nanoTime() - begin, dStarLite.getNodesExpanded());
+
+            begin = System.nanoTime();
+            int aStarLength = aStar.findPath(startX, startY, goalX, goalY).size();
+            replan.add(System.nanoTime() - begin, aStar.getNodesExpanded());
+
+            if (dStarLength != aStarLength) {
+                throw new IllegalStateException("Planners disagree: " + dStarLength + " vs " + aStarLength);
+            }
+        }
+        return new Result[]{repair, replan};
+    }
+
+    /**
+     * Toggles one inner tile between wall and floor. Half of the edits hit the current path.
+     */
+    private static void editTile(Maze maze, int[][] layout, List<Node> path, Random random,
+                                 int startX, int startY, int goalX, int goalY) {
+        int x, y;
+        if (random.nextBoolean() && path.size() > 2) {
+            Node node = path.get(1 + random.nextInt(path.size() - 2));
+            x = node.x;
+            y = node.y;
+        } else {
+            x = 1 + random.nextInt(layout.length - 2);
+            y = 1 + random.nextInt(layout[0].length - 2);
+        }
+        if (x == startX && y == startY || x == goalX && y == goalY) {
+            return;
+        }
+        maze.setElementAt(x, y, layout[x][y] == -1 ? 0 : -1);
+    }
+
+    private static int[] moveAlongFloor(int[][] layout, int x, int y, Random random) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            int direction = random.nextInt(4);
+            int nx = x + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+            int ny = y + (direction == 2 ? 1 : direction == 3 ? -1 : 0);
+            if (layout[nx][ny] == -1) {
+                return new int[]{nx, ny};
+            }
+        }
+        return new int[]{x, y};
+    }
+}
@@ -0,0 +1,85 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Measures how many nodes A* expands with the Manhattan heuristic and with the landmark (ALT) heuristic
+ * on the shipped levels and on a large generated maze. Both heuristics must produce paths of the same length.
+ */
+public class LandmarkHeuristicBenchmark {
+    private static final int[] LANDMARK_COUNTS = {4, 8, 16};
+    private static final int QUERIES = 2000;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        System.out.printf("%-16s %8s %10s", "map", "queries", "manhattan");
+        for (int count : LANDMARK_COUNTS) {
+            System.out.printf(" %14s", "ALT k=" + count);
+        }
+        System.out.printf(" %12s %10s%n", "precompute", "memory"); // Of the largest landmark count
+
+        for (int level = 1; level <= 5; level++) {
+            Maze maze = new Maze(new FileHandle(new File("maps/level-" + level + ".properties")));
+            run("level-" + level, maze.getLayout());
+        }
+        run("generated 201", MazeGenerator.generate(201, 201, SEED));
+    }
+
+    private static void run(String name, int[][] layout) {
+        int width = layout.length;
+        int height = layout[0].length;
+        int[] floor = new int[width * height];
+        int floorCount = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (layout[x][y] == -1) {
+                    floor[floorCount++] = x * height + y;
+                }
+            }
+        }
+
+        Random random = new Random(SEED);
+        int[] starts = new int[QUERIES];
+        int[] goals = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            starts[i] = floor[random.nextInt(floorCount)];
+            goals[i] = floor[random.nextInt(floorCount)];
+        }
+
+        AStar aStar = new AStar(new MazeSnapshot(layout, 0, null).createNodes());
+        int[] referenceLengths = new int[QUERIES];
+        long manhattan = countExpansions(aStar, starts, goals, height, referenceLengths, true);
+        System.out.printf("%-16s %8d %10.1f", name, QUERIES, (double) manhattan / QUERIES);
+
+        long precomputeNanos = 0;
+        int memory = 0;
+        for (int count : LANDMARK_COUNTS) {
+            long begin = System.nanoTime();
+            Landmarks landmarks = Landmarks.compute(layout, count, 0);
+            precomputeNanos = System.nanoTime() - begin;
+            memory = landmarks.getMemoryBytes();
+            aStar.setHeuristic(landmarks);
+            long alt = countExpansions(aStar, starts, goals, height, referenceLengths, false);
+            System.out.printf(" %7.1f (-%2.0f%%)", (double) alt / QUERIES, 100.0 - 100.0 * alt / manhattan);
+        }
+        System.out.printf(" %9.2f ms %7d B%n", precomputeNanos / 1e6, memory);
+    }
+
+    private static long countExpansions(AStar aStar, int[] starts, int[] goals, int height,
+                                        int[] referenceLengths, boolean record) {
+        long expansions = 0;
+        for (int i = 0; i < starts.length; i++) {
+            int length = aStar.findPath(starts[i] / height, starts[i] % height, goals[i] / height, goals[i] % height).size();
+            expansions += aStar.getNodesExpanded();
+            if (record) {
+                referenceLengths[i] = length;
+            } else if (referenceLengths[i] != length) {
+                throw new IllegalStateException("Landmark heuristic changed a path length: " + length + " vs " + referenceLengths[i]);
+            }
+        }
+        return expansions;
+    }
+}
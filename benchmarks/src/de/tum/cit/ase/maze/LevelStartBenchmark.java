@@ -0,0 +1,123 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the time and memory it takes to build the elements of a level, with the old per-tile construction
+ * against the {@link LevelBuilder} and its shared {@link TilePrototypes}. The old way built the enemy animation
+ * array and the death animation for every tile, floors included, and new animations for every trap, key and lava
+ * tile. Without a GL context the old loaders cannot create their textures, so the old side is replayed with the
+ * same regions and animations minus the textures; the real old path also decoded and uploaded one image per
+ * animation, which makes the numbers below a lower bound for it.
+ */
+public class LevelStartBenchmark {
+    private static final int WARMUP_STARTS = 20;
+    private static final int MEASURED_STARTS = 50;
+    private static final long SEED = 42;
+    private static final int TILE_SIZE = 16;
+
+    private static final TextureRegion REGION = new TextureRegion();
+    private static final Animation<TextureRegion> ANIMATION = new Animation<>(0.1f, REGION);
+
+    public static void main(String[] args) {
+        System.out.printf("%-16s %9s %9s %12s %12s %12s %12s%n", "map", "tiles", "elements", "old ms", "builder ms",
+                "old KB", "builder KB");
+        run("level-4", new Maze(new FileHandle(new File("maps/level-4.properties"))));
+        for (int size : new int[]{101, 201, 401}) {
+            int tiles = size * size;
+            run("generated " + size, new Maze(MazeGenerator.generate(size, size, SEED, 0.1f, tiles / 200, tiles / 100)));
+        }
+    }
+
+    private static void run(String name, Maze maze) {
+        TilePrototypes prototypes = new TilePrototypes(REGION, ANIMATION);
+        Array<MazeElement> elements = new Array<>();
+        for (int i = 0; i < WARMUP_STARTS; i++) {
+            oldStart(maze, elements);
+            builderStart(maze, prototypes, elements);
+        }
+
+        long[] oldCost = measure(() -> oldStart(maze, elements));
+        long[] builderCost = measure(() -> builderStart(maze, prototypes, elements));
+        System.out.printf("%-16s %9d %9d %12.3f %12.3f %12.1f %12.1f%n", name,
+                maze.getLayout().length * maze.getLayout()[0].length, elements.size,
+                oldCost[0] / 1e6 / MEASURED_STARTS, builderCost[0] / 1e6 / MEASURED_STARTS,
+                oldCost[1] / 1024.0 / MEASURED_STARTS, builderCost[1] / 1024.0 / MEASURED_STARTS);
+    }
+
+    /**
+     * @return The nanoseconds and the bytes allocated by the measured starts.
+     */
+    private static long[] measure(Runnable start) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytes = threads.getThreadAllocatedBytes(thread);
+        long begin = System.nanoTime();
+        for (int i = 0; i < MEASURED_STARTS; i++) {
+            start.run();
+        }
+        return new long[]{System.nanoTime() - begin, threads.getThreadAllocatedBytes(thread) - bytes};
+    }
+
+    private static void builderStart(Maze maze, TilePrototypes prototypes, Array<MazeElement> elements) {
+        elements.clear();
+        maze.clearOccupants();
+        EnemySystem enemySystem = new EnemySystem(maze, maze.getEnemySpawnCount(), SEED);
+        new LevelBuilder(prototypes, enemySystem, null, null).build(maze, elements::add);
+    }
+
+    /**
+     * The old createElementFromType, called for every tile and every spawn point.
+     */
+    private static void oldStart(Maze maze, Array<MazeElement> elements) {
+        elements.clear();
+        maze.clearOccupants();
+        EnemySystem enemySystem = new EnemySystem(maze, maze.getEnemySpawnCount(), SEED);
+        int[][] layout = maze.getLayout();
+        for (int x = 0; x < layout.length; x++) {
+            for (int y = 0; y < layout[x].length; y++) {
+                MazeElement element = oldElement(layout[x][y], x, y, enemySystem);
+                if (element != null && !(element instanceof Floor)) { // The floor is drawn as one background
+                    elements.add(element);
+                }
+            }
+        }
+        for (int i = 0; i < maze.getEnemySpawnCount(); i++) {
+            elements.add(oldElement(4, maze.getEnemySpawnX(i), maze.getEnemySpawnY(i), enemySystem));
+        }
+    }
+
+    private static MazeElement oldElement(int type, int x, int y, EnemySystem enemySystem) {
+        Animation<TextureRegion>[] enemyAnimations = WalkAnimations.of(ANIMATION);
+        Animation<TextureRegion> deathAnimation = frames(4);
+        return switch (type) {
+            case -1 -> new Floor(REGION, x * TILE_SIZE, y * TILE_SIZE);
+            case 0 -> new Wall(REGION, x * TILE_SIZE, y * TILE_SIZE);
+            case 1 -> new EntryPoint(REGION, x * TILE_SIZE, y * TILE_SIZE);
+            case 2 -> new Exit(REGION, x * TILE_SIZE, y * TILE_SIZE);
+            case 3 -> new Trap(frames(7), x * TILE_SIZE, y * TILE_SIZE);
+            case 4 -> new Enemy(REGION, x * TILE_SIZE, y * TILE_SIZE, enemySystem, enemyAnimations, deathAnimation);
+            case 5 -> new Key(frames(4), x * TILE_SIZE, y * TILE_SIZE);
+            case 6 -> new Lava(frames(45), x * TILE_SIZE, y * TILE_SIZE);
+            case 7 -> new Chest(REGION, REGION, x * TILE_SIZE, y * TILE_SIZE, null, null);
+            default -> null;
+        };
+    }
+
+    /**
+     * What one of the old animation loaders built, without its texture.
+     */
+    private static Animation<TextureRegion> frames(int count) {
+        Array<TextureRegion> frames = new Array<>(TextureRegion.class);
+        for (int i = 0; i < count; i++) {
+            frames.add(new TextureRegion());
+        }
+        return new Animation<>(0.1f, frames);
+    }
+}
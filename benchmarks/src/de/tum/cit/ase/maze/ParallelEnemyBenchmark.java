@@ -0,0 +1,95 @@
+package de.tum.cit.ase.maze;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the same seeded enemy simulation on the calling thread and on fork-join pools of different sizes.
+ * It checks that every run ends in a bit-identical state (positions, directions, states, occupancy and
+ * player contacts) and reports the time per tick, to show how the parallel phases scale with the cores.
+ */
+public class ParallelEnemyBenchmark {
+    private static final int[] ENEMY_COUNTS = {5_000, 20_000, 50_000};
+    private static final int MAZE_SIZE = 401;
+    private static final long SEED = 42;
+    private static final float DELTA = 1 / 60f;
+    private static final int WARMUP_TICKS = 300;
+    private static final int MEASURED_TICKS = 1200;
+
+    public static void main(String[] args) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d available processors%n", cores);
+        System.out.printf("%-8s %-10s %12s %10s %18s%n", "enemies", "threads", "ms / tick", "speedup", "state hash");
+        for (int enemies : ENEMY_COUNTS) {
+            run(enemies, null, WARMUP_TICKS); // Warm up the JIT, discard
+            long[] serial = run(enemies, null, MEASURED_TICKS);
+            print(enemies, "serial", serial, serial);
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                run(enemies, pool, WARMUP_TICKS);
+                long[] parallel = run(enemies, pool, MEASURED_TICKS);
+                pool.shutdown();
+                if (parallel[1] != serial[1]) {
+                    throw new IllegalStateException("Parallel run with " + threads + " threads diverged from the serial run");
+                }
+                print(enemies, String.valueOf(threads), parallel, serial);
+            }
+        }
+    }
+
+    private static void print(int enemies, String threads, long[] result, long[] serial) {
+        System.out.printf("%-8d %-10s %12.3f %9.2fx %18x%n", enemies, threads, result[0] / 1e6 / MEASURED_TICKS,
+                (double) serial[0] / result[0], result[1]);
+    }
+
+    /**
+     * @return The total update time in nanoseconds and a hash of the final state.
+     */
+    private static long[] run(int enemies, ForkJoinPool pool, int ticks) {
+        int[][] layout = MazeGenerator.generate(MAZE_SIZE, MAZE_SIZE, SEED, 0.1f, 0, 0);
+        Maze maze = new Maze(layout);
+        EnemySystem system = new EnemySystem(maze, enemies, SEED);
+        system.setPool(pool);
+        PathfindingBudget budget = new PathfindingBudget();
+        system.setPathfindingBudget(budget);
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < enemies; i++) {
+            int x, y;
+            do {
+                x = random.nextInt(MAZE_SIZE);
+                y = random.nextInt(MAZE_SIZE);
+            } while (layout[x][y] != -1);
+            system.spawn(x * 16, y * 16);
+        }
+
+        // The player circles around the middle of the maze so that enemies there keep chasing
+        long nanos = 0;
+        long hash = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            float angle = tick * DELTA;
+            float playerX = (MAZE_SIZE / 2f + 20 * (float) Math.cos(angle)) * 16;
+            float playerY = (MAZE_SIZE / 2f + 20 * (float) Math.sin(angle)) * 16;
+            budget.reset();
+            long begin = System.nanoTime();
+            system.update(DELTA, playerX, playerY);
+            nanos += System.nanoTime() - begin;
+            for (int k = 0; k < system.getPlayerContacts().size; k++) {
+                hash = hash * 31 + system.getPlayerContacts().get(k);
+            }
+        }
+
+        for (int i = 0; i < system.getCount(); i++) {
+            hash = hash * 31 + Float.floatToIntBits(system.getX(i));
+            hash = hash * 31 + Float.floatToIntBits(system.getY(i));
+            hash = hash * 31 + system.getDirection(i).ordinal();
+            hash = hash * 31 + system.getState(i).ordinal();
+        }
+        for (int x = 0; x < MAZE_SIZE; x++) {
+            for (int y = 0; y < MAZE_SIZE; y++) {
+                hash = hash * 31 + maze.getOccupantCount(x, y);
+            }
+        }
+        return new long[]{nanos, hash};
+    }
+}
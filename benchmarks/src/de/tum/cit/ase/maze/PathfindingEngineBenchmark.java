@@ -0,0 +1,96 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * Compares the in-house {@link AStar} with gdx-ai's IndexedAStarPathFinder ({@link GdxAiPathfinder}) on every
+ * shipped level and on a large generated maze. Both use the Manhattan heuristic and the same step cost, so
+ * without smoothing they must find paths of the same length. With smoothing, the number of waypoints an enemy
+ * walks to is reported as well. Only queries between tiles that can reach each other are used, since the
+ * in-house A* rejects the others up front.
+ */
+public class PathfindingEngineBenchmark {
+    private static final int QUERIES = 2000;
+    private static final int ROUNDS = 3; // The first rounds warm up the JIT, the last one is reported
+    private static final long SEED = 42;
+
+    public static void main(String[] args) {
+        System.out.printf("%-16s %8s %12s %12s %12s %12s %12s %10s%n", "map", "queries", "astar us",
+                "gdx-ai us", "smooth us", "astar nodes", "gdx-ai visits", "waypoints");
+        for (int level = 1; level <= 5; level++) {
+            run("level-" + level, new Maze(new FileHandle(new File("maps/level-" + level + ".properties"))));
+        }
+        run("generated 201", new Maze(MazeGenerator.generate(201, 201, SEED)));
+    }
+
+    private static void run(String name, Maze maze) {
+        int[][] layout = maze.getLayout();
+        int width = layout.length;
+        int height = layout[0].length;
+        int[] floor = new int[width * height];
+        int floorCount = 0;
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (layout[x][y] == -1) {
+                    floor[floorCount++] = x * height + y;
+                }
+            }
+        }
+
+        WalkableComponents components = maze.getComponents();
+        Random random = new Random(SEED);
+        int[] starts = new int[QUERIES];
+        int[] goals = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            do {
+                starts[i] = floor[random.nextInt(floorCount)];
+                goals[i] = floor[random.nextInt(floorCount)];
+            } while (starts[i] == goals[i] || !components.canReach(starts[i] / height, starts[i] % height,
+                    goals[i] / height, goals[i] % height));
+        }
+
+        AStar aStar = new AStar(maze.getSnapshot().createNodes());
+        GdxAiPathfinder gdxAi = new GdxAiPathfinder(maze);
+        int[] lengths = new int[QUERIES];
+        double aStarMicros = 0, gdxAiMicros = 0, smoothMicros = 0;
+        long aStarNodes = 0, gdxAiNodes = 0, waypoints = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            aStarNodes = 0;
+            long begin = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                lengths[i] = aStar.findPath(starts[i] / height, starts[i] % height, goals[i] / height, goals[i] % height).size();
+                aStarNodes += aStar.getNodesExpanded();
+            }
+            aStarMicros = (System.nanoTime() - begin) / 1e3 / QUERIES;
+
+            gdxAi.setSmoothing(false);
+            gdxAiNodes = 0;
+            begin = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                int length = gdxAi.findPath(starts[i] / height, starts[i] % height, goals[i] / height, goals[i] % height);
+                gdxAiNodes += gdxAi.getVisitedNodes();
+                if (length != lengths[i]) {
+                    throw new IllegalStateException(name + ": gdx-ai path of length " + length + " for query " + i
+                            + ", A* found " + lengths[i]);
+                }
+            }
+            gdxAiMicros = (System.nanoTime() - begin) / 1e3 / QUERIES;
+
+            gdxAi.setSmoothing(true);
+            waypoints = 0;
+            begin = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                waypoints += gdxAi.findPath(starts[i] / height, starts[i] % height, goals[i] / height, goals[i] % height);
+            }
+            smoothMicros = (System.nanoTime() - begin) / 1e3 / QUERIES;
+        }
+        gdxAi.dispose();
+
+        System.out.printf("%-16s %8d %12.2f %12.2f %12.2f %12.1f %12.1f %10.1f%n", name, QUERIES, aStarMicros,
+                gdxAiMicros, smoothMicros, (double) aStarNodes / QUERIES, (double) gdxAiNodes / QUERIES,
+                (double) waypoints / QUERIES);
+    }
+}
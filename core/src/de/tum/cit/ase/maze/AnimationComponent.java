@@ -0,0 +1,17 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * A looping animation that is played on an entity's element.
+ */
+public class AnimationComponent implements Component {
+    public final Animation<TextureRegion> animation;
+    public float stateTime; // Time since the animation started
+
+    public AnimationComponent(Animation<TextureRegion> animation) {
+        this.animation = animation;
+    }
+}
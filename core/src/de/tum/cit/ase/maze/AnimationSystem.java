@@ -0,0 +1,29 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+/**
+ * Advances the looping animations of traps, lava and keys and sets the current frame as the texture of
+ * their elements.
+ */
+public class AnimationSystem extends IteratingSystem {
+    private final ComponentMapper<AnimationComponent> animations = ComponentMapper.getFor(AnimationComponent.class);
+    private final ComponentMapper<ElementComponent> elements = ComponentMapper.getFor(ElementComponent.class);
+
+    /**
+     * @param priority The order of the system in the engine; lower runs first.
+     */
+    public AnimationSystem(int priority) {
+        super(Family.all(AnimationComponent.class, ElementComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        AnimationComponent animation = animations.get(entity);
+        animation.stateTime += deltaTime;
+        elements.get(entity).element.setTexture(animation.animation.getKeyFrame(animation.stateTime, true));
+    }
+}
@@ -0,0 +1,30 @@
+package de.tum.cit.ase.maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for loading one asset in {@link MazeRunnerGame}: a texture, a piece of music or the skin.
+ */
+@Name("de.tum.cit.ase.maze.AssetLoad")
+@Label("Asset Load")
+@Category({"Maze Runner", "Assets"})
+@Description("A texture, music or skin loaded from the assets")
+class AssetLoadEvent extends Event {
+    @Label("Path")
+    @Description("Internal path of the asset")
+    String path;
+
+    @Label("Type")
+    @Description("Texture, Music or Skin")
+    String type;
+
+    @Label("Size")
+    @Description("Size of the asset file")
+    @DataAmount
+    long size;
+}
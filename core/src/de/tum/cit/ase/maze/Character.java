@@ -6,36 +6,22 @@
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
 
 /**
  * Character class represents the player character in the game.
- * It includes movement and animation handling based on direction.
+ * It includes movement and animation handling based on direction; the rules of the character live in its
+ * {@link PlayerState}, which the {@link Simulation} runs and this class draws and plays the sounds of.
  */
-public class Character extends MazeElement implements Movable {
-    private int lives;
-    private boolean hasKey;
-    private boolean reachedExit;
+public class Character extends MazeElement implements PlayerListener {
+    private final PlayerState state;
     private Animation<TextureRegion>[] unarmedAnimations;
     private Animation<TextureRegion>[] armedAnimations;
     private float stateTime;
-    private Direction currentDirection;
     private OrthographicCamera camera;
-    private static final int TILE_SIZE = 16; // each tile is 16x16
     private static final int CHAR_WIDTH = 16; // Character width
     private static final int CHAR_HEIGHT = 32; // Character height
-    private static final float INVULNERABILITY_TIME = 3.0f; // Duration of invulnerability after losing a life.
-    private float invulnerabilityTimer = 0;
     private Sound loseLife;
     private Sound keyObtained;
-    private Maze maze;
-    private boolean isArmed;
-    private boolean keySoundPlayed = false;
-    private Enemy enemy;
-
-
-
 
     /**
      * Constructs a character with given parameters.
@@ -46,96 +32,37 @@ public class Character extends MazeElement implements Movable {
      * @param unarmedAnimations Array of animations for the character when unarmed.
      * @param armedAnimations Array of animations for the character when armed.
      * @param camera The camera through which the character is viewed.
+     * @param timerWheel The wheel that ends the character's invulnerability periods.
      */
-    public Character(float x, float y, int lives, Animation<TextureRegion>[] unarmedAnimations, Animation<TextureRegion>[] armedAnimations, OrthographicCamera camera) {
+    public Character(float x, float y, int lives, Animation<TextureRegion>[] unarmedAnimations, Animation<TextureRegion>[] armedAnimations, OrthographicCamera camera, TimerWheel timerWheel) {
         super(null, x, y,CHAR_WIDTH,CHAR_HEIGHT); // texture is set to null initially
+        this.state = new PlayerState(x, y, lives, timerWheel);
         this.unarmedAnimations = unarmedAnimations;
         this.armedAnimations = armedAnimations;
-        this.lives = lives;
-        this.hasKey = false;
         this.stateTime = 0f;
-        this.currentDirection = null; // Default direction
         this.camera = camera;
-        this.bounds = new Rectangle(x+2,y+2,8,4);
-        this.isArmed = false;
+        this.bounds = state.getBounds();
         this.loseLife = Gdx.audio.newSound(Gdx.files.internal("Realistic_Punch-Mark_DiAngelo-1609462330.mp3"));
         this.keyObtained = Gdx.audio.newSound(Gdx.files.internal("coin.mp3"));
-
+        state.setListener(this);
     }
 
     /**
-     * Moves the character in the given direction if the move is valid.
-     * Checks for collision with maze elements and performs actions based on the type of collision.
-     *
-     * @param direction The direction to move the character.
-     * @param maze      The maze to check for valid moves.
-     * @param delta     The time passed since the last frame.
+     * Keeps the camera on the character after the simulation moved it.
      */
-    @Override
-    public void move(Direction direction, Maze maze, float delta) {
-        float newX = x, newY = y;
-        float speed = TILE_SIZE * delta * 3; // Adjust the speed if necessary
-
-        // Determine new position based on direction
-        switch (direction) {
-            case UP:    newY += speed; break;
-            case DOWN:  newY -= speed; break;
-            case LEFT:  newX -= speed; break;
-            case RIGHT: newX += speed; break;
-            default:    return; // Invalid direction
-        }
-        // Update the current direction
-        this.currentDirection = direction;
-
-        // Create a temporary bounding box for the intended position
-        Rectangle tempBounds = new Rectangle(bounds);
-        tempBounds.setPosition(newX, newY);
-
-        // Check collision
-        int collisionType = maze.checkCollision(tempBounds, hasKey);
-        handleCollision(collisionType, newX, newY);
+    public void followWithCamera() {
+        camera.position.set(bounds.x, bounds.y, camera.position.z);
     }
 
-    /**
-     * Handles collision based on the type of element collided with.
-     *
-     * @param collisionType The type of element collided with.
-     * @param newX          The new X position.
-     * @param newY          The new Y position.
-     */
-    private void handleCollision(int collisionType, float newX, float newY) {
-        switch (collisionType) {
-            case 0: // Wall
-            case 2: // Exit without key
-                // Movement is blocked
-                break;
-            case 3: // Trap
-
-                loseLife();
-                setPosition(newX, newY);
-                camera.position.set(bounds.x, bounds.y, camera.position.z);
-                break;
-
-            case 5: // Key
-                setHasKey(true);
-                if (!keySoundPlayed) {
-                    keyObtained.play();
-                    keySoundPlayed = true;
-                }
-
-
-
-
-                // Fall through to default case to allow movement
-            default:
-                // Move the character and update camera
-                setPosition(newX, newY);
-                camera.position.set(bounds.x, bounds.y, camera.position.z);
-                break;
-        }
+    @Override
+    public void lifeLost() {
+        loseLife.play();
     }
 
-
+    @Override
+    public void keyObtained() {
+        keyObtained.play();
+    }
 
     /**
      * Updates the character's position and bounding box.
@@ -144,16 +71,18 @@ private void handleCollision(int collisionType, float newX, float newY) {
      * @param newY The new Y-coordinate of the character.
      */
     public void setPosition(float newX, float newY) {
-        this.x = newX;
-        this.y = newY;
-        this.bounds.setPosition(newX, newY);
+        state.setPosition(newX, newY);
     }
 
+    @Override
+    public float getX() {
+        return state.getX();
+    }
 
-
-
-
-
+    @Override
+    public float getY() {
+        return state.getY();
+    }
 
     /**
      * Updates the state of the character.
@@ -162,9 +91,6 @@ public void setPosition(float newX, float newY) {
      */
     public void update(float delta) {
         stateTime += delta;
-        if (invulnerabilityTimer > 0) {
-            invulnerabilityTimer -= delta;
-        }
     }
 
     /**
@@ -177,7 +103,8 @@ public void update(float delta) {
     public void draw(SpriteBatch batch) {
         TextureRegion currentFrame;
 
-        Animation<TextureRegion>[] animations = isArmed ? armedAnimations : unarmedAnimations;
+        Animation<TextureRegion>[] animations = state.isArmed() ? armedAnimations : unarmedAnimations;
+        Direction currentDirection = state.getDirection();
 
         if (currentDirection != null) {
             // using animation towards to the current direction
@@ -187,65 +114,9 @@ public void draw(SpriteBatch batch) {
             currentFrame = animations[Direction.RIGHT.ordinal()].getKeyFrame(0, false);
         }
 
-        batch.draw(currentFrame, x-4, y-4, CHAR_WIDTH, CHAR_HEIGHT);
-    }
-
-
-
-    /**
-     * Checks and updates the character's status based on the maze element it encounters.
-     *
-     * @param maze The maze containing the elements.
-     */
-    public void updateStatus(Maze maze, Array<MazeElement> mazeElements) {
-        try {
-            int elementType = maze.getElementAt((int) x, (int) y);
-
-            switch (elementType) {
-                case 2: // Exit
-                    break;
-                case 3: // Trap
-                    loseLife();
-                    break;
-                case 5: // Key
-                    hasKey = true;
-                    break;
-            }
-            //iterating through the maze elements to check if the character collides with an enemy
-            for (MazeElement element : mazeElements) {
-                if (element instanceof Enemy) {
-                    Enemy enemy = (Enemy) element;
-                    if (this.bounds.overlaps(enemy.getBounds())) {
-                        if(this.isArmed){
-                            enemy.die();
-                        }
-                        else {
-                            loseLife();
-                        }
-                        break;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            Gdx.app.error("updateStatus", "Error in updateStatus: " + e.getMessage(), e);
-        }
+        batch.draw(currentFrame, getX()-4, getY()-4, CHAR_WIDTH, CHAR_HEIGHT);
     }
-    /**
-     * Decreases the character's lives by one.
-     */
-    protected void loseLife() {
-        if (invulnerabilityTimer <= 0) {
-            lives--;
-            loseLife.play();
-            extendInvulnerability(INVULNERABILITY_TIME);
-            if (lives <= 0) {
-
-            }
-        }
 
-
-
-    }
     /**
      * Extends the character's invulnerability period.
      * This method is called when the character collects a shield or loses a life.
@@ -253,43 +124,49 @@ protected void loseLife() {
      * @param duration The duration to extend the invulnerability period by, in seconds.
      */
     public void extendInvulnerability(float duration) {
-        // Extend the invulnerability period by the specified duration
-        invulnerabilityTimer = Math.max(invulnerabilityTimer, duration);
+        state.extendInvulnerability(duration);
     }
 
 
     // Getters and setters
 
+    /**
+     * @return The rules of the character, which the simulation runs.
+     */
+    public PlayerState getState() {
+        return state;
+    }
+
     public int getLives() {
-        return lives;
+        return state.getLives();
     }
 
     public void setLives(int lives) {
-        this.lives = lives;
+        state.setLives(lives);
     }
 
     public boolean hasKey() {
-        return hasKey;
+        return state.hasKey();
     }
 
     public void setHasKey(boolean hasKey) {
-        this.hasKey = hasKey;
+        state.setHasKey(hasKey);
     }
 
     public boolean hasReachedExit() {
-        return reachedExit;
+        return state.hasReachedExit();
     }
 
     public void setReachedExit(boolean reachedExit) {
-        this.reachedExit = reachedExit;
+        state.setReachedExit(reachedExit);
     }
 
     public boolean isHasKey() {
-        return hasKey;
+        return state.hasKey();
     }
 
     public boolean isReachedExit() {
-        return reachedExit;
+        return state.hasReachedExit();
     }
 
 
@@ -298,7 +175,7 @@ public float getStateTime() {
     }
 
     public Direction getCurrentDirection() {
-        return currentDirection;
+        return state.getDirection();
     }
 
     public OrthographicCamera getCamera() {
@@ -306,21 +183,18 @@ public OrthographicCamera getCamera() {
     }
 
     public float getInvulnerabilityTimer() {
-        return invulnerabilityTimer;
+        return state.getInvulnerabilityTimer();
     }
 
     public Sound getLoseLife() {
         return loseLife;
     }
 
-    public Maze getMaze() {
-        return maze;
-    }
     public boolean isArmed() {
-        return isArmed;
+        return state.isArmed();
     }
 
     public void setArmed(boolean armed) {
-        isArmed = armed;
+        state.setArmed(armed);
     }
-}
\ No newline at end of file
+}
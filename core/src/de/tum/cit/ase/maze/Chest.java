@@ -2,7 +2,6 @@
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import java.util.Random;
 
 /**
  * Represents a chest in the game that can be opened to reveal a random collectible.
@@ -41,27 +40,11 @@ public void open() {
     }
 
     /**
-     * Randomly generates a collectible and adds it to the game screen.
+     * Randomly picks a collectible and drops it below the chest.
      */
     private void dropCollectible() {
-        Random rand = new Random();
-        Collectible collectible;
-
-        switch (rand.nextInt(3)) {
-            case 0:
-                collectible = new Sword(game.getSwordTexture(),this.x,this.y-16,gameScreen.getPlayerCharacter(),gameScreen.getHud());
-                break;
-            case 1:
-                collectible = new Life(game.getLifeTexture(), this.x, this.y-16, gameScreen.getPlayerCharacter(),gameScreen.getHud());
-                break;
-            case 2:
-                collectible = new Shield(game.getShieldTexture(), this.x, this.y-16, gameScreen.getHud(), gameScreen.getPlayerCharacter());
-                break;
-            default:
-                return; // In case of an unexpected value
-        }
-
-        gameScreen.addCollectible(collectible);
+        int kind = game.getRandom().nextInt(CollectiblePool.KINDS);
+        gameScreen.dropCollectible(kind, this.x, this.y - 16);
     }
 
     /**
@@ -0,0 +1,14 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * A chest the player can open when standing on it.
+ */
+public class ChestComponent implements Component {
+    public final Chest chest;
+
+    public ChestComponent(Chest chest) {
+        this.chest = chest;
+    }
+}
@@ -1,11 +1,13 @@
 package de.tum.cit.ase.maze;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
 
 /**
  * Abstract base class for all collectible items in the game.
+ * Collectibles are pooled by {@link CollectiblePool} and reused after they have been picked up.
  */
-public abstract class Collectible extends MazeElement {
+public abstract class Collectible extends MazeElement implements Pool.Poolable {
     protected boolean collected = false;
 
     public Collectible(TextureRegion texture, float x, float y, float width, float height) {
@@ -27,6 +29,23 @@ public void collect() {
      */
     protected abstract void applyEffect();
 
+    /**
+     * Moves the collectible, together with its bounding box.
+     */
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+        bounds.setPosition(x, y);
+    }
+
+    /**
+     * Makes the collectible ready to be dropped again.
+     */
+    @Override
+    public void reset() {
+        collected = false;
+    }
+
     /**
      * Checks if the collectible has been collected.
      *
@@ -0,0 +1,94 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps the entities of picked up collectibles for the next chest, so opening chests allocates nothing once
+ * each kind has been dropped as often as it is on the ground at the same time. A pooled entity keeps its
+ * collectible and components; freeing it resets the collectible and obtaining it only moves it.
+ */
+public class CollectiblePool {
+    public static final int SWORD = 0;
+    public static final int LIFE = 1;
+    public static final int SHIELD = 2;
+    public static final int KINDS = 3;
+
+    private final Pool<Entity>[] pools;
+
+    /**
+     * @param game The game, for the textures of the collectibles.
+     * @param player The character that picks the collectibles up.
+     * @param hud The HUD the collectibles show their messages on.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Generic arrays cannot be created directly
+    public CollectiblePool(MazeRunnerGame game, Character player, HUD hud) {
+        pools = new Pool[KINDS];
+        pools[SWORD] = new EntityPool(() -> new Sword(game.getSwordTexture(), 0, 0, player, hud));
+        pools[LIFE] = new EntityPool(() -> new Life(game.getLifeTexture(), 0, 0, player, hud));
+        pools[SHIELD] = new EntityPool(() -> new Shield(game.getShieldTexture(), 0, 0, hud, player));
+    }
+
+    /**
+     * Takes a collectible entity from the pool, or creates one if the pool is empty, and places it.
+     *
+     * @param kind One of {@link #SWORD}, {@link #LIFE} and {@link #SHIELD}.
+     * @param x The x-coordinate of the collectible.
+     * @param y The y-coordinate of the collectible.
+     * @return The entity, not yet added to an engine.
+     */
+    public Entity obtain(int kind, float x, float y) {
+        Entity entity = pools[kind].obtain();
+        entity.getComponent(PickupComponent.class).collectible.setPosition(x, y);
+        PositionComponent position = entity.getComponent(PositionComponent.class);
+        position.x = x;
+        position.y = y;
+        return entity;
+    }
+
+    /**
+     * Returns the entity of a collectible to its pool. The entity must have been removed from its engine.
+     */
+    public void free(Entity entity) {
+        Collectible collectible = entity.getComponent(PickupComponent.class).collectible;
+        pools[kindOf(collectible)].free(entity);
+    }
+
+    private static int kindOf(Collectible collectible) {
+        if (collectible instanceof Sword) {
+            return SWORD;
+        } else if (collectible instanceof Life) {
+            return LIFE;
+        }
+        return SHIELD;
+    }
+
+    /**
+     * Builds the entities of one kind of collectible, with the components the pickup and render systems use.
+     */
+    private static final class EntityPool extends Pool<Entity> {
+        private final Supplier<Collectible> factory;
+
+        EntityPool(Supplier<Collectible> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        protected Entity newObject() {
+            Collectible collectible = factory.get();
+            Entity entity = new Entity();
+            entity.add(new ElementComponent(collectible));
+            entity.add(new PositionComponent(collectible.getX(), collectible.getY()));
+            entity.add(new PickupComponent(collectible));
+            entity.add(new RenderComponent(RenderComponent.LAYER_COLLECTIBLE));
+            return entity;
+        }
+
+        @Override
+        protected void reset(Entity entity) {
+            entity.getComponent(PickupComponent.class).collectible.reset();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Links an entity to the {@link MazeElement} that still holds its textures and game logic, so systems can
+ * drive the existing classes while they are moved onto components.
+ */
+public class ElementComponent implements Component {
+    public final MazeElement element;
+
+    public ElementComponent(MazeElement element) {
+        this.element = element;
+    }
+}
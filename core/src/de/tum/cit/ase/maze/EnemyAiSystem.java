@@ -0,0 +1,36 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.EntitySystem;
+
+/**
+ * Advances the enemies of the {@link Simulation} by one tick towards the player, which also lets the player touch
+ * the first living enemy it overlaps. The enemy entities only draw what the simulation computed.
+ * The time the enemies spend planning paths is reported to the profiler apart from the rest of their update.
+ */
+public class EnemyAiSystem extends EntitySystem {
+    private final Simulation simulation;
+    private final FrameProfiler profiler;
+
+    /**
+     * @param simulation The simulation of the level.
+     * @param profiler The profiler to report the enemies' time to.
+     * @param priority The order of the system in the engine; lower runs first.
+     */
+    public EnemyAiSystem(Simulation simulation, FrameProfiler profiler, int priority) {
+        super(priority);
+        this.simulation = simulation;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        EnemySystem enemies = simulation.getEnemies();
+        enemies.setPathfindingTimed(profiler.isEnabled());
+        profiler.begin(FrameProfiler.Section.ENEMIES);
+        simulation.updateEnemies(deltaTime);
+        profiler.end(FrameProfiler.Section.ENEMIES);
+        // Move the planning out of the enemies' time
+        profiler.add(FrameProfiler.Section.ENEMIES, -enemies.getPathfindingNanos());
+        profiler.add(FrameProfiler.Section.PATHFINDING, enemies.getPathfindingNanos());
+    }
+}
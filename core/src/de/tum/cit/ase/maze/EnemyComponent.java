@@ -0,0 +1,14 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * An enemy whose state is simulated by the {@link EnemySystem}.
+ */
+public class EnemyComponent implements Component {
+    public final Enemy enemy;
+
+    public EnemyComponent(Enemy enemy) {
+        this.enemy = enemy;
+    }
+}
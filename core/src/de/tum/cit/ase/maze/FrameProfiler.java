@@ -0,0 +1,335 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.Arrays;
+
+/**
+ * Measures where the time of a frame goes and draws it as an overlay. The game screen marks the sections of a
+ * frame with {@link #begin(Section)} and {@link #end(Section)}; the profiler keeps the last {@value #WINDOW}
+ * frames of every section and reports their p50 and p99. While enabled it also counts the GL calls of a frame
+ * with a {@link GLProfiler} and the render calls of the sprite batches.
+ * <p>
+ * Every method returns right away while the profiler is disabled, so the marks can stay in the frame. Nothing
+ * of GL is created before the profiler is first enabled, and the overlay's batch, shapes and font not before it
+ * is first drawn.
+ */
+public class FrameProfiler implements Disposable {
+    /**
+     * The parts of a frame that are timed. Sections may overlap: the batch flushes happen within the draws.
+     */
+    public enum Section {
+        INPUT("Input"),
+        PLAYER("Player"),
+        ENEMIES("Enemy AI"),
+        PATHFINDING("Pathfinding"),
+        COLLECTIBLES("Collectibles"),
+        WORLD_DRAW("World draw"),
+        HUD_ACT("HUD act"),
+        HUD_DRAW("HUD draw"),
+        BATCH_FLUSH("Batch flushes"),
+        FRAME("Frame");
+
+        private final String label;
+
+        Section(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+    private static final int WINDOW = 240; // Frames the percentiles are taken over, four seconds at 60 fps
+    private static final int REFRESH_INTERVAL = 15; // Frames between two updates of the percentiles and the text
+    private static final float GRAPH_MILLIS = 33.3f; // Frame time at the top of the graph
+    private static final float GRAPH_HEIGHT = 100; // Pixels
+    private static final float MARGIN = 10; // Pixels between the overlay and the edge of the screen
+
+    private boolean enabled;
+    private final long[] started = new long[SECTIONS.length]; // When the open mark of each section began
+    private final long[] frameNanos = new long[SECTIONS.length]; // Time of each section in the current frame
+    private final float[][] history = new float[SECTIONS.length][WINDOW]; // Milliseconds, a ring per section
+    private final float[] p50 = new float[SECTIONS.length];
+    private final float[] p99 = new float[SECTIONS.length];
+    private final float[] frameP50History = new float[WINDOW]; // The rolling percentiles of the frame, per frame
+    private final float[] frameP99History = new float[WINDOW];
+    private final float[] sorted = new float[WINDOW];
+    private int head; // Ring slot of the next frame
+    private int filled; // Frames in the rings, up to WINDOW
+
+    private GLProfiler glProfiler;
+    private int drawCalls, textureBindings, shaderSwitches, vertices, renderCalls;
+
+    // Overlay
+    private SpriteBatch batch;
+    private ShapeRenderer shapes;
+    private BitmapFont font;
+    private final Matrix4 projection = new Matrix4();
+    private final com.badlogic.gdx.utils.StringBuilder text = new com.badlogic.gdx.utils.StringBuilder();
+
+    /**
+     * Turns measuring and the overlay on or off. Turning it on starts with empty windows.
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled == this.enabled) {
+            return;
+        }
+        this.enabled = enabled;
+        if (enabled) {
+            if (glProfiler == null) {
+                glProfiler = new GLProfiler(Gdx.graphics);
+            }
+            glProfiler.enable();
+            head = 0;
+            filled = 0;
+            Arrays.fill(p50, 0);
+            Arrays.fill(p99, 0);
+            text.setLength(0);
+        } else if (glProfiler != null) {
+            glProfiler.disable();
+        }
+    }
+
+    /**
+     * Turns the profiler on if it is off and off if it is on.
+     */
+    public void toggle() {
+        setEnabled(!enabled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a frame: clears the section times and the GL counters.
+     */
+    public void beginFrame() {
+        if (!enabled) {
+            return;
+        }
+        Arrays.fill(frameNanos, 0);
+        renderCalls = 0;
+        glProfiler.reset();
+        started[Section.FRAME.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Starts timing a section. A section can be marked several times per frame; the times add up.
+     */
+    public void begin(Section section) {
+        if (enabled) {
+            started[section.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Stops timing a section that was started with {@link #begin(Section)}.
+     */
+    public void end(Section section) {
+        if (enabled) {
+            frameNanos[section.ordinal()] += System.nanoTime() - started[section.ordinal()];
+        }
+    }
+
+    /**
+     * Adds time that was measured elsewhere to a section of the current frame; a negative time takes it away,
+     * e.g. from the section it was measured within.
+     */
+    public void add(Section section, long nanos) {
+        if (enabled) {
+            frameNanos[section.ordinal()] += nanos;
+        }
+    }
+
+    /**
+     * Counts the render calls of a sprite batch in the current frame.
+     *
+     * @param calls The batch's {@code renderCalls} after its last {@code end()} of the frame.
+     */
+    public void addRenderCalls(int calls) {
+        if (enabled) {
+            renderCalls += calls;
+        }
+    }
+
+    /**
+     * Ends a frame: adds the section times to the windows and reads the GL counters. Call it after everything
+     * of the frame has been drawn and before {@link #draw()}, so the overlay does not count itself.
+     */
+    public void endFrame() {
+        if (!enabled) {
+            return;
+        }
+        end(Section.FRAME);
+        for (int s = 0; s < SECTIONS.length; s++) {
+            history[s][head] = frameNanos[s] / 1e6f;
+        }
+        drawCalls = glProfiler.getDrawCalls();
+        textureBindings = glProfiler.getTextureBindings();
+        shaderSwitches = glProfiler.getShaderSwitches();
+        vertices = (int) glProfiler.getVertexCount().total;
+
+        filled = Math.min(filled + 1, WINDOW);
+        if (filled == 1 || head % REFRESH_INTERVAL == 0) {
+            for (int s = 0; s < SECTIONS.length; s++) {
+                System.arraycopy(history[s], 0, sorted, 0, filled);
+                Arrays.sort(sorted, 0, filled);
+                p50[s] = sorted[(int) (filled * 0.50f)];
+                p99[s] = sorted[Math.min(filled - 1, (int) (filled * 0.99f))];
+            }
+            updateText();
+        }
+        frameP50History[head] = p50[Section.FRAME.ordinal()];
+        frameP99History[head] = p99[Section.FRAME.ordinal()];
+        head = (head + 1) % WINDOW;
+    }
+
+    /**
+     * @return The time of a section in the last frame, in milliseconds.
+     */
+    public float getLast(Section section) {
+        return filled == 0 ? 0 : history[section.ordinal()][(head + WINDOW - 1) % WINDOW];
+    }
+
+    /**
+     * @return The median time of a section over the window, in milliseconds.
+     */
+    public float getP50(Section section) {
+        return p50[section.ordinal()];
+    }
+
+    /**
+     * @return The 99th percentile time of a section over the window, in milliseconds.
+     */
+    public float getP99(Section section) {
+        return p99[section.ordinal()];
+    }
+
+    /**
+     * @return The draw calls of the last frame.
+     */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * @return The texture bindings of the last frame.
+     */
+    public int getTextureBindings() {
+        return textureBindings;
+    }
+
+    /**
+     * @return The shader switches of the last frame.
+     */
+    public int getShaderSwitches() {
+        return shaderSwitches;
+    }
+
+    /**
+     * @return The vertices drawn in the last frame.
+     */
+    public int getVertices() {
+        return vertices;
+    }
+
+    /**
+     * @return The render calls of the sprite batches in the last frame.
+     */
+    public int getRenderCalls() {
+        return renderCalls;
+    }
+
+    /**
+     * Draws the overlay in the bottom left corner of the screen: the frame time of every frame in the window as a
+     * bar, the rolling p50 and p99 as lines over it, and a table of the sections and the GL counters.
+     */
+    public void draw() {
+        if (!enabled || filled == 0) {
+            return;
+        }
+        if (batch == null) {
+            batch = new SpriteBatch();
+            shapes = new ShapeRenderer();
+            font = new BitmapFont();
+        }
+        projection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        float barWidth = 2;
+        float bottom = MARGIN;
+        float scale = GRAPH_HEIGHT / GRAPH_MILLIS;
+        int frame = Section.FRAME.ordinal();
+
+        Gdx.gl.glEnable(GL20.GL_BLEND); // For the translucent background
+        shapes.setProjectionMatrix(projection);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(0, 0, 0, 0.6f);
+        shapes.rect(MARGIN, bottom, WINDOW * barWidth, GRAPH_HEIGHT);
+        shapes.setColor(Color.SKY);
+        for (int k = 0; k < filled; k++) { // Oldest frame on the left
+            int slot = (head - filled + k + WINDOW) % WINDOW;
+            shapes.rect(MARGIN + k * barWidth, bottom, barWidth, Math.min(history[frame][slot] * scale, GRAPH_HEIGHT));
+        }
+        shapes.end();
+        shapes.begin(ShapeRenderer.ShapeType.Line);
+        for (int k = 1; k < filled; k++) {
+            int previous = (head - filled + k - 1 + WINDOW) % WINDOW;
+            int slot = (head - filled + k + WINDOW) % WINDOW;
+            float x0 = MARGIN + (k - 1) * barWidth, x1 = MARGIN + k * barWidth;
+            shapes.setColor(Color.GREEN);
+            shapes.line(x0, bottom + Math.min(frameP50History[previous] * scale, GRAPH_HEIGHT),
+                    x1, bottom + Math.min(frameP50History[slot] * scale, GRAPH_HEIGHT));
+            shapes.setColor(Color.RED);
+            shapes.line(x0, bottom + Math.min(frameP99History[previous] * scale, GRAPH_HEIGHT),
+                    x1, bottom + Math.min(frameP99History[slot] * scale, GRAPH_HEIGHT));
+        }
+        shapes.end();
+
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        font.draw(batch, text, MARGIN, bottom + GRAPH_HEIGHT + MARGIN + font.getLineHeight() * (SECTIONS.length + 2));
+        batch.end();
+    }
+
+    /**
+     * Rebuilds the table of the overlay; only done when the percentiles change, so it costs no garbage per frame.
+     */
+    private void updateText() {
+        text.setLength(0);
+        text.append("Section: p50 / p99 ms (green / red in the graph)\n");
+        for (Section section : SECTIONS) {
+            text.append(section.getLabel()).append(": ");
+            OverlayText.appendMillis(text, p50[section.ordinal()]);
+            text.append(" / ");
+            OverlayText.appendMillis(text, p99[section.ordinal()]);
+            text.append('\n');
+        }
+        text.append("Draw calls ").append(drawCalls)
+                .append("  Texture binds ").append(textureBindings)
+                .append("  Shader switches ").append(shaderSwitches)
+                .append("  Batch render calls ").append(renderCalls)
+                .append("  Vertices ").append(vertices);
+    }
+
+    @Override
+    public void dispose() {
+        setEnabled(false);
+        if (batch != null) {
+            batch.dispose();
+            shapes.dispose();
+            font.dispose();
+            batch = null;
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package de.tum.cit.ase.maze;
 
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ai.GdxAI;
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ScreenUtils;
 
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * The GameScreen class is responsible for rendering the gameplay screen.
  * It handles the game logic and rendering of the game elements.
@@ -20,16 +30,45 @@ public class GameScreen implements Screen {
     private final OrthographicCamera camera;
     private final BitmapFont font;
     private Maze maze;
-    private Array<Collectible> collectibles; // Array to manage collectibles
 
 
     private float sinusInput = 0f;
 
-    private Array<MazeElement> mazeElements;
+    private Array<MazeElement> mazeElements; // Static tiles: walls, entry point and exit
+    // Dynamic entities (player, enemies, chests, traps, lava, keys, collectibles) live in the engine
+    private final Engine engine = new Engine();
+    private final ImmutableArray<Entity> chests = engine.getEntitiesFor(Family.all(ChestComponent.class).get());
+    private RenderSystem renderSystem;
+    private CollectiblePool collectiblePool; // Reuses the entities of picked up collectibles for chest drops
+    private EnemySystem enemySystem; // Simulates all enemies; the Enemy elements only draw them
+    private Simulation simulation; // The rules of the level; the screen draws its state
     private Character playerCharacter; // The player-controlled character
 
     private HUD hud;
-
+    // Runs the deferred callbacks of the screen's entities, advanced once per unpaused frame
+    private final TimerWheel timerWheel = new TimerWheel();
+
+    // A* node expansions allowed per frame for all enemies together, and per enemy search
+    private final PathfindingBudget pathfindingBudget = new PathfindingBudget();
+    // How chasing enemies find their path to the player; GDX_AI uses gdx-ai's A* instead of the in-house one
+    private static final PathfindingMode PATHFINDING_MODE = PathfindingMode.BACKGROUND;
+    // Landmarks for the ALT heuristic; their distances are computed once per level
+    private static final int LANDMARK_COUNT = 8;
+    // Enemy state changes (spotted, lost the player, died), delivered to the registered listeners
+    private final MessageDispatcher messageDispatcher = new MessageDispatcher();
+    // Searches paths on worker threads; leaves one core for the render thread
+    private final PathfindingService pathfindingService =
+            new PathfindingService(Runtime.getRuntime().availableProcessors() - 1);
+
+    // Seed of the level's randomness: the chest drops and the enemies' patrol turns
+    private final long seed;
+    private InputLog recording; // Receives the input of every tick while the game records, or null
+    private final InputLog replay; // Supplies the input of every tick instead of the keyboard, or null
+    private long replayStart; // When the first replayed tick ran, in nanoseconds
+    private final FrameProfiler profiler; // The game's profiler; F3 shows and hides it
+    private TickMetrics tickMetrics; // Records every frame's time and collision queries, or null for no metrics
+    private final PathfindingStats pathfindingStats; // Every path query of the level
+    private final PathfindingOverlay pathfindingOverlay; // Explored tiles, paths and query statistics; F4 shows and hides it
 
 
 
@@ -40,10 +79,51 @@ public class GameScreen implements Screen {
      */
     public GameScreen(MazeRunnerGame game) {
         this.game = game;
+        this.profiler = game.getProfiler();
         this.maze = game.getMaze();
+        this.maze.enableLandmarks(LANDMARK_COUNT);
+
+        // A replay repeats the level from the recorded seed; otherwise the level gets a seed of its own
+        long layoutHash = InputLog.hashLayout(maze.getLayout());
+        this.replay = game.getReplay();
+        if (replay != null) {
+            if (replay.getLayoutHash() != layoutHash) {
+                throw new IllegalStateException("The replay was recorded in a different maze.");
+            }
+            replay.rewind();
+            this.seed = replay.getSeed();
+        } else {
+            this.seed = MathUtils.random.nextLong();
+            if (game.getRecordingFile() != null) {
+                recording = new InputLog(seed, layoutHash);
+            }
+        }
+        game.getRandom().setSeed(seed);
+        // Paths must arrive in the same tick on every run for a recording to replay the same way
+        pathfindingService.setDeterministic(replay != null || recording != null);
 
         this.mazeElements = new Array<>();
-        this.collectibles = new Array<>(); // Initialize the collectibles array
+        this.enemySystem = new EnemySystem(maze, maze.getEnemySpawnCount(), seed);
+        enemySystem.setPathfindingBudget(pathfindingBudget);
+        enemySystem.setPathfindingService(pathfindingService);
+        enemySystem.setPathfindingMode(PATHFINDING_MODE);
+        enemySystem.setPool(ForkJoinPool.commonPool()); // Only used once there are enough enemies to split
+        enemySystem.setMessageDispatcher(messageDispatcher);
+        if (game.getMetrics() != null) {
+            enemySystem.setMetrics(game.getMetrics());
+            tickMetrics = new TickMetrics(game.getMetrics(), maze);
+        }
+        pathfindingStats = new PathfindingStats(game.getMetrics());
+        enemySystem.setPathfindingStats(pathfindingStats);
+        pathfindingService.setStats(pathfindingStats);
+        pathfindingOverlay = new PathfindingOverlay(enemySystem, pathfindingService, pathfindingStats,
+                maze.getLayout()[0].length);
+        messageDispatcher.addListeners(telegram -> {
+            if (Gdx.app.getLogLevel() >= Application.LOG_DEBUG) { // Skip building the text when it is not logged
+                Gdx.app.debug("GameScreen", "Enemy " + telegram.extraInfo + " sent message " + telegram.message);
+            }
+            return true;
+        }, EnemySystem.MSG_SPOTTED_PLAYER, EnemySystem.MSG_LOST_PLAYER, EnemySystem.MSG_DIED);
         this.loadMazeElements();
 
 
@@ -62,28 +142,72 @@ public GameScreen(MazeRunnerGame game) {
         Animation<TextureRegion> noKeyAnimation = game.loadNoKeyAnimation();
 
         // Initializing HUD
-        hud = new HUD(fullHeart, emptyHeart, noKeyAnimation,keyAnimation, 5);
+        hud = new HUD(fullHeart, emptyHeart, noKeyAnimation,keyAnimation, 5, timerWheel, profiler);
 
         // Create the player character
         initializePlayerCharacter();
-
+        simulation = new Simulation(maze, enemySystem, playerCharacter.getState(), timerWheel);
+        createSystems();
 
     }
 
     /**
-     * Loads maze elements based on the maze layout. Converts each type in the layout
-     * into a corresponding MazeElement instance and adds it to the mazeElements array.
+     * Loads maze elements based on the maze layout. The level builder creates an element for every tile that
+     * needs one, from the game's cached tile prototypes, and one for every enemy spawn point.
      */
     private void loadMazeElements() {
-        int[][] layout = game.getMaze().getLayout();
-        for (int i = 0; i < layout.length; i++) {
-            for (int j = 0; j < layout[i].length; j++) {
-                MazeElement element = createElementFromType(layout[i][j], i, j);
-                if (element != null) {
-                    mazeElements.add(element);
-                }
+        maze.clearOccupants(); // A restarted level reuses the maze of the previous attempt
+        new LevelBuilder(game.getTilePrototypes(), enemySystem, game, this).build(maze, this::addElement);
+    }
+
+    /**
+     * Adds an element to the screen. Static tiles go to the maze elements; everything that moves, animates or
+     * can be interacted with becomes an entity whose components the systems work on, with the element attached
+     * as an adapter that still draws it.
+     *
+     * @param element The element to add.
+     */
+    private void addElement(MazeElement element) {
+        if (element instanceof Wall || element instanceof EntryPoint || element instanceof Exit) {
+            mazeElements.add(element);
+            return;
+        }
+        Entity entity = new Entity();
+        entity.add(new ElementComponent(element));
+        entity.add(new PositionComponent(element.getX(), element.getY()));
+        if (element instanceof Enemy enemy) {
+            entity.add(new EnemyComponent(enemy));
+            entity.add(new RenderComponent(RenderComponent.LAYER_ENEMY));
+        } else if (element instanceof Character character) {
+            entity.add(new PlayerComponent(character));
+            entity.add(new RenderComponent(RenderComponent.LAYER_PLAYER));
+        } else {
+            entity.add(new RenderComponent(RenderComponent.LAYER_TILE));
+            if (element instanceof Trap trap) {
+                entity.add(new AnimationComponent(trap.getAnimation()));
+            } else if (element instanceof Lava lava) {
+                entity.add(new AnimationComponent(lava.getAnimation()));
+            } else if (element instanceof Key key) {
+                entity.add(new AnimationComponent(key.getAnimation()));
+                entity.add(new PickupComponent(null));
+            } else if (element instanceof Chest chest) {
+                entity.add(new ChestComponent(chest));
             }
         }
+        engine.addEntity(entity);
+    }
+
+    /**
+     * Adds the systems to the engine, in the order they run every frame. Needs the player character and the camera.
+     */
+    private void createSystems() {
+        engine.addSystem(new EnemyAiSystem(simulation, profiler, 0));
+        engine.addSystem(new MovementSystem(1));
+        engine.addSystem(new AnimationSystem(2));
+        collectiblePool = new CollectiblePool(game, playerCharacter, hud);
+        engine.addSystem(new PickupSystem(playerCharacter, collectiblePool, profiler, 3));
+        renderSystem = new RenderSystem(game.getSpriteBatch(), camera); // Updated by render() while drawing
+        engine.addSystem(renderSystem);
     }
 
     /**
@@ -94,28 +218,22 @@ private void initializePlayerCharacter() {
         EntryPoint entryPoint = findEntryPoint();
         if (entryPoint != null) {
             int initialLives = 5; // Number of lives for the character
-            Animation<TextureRegion>[] unarmedAnimations = new Animation[]{
+            Animation<TextureRegion>[] unarmedAnimations = WalkAnimations.of(
                     game.getCharacterDownAnimation(),
                     game.getCharacterLeftAnimation(),
                     game.getCharacterRightAnimation(),
-                    game.getCharacterUpAnimation()
-            };
-            Animation<TextureRegion>[] armedAnimations = new Animation[]{
+                    game.getCharacterUpAnimation());
+            Animation<TextureRegion>[] armedAnimations = WalkAnimations.of(
                     game.getCharacterDownAnimationArmed(),
                     game.getCharacterLeftAnimationArmed(),
                     game.getCharacterRightAnimationArmed(),
-                    game.getCharacterUpAnimationArmed()
-            };
-            playerCharacter = new Character(entryPoint.getX(), entryPoint.getY(), initialLives, unarmedAnimations, armedAnimations, camera);
+                    game.getCharacterUpAnimationArmed());
+            playerCharacter = new Character(entryPoint.getX(), entryPoint.getY(), initialLives, unarmedAnimations, armedAnimations, camera, timerWheel);
+            addElement(playerCharacter);
             Gdx.app.log("GameScreen", "Character initialized at (" + entryPoint.getX() + ", " + entryPoint.getY() + ")");
         }else {
             Gdx.app.error("GameScreen", "Entry point not found, character not initialized");
         }
-        for (MazeElement element : mazeElements) {
-            if (element instanceof Enemy) {
-                ((Enemy) element).setPlayer(playerCharacter);
-            }
-        }
     }
 
     /**
@@ -131,66 +249,6 @@ private EntryPoint findEntryPoint() {
         throw new IllegalStateException("Entry point not found in the maze.");
     }
 
-    /**
-     * Creates and returns a MazeElement based on the type parameter. This method
-     * uses the maze layout information to instantiate different types of maze elements
-     * like walls, floors, enemies, etc.
-     *
-     * @param type The type of maze element to create.
-     * @param x The x-coordinate of the maze element in the maze grid.
-     * @param y The y-coordinate of the maze element in the maze grid.
-     * @return A MazeElement instance corresponding to the given type.
-     */
-    private MazeElement createElementFromType(int type, int x, int y) {
-        // The x and y coordinates might need to be adjusted or scaled
-        // depending on your game's coordinate system and tile size.
-        final int tileSize = 16; // Example tile size, adjust as needed.
-        // Create an array of animations for the enemy
-        @SuppressWarnings("unchecked")
-        Animation<TextureRegion>[] enemyAnimations = new Animation[] {
-                game.getEnemyDownAnimation(),
-                game.getEnemyLeftAnimation(),
-                game.getEnemyRightAnimation(),
-                game.getEnemyUpAnimation()
-        };
-        Animation<TextureRegion> deathAnimation = game.loadEnemyDeathAnimation();
-
-        switch (type) {
-            case -1: // Floor
-                return new Floor(MazeRunnerGame.getFloorTextureRegion(), x * tileSize, y * tileSize);
-
-            case 0: // Wall
-                return new Wall(MazeRunnerGame.getWallTextureRegion(),x * tileSize, y * tileSize);
-
-            case 1: // Entry point
-                return new EntryPoint(MazeRunnerGame.getEntryPointTextureRegion(),x * tileSize, y * tileSize);
-
-            case 2: // Exit
-                return new Exit(MazeRunnerGame.getExitTextureRegion(),x * tileSize, y * tileSize);
-
-            case 3: // Trap
-                Animation<TextureRegion> trapAnimation = game.loadTrapAnimation();
-                return new Trap(trapAnimation, x * tileSize, y * tileSize);
-
-            case 4: // Enemy (dynamic obstacle)
-
-                return new Enemy(MazeRunnerGame.getEnemyTextureRegion(),x * tileSize, y * tileSize,playerCharacter,maze,enemyAnimations,deathAnimation);
-
-            case 5: // Key
-                Animation<TextureRegion> keyAnimation = game.loadKeyAnimation();
-                return new Key(keyAnimation, x * tileSize, y * tileSize);
-            case 6: // Lava
-                Animation<TextureRegion> lavaAnimation = game.loadLavaAnimation();
-                return new Lava(lavaAnimation, x * tileSize, y * tileSize);
-            case 7: //Chest
-                return new Chest(MazeRunnerGame.getClosedChestTextureRegion(), MazeRunnerGame.getOpenChestTextureRegion(),x * tileSize, y * tileSize,game,this);
-
-            default:
-                return null; // For undefined types, return null
-        }
-    }
-
-
     /**
      * Renders the game elements on the screen. This includes drawing the maze,
      * characters, enemies, and other collectibles. It also handles game state updates
@@ -200,6 +258,12 @@ private MazeElement createElementFromType(int type, int x, int y) {
      */
     @Override
     public void render(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            profiler.toggle();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            pathfindingOverlay.toggle();
+        }
         // Check for escape key press to go back to the menu
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             game.setPaused(true);
@@ -223,28 +287,52 @@ public void render(float delta) {
 
         if(!game.isPaused) {
 
+        long frameStart = System.nanoTime();
+        profiler.beginFrame();
         ScreenUtils.clear(0, 0, 0, 1); // Clearing the screen
+        profiler.begin(FrameProfiler.Section.INPUT);
+        int input;
+        if (replay != null) {
+            if (!replay.hasNext()) {
+                return; // Finished; the game is quitting
+            }
+            if (replayStart == 0) {
+                replayStart = System.nanoTime();
+            }
+            input = replay.next();
+            delta = replay.getDelta(); // Ticks as long as the recorded ones, whatever the frame rate
+        } else {
+            input = pollInput();
+        }
+        if (recording != null) {
+            recording.record(input, delta);
+        }
+        profiler.end(FrameProfiler.Section.INPUT);
+        simulation.advanceTimers(delta); // Fire the timers that are due before anything reads them
+        GdxAI.getTimepiece().update(delta);
+        messageDispatcher.update(); // Delivers delayed messages that are due
+        profiler.begin(FrameProfiler.Section.PATHFINDING);
+        pathfindingBudget.reset(); // Enemies share a fresh node budget every frame
+        pathfindingService.deliverResults(maze.getLayoutVersion()); // Paths finished since the last tick
+        profiler.end(FrameProfiler.Section.PATHFINDING);
 
         // Updating camera to center on the character
         camera.position.set(playerCharacter.getX(), playerCharacter.getY(), 0);
         camera.update();
         // Handling input for character movement
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
-            playerCharacter.move(Direction.LEFT, game.getMaze(), delta);
-        } if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
-            playerCharacter.move(Direction.RIGHT, game.getMaze(),delta);
-        }  if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
-            playerCharacter.move(Direction.UP, game.getMaze(),delta);
-        }  if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
-            playerCharacter.move(Direction.DOWN, game.getMaze(),delta);
-        }
+        profiler.begin(FrameProfiler.Section.PLAYER);
+        simulation.movePlayer(delta, input); // Same rules as a headless run, so recordings replay alike
+        playerCharacter.followWithCamera();
         playerCharacter.update(Gdx.graphics.getDeltaTime());
+        profiler.end(FrameProfiler.Section.PLAYER);
 
         game.getSpriteBatch().setProjectionMatrix(camera.combined);
-        handleInput(delta);
-        updateCollectibles(delta);
-
+        profiler.begin(FrameProfiler.Section.INPUT);
+        handleInput(input);
+        profiler.end(FrameProfiler.Section.INPUT);
+        engine.update(delta); // Enemies, movement, animations and pickups, before drawing
 
+        profiler.begin(FrameProfiler.Section.WORLD_DRAW);
         game.getSpriteBatch().begin(); // needs to be called before drawing anything
         for (int i = 0; i < game.getMaze().getLayout().length; i++) {
             for (int j = 0; j < game.getMaze().getLayout()[0].length; j++) {
@@ -257,114 +345,128 @@ public void render(float delta) {
         }
 
         for (MazeElement element : mazeElements) {
-            // Updating and drawing specific types of elements
-            if (element instanceof Enemy enemy) {
-                enemy.update(delta);
-                enemy.draw(game.getSpriteBatch());} else
-            if (element instanceof Trap trap) {
-                trap.update(Gdx.graphics.getDeltaTime());
-                trap.draw(game.getSpriteBatch());
-            } else if (element instanceof Lava lava) {
-                lava.update(delta);
-                lava.draw(game.getSpriteBatch());
-            } else if (element instanceof Key key && !playerCharacter.hasKey()) {
-                key.update(delta); // Update the key animation if the player doesn't have the key
-                key.draw(game.getSpriteBatch());
-            } else if (element instanceof Exit exit) {
-                exit.draw(game.getSpriteBatch());
-            } else if (element instanceof Wall wall) {
-                wall.draw(game.getSpriteBatch());
-            }
-            else if (element instanceof EntryPoint) {
-                EntryPoint entryPoint = (EntryPoint) element;
-                entryPoint.draw(game.getSpriteBatch());
-            }
-            else if (element instanceof Chest) {
-                Chest chest = (Chest) element;
-                chest.draw(game.getSpriteBatch());
-            }
-        }
-        for (Collectible collectible : collectibles) {
-            collectible.draw(game.getSpriteBatch());
+            element.draw(game.getSpriteBatch()); // Static tiles under the entities
         }
 
         if (playerCharacter != null) {
             playerCharacter.update(Gdx.graphics.getDeltaTime());
-            playerCharacter.draw(game.getSpriteBatch());
         } else {
             Gdx.app.error("GameScreen", "Character is null, not drawn");
         }
+        renderSystem.update(delta); // Every entity, including the player
 
         game.getSpriteBatch().end(); // Important to call this after drawing everything
+        profiler.end(FrameProfiler.Section.WORLD_DRAW);
+        profiler.addRenderCalls(game.getSpriteBatch().renderCalls);
+        pathfindingOverlay.draw(camera.combined, delta);
         hud.updateHearts(playerCharacter.getLives(), game.getFullHeartTexture(), game.getEmptyHeartTexture());
         hud.updateInvincibilityTimer(playerCharacter.getInvulnerabilityTimer());
-        if (playerCharacter.getLives() <= 0) {
+        if (simulation.isLost()) {
             game.showGameOverScreen();
         }
 
-        playerCharacter.updateStatus(game.getMaze(), mazeElements);
+        profiler.begin(FrameProfiler.Section.PLAYER);
+        simulation.updateStatus();
+        profiler.end(FrameProfiler.Section.PLAYER);
         hud.updateKey(Gdx.graphics.getDeltaTime(), playerCharacter.hasKey());
         hud.updateExit(playerCharacter.hasReachedExit());
         playerCharacter.update(Gdx.graphics.getDeltaTime());// Update character status based on current position in the maze
         // Check if player has reached the exit and has the key
-        if (playerCharacter.hasKey() && maze.checkCollision(playerCharacter.getBounds(), true) ==22 ) {
+        if (simulation.isWon()) {
             game.showVictoryScreen();
         }
         hud.draw();
+        profiler.addRenderCalls(hud.getRenderCalls());
+        profiler.endFrame();
+        if (tickMetrics != null) {
+            tickMetrics.recordTick(System.nanoTime() - frameStart); // Before the overlay, which is not the game's
+        }
+        profiler.draw();
+        if (recording != null) {
+            recording.setEndChecksum(simulation.checksum()); // The state a replay must end in so far
+        }
+        if (replay != null && !replay.hasNext()) {
+            finishReplay();
+        }
         }
     }
 
     /**
-     * Handles user input to control the player character and interact with the game world.
+     * Reads the keys that control the player character.
      *
-     * @param delta The time in seconds since the last update.
+     * @return The held keys, as input bits of the simulation and {@link InputLog#INTERACT}.
      */
-    private void handleInput(float delta) {
+    private int pollInput() {
+        int input = 0;
+        if (Gdx.input.isKeyPressed(Input.Keys.LEFT)) {
+            input |= Simulation.inputBit(Direction.LEFT);
+        }
+        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT)) {
+            input |= Simulation.inputBit(Direction.RIGHT);
+        }
+        if (Gdx.input.isKeyPressed(Input.Keys.UP)) {
+            input |= Simulation.inputBit(Direction.UP);
+        }
+        if (Gdx.input.isKeyPressed(Input.Keys.DOWN)) {
+            input |= Simulation.inputBit(Direction.DOWN);
+        }
         if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {
-            for (MazeElement element : mazeElements) {
-                if (element instanceof Chest) {
-                    Chest chest = (Chest) element;
-                    // Log before attempting to open the chest
-                    Gdx.app.log("handleInput", "Attempting to open chest at position (" + chest.getX() + ", " + chest.getY() + ")");
-                    if (playerCharacter.getBounds().overlaps(chest.getBounds()) && !chest.isOpened()) {
-                        try {
-                            chest.open();
-                            // Log successful opening
-                            Gdx.app.log("handleInput", "Chest opened successfully.");
-                            break; // Assuming one interaction per key press
-                        } catch (Exception e) {
-                            // Log the exception with as much detail as possible
-                            Gdx.app.error("handleInput", "Error opening chest at (" + chest.getX() + ", " + chest.getY() + "): " + e.getMessage(), e);
-                        }
-                    }
-                }
-            }
+            input |= InputLog.INTERACT;
+        }
+        return input;
+    }
+
+    /**
+     * Reports how long the replay took and whether it ended in the recorded state, and quits the game.
+     */
+    private void finishReplay() {
+        double seconds = (System.nanoTime() - replayStart) / 1e9;
+        String summary = "Replayed " + replay.getTickCount() + " ticks in " + String.format("%.2f", seconds) + " s";
+        if (!replay.hasEndChecksum()) {
+            Gdx.app.log("Replay", summary + "; the recording holds no end state");
+        } else if (replay.getEndChecksum() == simulation.checksum()) {
+            Gdx.app.log("Replay", summary + "; the end state matches the recording");
+        } else {
+            Gdx.app.error("Replay", summary + "; the end state differs from the recording");
         }
+        Gdx.app.exit();
     }
 
     /**
-     * Updates the state of collectibles, checking for collection and removing collected items.
+     * Handles user input to control the player character and interact with the game world.
      *
-     * @param delta The time in seconds since the last update.
+     * @param input The keys held in this tick, as returned by {@link #pollInput()} or replayed.
      */
-    public void updateCollectibles(float delta) {
-        Array<Collectible> collected = new Array<>();
-        for (Collectible collectible : collectibles) {
-            if (playerCharacter.getBounds().overlaps(collectible.getBounds())) {
-                collected.add(collectible);
-                collectible.collect(); // Collect the collectible
+    private void handleInput(int input) {
+        if ((input & InputLog.INTERACT) != 0) {
+            for (Entity entity : chests) {
+                Chest chest = entity.getComponent(ChestComponent.class).chest;
+                // Log before attempting to open the chest
+                Gdx.app.log("handleInput", "Attempting to open chest at position (" + chest.getX() + ", " + chest.getY() + ")");
+                if (playerCharacter.getBounds().overlaps(chest.getBounds()) && !chest.isOpened()) {
+                    try {
+                        chest.open();
+                        // Log successful opening
+                        Gdx.app.log("handleInput", "Chest opened successfully.");
+                        break; // Assuming one interaction per key press
+                    } catch (Exception e) {
+                        // Log the exception with as much detail as possible
+                        Gdx.app.error("handleInput", "Error opening chest at (" + chest.getX() + ", " + chest.getY() + "): " + e.getMessage(), e);
+                    }
+                }
             }
         }
-        collectibles.removeAll(collected, true); // Remove collected items from the array
     }
+
     /**
-     * Adds a collectible to the game. This can be called when new collectibles are spawned in the game world.
+     * Drops a pooled collectible into the game. This can be called when new collectibles are spawned in the game world.
      *
-     * @param collectible The collectible to add to the game.
+     * @param kind The kind of collectible, one of the kinds of {@link CollectiblePool}.
+     * @param x The x-coordinate of the collectible.
+     * @param y The y-coordinate of the collectible.
      */
-
-    public void addCollectible(Collectible collectible) {
-        this.collectibles.add(collectible);
+    public void dropCollectible(int kind, float x, float y) {
+        engine.addEntity(collectiblePool.obtain(kind, x, y));
     }
 
     @Override
@@ -387,10 +489,18 @@ public void show() {
 
     @Override
     public void hide() {
+        if (recording != null) { // Saved whenever the level is left; resuming it continues the recording
+            recording.save(game.getRecordingFile());
+            Gdx.app.log("GameScreen", "Recorded " + recording.getTickCount() + " ticks to " + game.getRecordingFile());
+        }
     }
 
     @Override
     public void dispose() {
+        enemySystem.dispose();
+        pathfindingService.dispose();
+        messageDispatcher.clear();
+        pathfindingOverlay.dispose();
     }
 
     public MazeRunnerGame getGame() {
@@ -409,10 +519,6 @@ public Maze getMaze() {
         return maze;
     }
 
-    public Array<Collectible> getCollectibles() {
-        return collectibles;
-    }
-
     public float getSinusInput() {
         return sinusInput;
     }
@@ -421,6 +527,10 @@ public Array<MazeElement> getMazeElements() {
         return mazeElements;
     }
 
+    public Engine getEngine() {
+        return engine;
+    }
+
     public Character getPlayerCharacter() {
         return playerCharacter;
     }
@@ -4,6 +4,7 @@
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.actions.Actions;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
@@ -28,6 +29,15 @@ public class HUD {
     private float stateTime = 0;
     private Label messageLabel; // Add a Label for displaying messages
     private Label invincibilityLabel; // Label for displaying invincibility countdown
+    private final com.badlogic.gdx.utils.StringBuilder invincibilityText = new com.badlogic.gdx.utils.StringBuilder();
+    private int shownTenths = -1; // Tenths of a second on the invincibility label, to rebuild it only on change
+    private final Label exitLabel;
+    private final FrameProfiler profiler;
+    private final SpriteBatch ownedBatch; // Created for the stage by the public constructor, or null
+    private final TimerWheel timerWheel;
+    // Fades the current message out once it has been shown long enough
+    private final TimerWheel.Timer hideMessage = new TimerWheel.Timer(() -> messageLabel.addAction(
+            Actions.sequence(Actions.fadeOut(0.5f), Actions.run(() -> messageLabel.setVisible(false)))));
 
 
     /**
@@ -39,15 +49,36 @@ public class HUD {
      * @param keyAnimation Animation for the key when the player possesses it.
      * @param noKeyAnimation Animation for the key when the player does not possess it.
      * @param initialLives The initial number of lives to display.
+     * @param timerWheel The wheel that hides messages after a while.
+     * @param profiler The profiler to report the HUD's act, draw and batch flushes to.
      */
 
-    public HUD(TextureRegion fullHeart, TextureRegion emptyHeart, Animation<TextureRegion> keyAnimation, Animation<TextureRegion> noKeyAnimation, int initialLives) {
+    public HUD(TextureRegion fullHeart, TextureRegion emptyHeart, Animation<TextureRegion> keyAnimation, Animation<TextureRegion> noKeyAnimation, int initialLives, TimerWheel timerWheel, FrameProfiler profiler) {
+        this(fullHeart, emptyHeart, keyAnimation, noKeyAnimation, initialLives, timerWheel, profiler, new ProfiledSpriteBatch(profiler), new BitmapFont());
+    }
+
+    private HUD(TextureRegion fullHeart, TextureRegion emptyHeart, Animation<TextureRegion> keyAnimation, Animation<TextureRegion> noKeyAnimation, int initialLives, TimerWheel timerWheel, FrameProfiler profiler, SpriteBatch batch, BitmapFont font) {
+        this(fullHeart, emptyHeart, keyAnimation, noKeyAnimation, initialLives, timerWheel, profiler, new Stage(new ScreenViewport(), batch), font, batch);
+    }
+
+    /**
+     * Constructs a HUD on the given stage, with the given font for its labels. Lets the benchmarks build a HUD
+     * without a GL context.
+     *
+     * @param stage The stage the HUD's actors are added to; disposed with the HUD.
+     * @param font The font of the message and invincibility labels.
+     * @param ownedBatch The stage's batch if the HUD has to dispose it, else null.
+     */
+    HUD(TextureRegion fullHeart, TextureRegion emptyHeart, Animation<TextureRegion> keyAnimation, Animation<TextureRegion> noKeyAnimation, int initialLives, TimerWheel timerWheel, FrameProfiler profiler, Stage stage, BitmapFont font, SpriteBatch ownedBatch) {
+        this.timerWheel = timerWheel;
+        this.profiler = profiler;
+        this.ownedBatch = ownedBatch;
 
         this.keyAnimation = keyAnimation;
         this.noKeyAnimation = noKeyAnimation;
 
 
-        stage = new Stage(new ScreenViewport());
+        this.stage = stage;
         Table leftTable = new Table();
         Table rightTable = new Table();
         // Setting up the left table for hearts
@@ -73,7 +104,7 @@ public HUD(TextureRegion fullHeart, TextureRegion emptyHeart, Animation<TextureR
 
 
         // Initialize the message Label
-        Label.LabelStyle labelStyle = new Label.LabelStyle(new BitmapFont(), Color.WHITE);
+        Label.LabelStyle labelStyle = new Label.LabelStyle(font, Color.WHITE);
         messageLabel = new Label("", labelStyle);
         messageLabel.setFontScale(2.0f);
         messageLabel.setPosition(Gdx.graphics.getWidth() / 8f, Gdx.graphics.getHeight() * 0.9f);
@@ -88,8 +119,12 @@ public HUD(TextureRegion fullHeart, TextureRegion emptyHeart, Animation<TextureR
         invincibilityLabel.setAlignment(Align.center);
         stage.addActor(invincibilityLabel);
 
-
-
+        // The exit label is shown once the player reaches the exit
+        exitLabel = new Label("Exit reached", labelStyle);
+        exitLabel.setFontScale(2.0f);
+        exitLabel.setPosition(Gdx.graphics.getWidth() / 2f, Gdx.graphics.getHeight() / 2f);
+        exitLabel.setVisible(false);
+        stage.addActor(exitLabel);
     }
     /**
      * Displays a temporary message on the HUD.
@@ -100,18 +135,27 @@ public HUD(TextureRegion fullHeart, TextureRegion emptyHeart, Animation<TextureR
     public void showMessage(String messageText) {
         messageLabel.setText(messageText); // Set the text of the message
         messageLabel.setVisible(true); // Make the label visible
+        messageLabel.clearActions(); // Stop the fade of an earlier message
+        messageLabel.getColor().a = 1;
 
-        // Schedule hiding the message after a few seconds
+        // Schedule hiding the message after a few seconds; a newer message moves the deadline
         float delay = 3; // delay in seconds before the message disappears
-        messageLabel.addAction(Actions.sequence(Actions.delay(delay), Actions.fadeOut(0.5f), Actions.run(() -> messageLabel.setVisible(false))));
+        timerWheel.schedule(hideMessage, delay);
     }
     /**
-     * Updates the HUD with the current invincibility timer.
+     * Updates the HUD with the current invincibility timer. The text is only rebuilt when the shown tenth of a
+     * second changes.
      * @param invincibilityTime Remaining time of invincibility in seconds.
      */
     public void updateInvincibilityTimer(float invincibilityTime) {
         if (invincibilityTime > 0) {
-            invincibilityLabel.setText(String.format("Invincible: %.1f", invincibilityTime));
+            int tenths = Math.round(invincibilityTime * 10);
+            if (tenths != shownTenths) {
+                shownTenths = tenths;
+                invincibilityText.setLength(0);
+                invincibilityText.append("Invincible: ").append(tenths / 10).append('.').append(tenths % 10);
+                invincibilityLabel.setText(invincibilityText);
+            }
             invincibilityLabel.setVisible(true);
         } else {
             invincibilityLabel.setVisible(false);
@@ -128,7 +172,12 @@ public void updateInvincibilityTimer(float invincibilityTime) {
      */
     public void updateHearts(int currentLives, TextureRegion fullHeart, TextureRegion emptyHeart) {
         for (int i = 0; i < hearts.length; i++) {
-            hearts[i].setDrawable(new TextureRegionDrawable(i < currentLives ? fullHeart : emptyHeart));
+            // Swap the region of the heart's own drawable instead of creating a drawable every frame
+            TextureRegionDrawable drawable = (TextureRegionDrawable) hearts[i].getDrawable();
+            TextureRegion region = i < currentLives ? fullHeart : emptyHeart;
+            if (drawable.getRegion() != region) {
+                drawable.setRegion(region);
+            }
         }
     }
     /**
@@ -141,7 +190,7 @@ public void updateKey(float delta, boolean hasKey) {
         stateTime += delta; // Update stateTime for animation
 
         Animation<TextureRegion> currentAnimation = hasKey ? noKeyAnimation : keyAnimation;
-        keyImage.setDrawable(new TextureRegionDrawable(currentAnimation.getKeyFrame(stateTime, true)));
+        ((TextureRegionDrawable) keyImage.getDrawable()).setRegion(currentAnimation.getKeyFrame(stateTime, true));
     }
     /**
      * Displays a notification when the exit is reached by the player.
@@ -150,18 +199,26 @@ public void updateKey(float delta, boolean hasKey) {
      */
     public void updateExit(boolean reachedExit) {
         if(reachedExit){
-            Label exitLabel = new Label("Exit reached", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-            exitLabel.setFontScale(2.0f);
-            stage.addActor(exitLabel);
-            exitLabel.setPosition(Gdx.graphics.getWidth()/2f, Gdx.graphics.getHeight()/2f);
+            exitLabel.setVisible(true);
         }
     }
     /**
      * Draws the HUD on the screen.
      */
     public void draw() {
+        profiler.begin(FrameProfiler.Section.HUD_ACT);
         stage.act(Gdx.graphics.getDeltaTime());
+        profiler.end(FrameProfiler.Section.HUD_ACT);
+        profiler.begin(FrameProfiler.Section.HUD_DRAW);
         stage.draw();
+        profiler.end(FrameProfiler.Section.HUD_DRAW);
+    }
+
+    /**
+     * @return The render calls of the HUD's batch in the last {@link #draw()}, or 0 if it is not a sprite batch.
+     */
+    public int getRenderCalls() {
+        return stage.getBatch() instanceof SpriteBatch spriteBatch ? spriteBatch.renderCalls : 0;
     }
 
 
@@ -170,5 +227,8 @@ public void draw() {
      */
     public void dispose() {
         stage.dispose();
+        if (ownedBatch != null) {
+            ownedBatch.dispose();
+        }
     }
 }
@@ -33,4 +33,8 @@ public void update(float delta) {
         stateTime += delta; // Update the stateTime
         setTexture(animation.getKeyFrame(stateTime, true));
     }
+
+    public Animation<TextureRegion> getAnimation() {
+        return animation;
+    }
 }
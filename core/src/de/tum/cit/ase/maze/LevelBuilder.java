@@ -0,0 +1,68 @@
+package de.tum.cit.ase.maze;
+
+import java.util.function.Consumer;
+
+/**
+ * Turns a maze into the elements of a level. Every tile type that needs an object has a factory, which builds it
+ * from the type's {@link TilePrototypes}; types without a factory, like the floor, cost nothing but the look-up.
+ * Enemies are not part of the layout and are built at the maze's spawn points after the tiles.
+ */
+public class LevelBuilder {
+    private static final int TILE_SIZE = 16;
+    private static final int MAX_TYPE = 7; // Highest tile type in a layout, the chest
+
+    /**
+     * Builds the element of one tile.
+     */
+    public interface TileFactory {
+        /**
+         * @param x The x-coordinate of the element, in pixels.
+         * @param y The y-coordinate of the element, in pixels.
+         */
+        MazeElement create(int x, int y);
+    }
+
+    private final TileFactory[] factories = new TileFactory[MAX_TYPE + 2]; // Indexed by type + 1, so floor (-1) is 0
+    private final TileFactory enemyFactory;
+
+    /**
+     * @param prototypes The shared look of the tiles.
+     * @param enemySystem The system the enemies are spawned in.
+     * @param game The game, passed on to chests.
+     * @param gameScreen The screen, passed on to chests.
+     */
+    public LevelBuilder(TilePrototypes prototypes, EnemySystem enemySystem, MazeRunnerGame game, GameScreen gameScreen) {
+        factories[0 + 1] = (x, y) -> new Wall(prototypes.wall, x, y);
+        factories[1 + 1] = (x, y) -> new EntryPoint(prototypes.entryPoint, x, y);
+        factories[2 + 1] = (x, y) -> new Exit(prototypes.exit, x, y);
+        factories[3 + 1] = (x, y) -> new Trap(prototypes.trap, x, y);
+        factories[5 + 1] = (x, y) -> new Key(prototypes.key, x, y);
+        factories[6 + 1] = (x, y) -> new Lava(prototypes.lava, x, y);
+        factories[7 + 1] = (x, y) -> new Chest(prototypes.closedChest, prototypes.openChest, x, y, game, gameScreen);
+        enemyFactory = (x, y) -> new Enemy(prototypes.enemy, x, y, enemySystem, prototypes.enemyWalk,
+                prototypes.enemyDeath);
+    }
+
+    /**
+     * Builds the elements of all tiles that need one, then the enemies.
+     *
+     * @param maze The maze to build.
+     * @param sink Receives every element built, tiles in column order first.
+     */
+    public void build(Maze maze, Consumer<MazeElement> sink) {
+        int[][] layout = maze.getLayout();
+        for (int x = 0; x < layout.length; x++) {
+            int[] column = layout[x];
+            for (int y = 0; y < column.length; y++) {
+                int type = column[y];
+                TileFactory factory = type >= -1 && type <= MAX_TYPE ? factories[type + 1] : null;
+                if (factory != null) {
+                    sink.accept(factory.create(x * TILE_SIZE, y * TILE_SIZE));
+                }
+            }
+        }
+        for (int i = 0; i < maze.getEnemySpawnCount(); i++) {
+            sink.accept(enemyFactory.create(maze.getEnemySpawnX(i) * TILE_SIZE, maze.getEnemySpawnY(i) * TILE_SIZE));
+        }
+    }
+}
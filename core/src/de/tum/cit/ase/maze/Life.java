@@ -30,8 +30,7 @@ public Life(TextureRegion texture, float x, float y, Character playerCharacter,
     @Override
     protected void applyEffect() {
         //increase player's lives
-        if(playerCharacter.getLives()<5) {
-            playerCharacter.setLives(playerCharacter.getLives() + 1);
+        if(playerCharacter.getState().gainLife()) {
             hud.showMessage("+1 Life. Nice!");
         }
         else {
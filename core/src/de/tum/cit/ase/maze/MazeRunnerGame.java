@@ -2,6 +2,7 @@
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
@@ -67,6 +68,27 @@ public class MazeRunnerGame extends Game {
     private Texture collectiblesTexture;
     protected boolean isPaused = false;
 
+    // Shared regions and animations of the tile types, loaded for the first level and reused by all others
+    private TilePrototypes tilePrototypes;
+
+    // Randomness of gameplay (chest drops); reseeded by every level so a level can be replayed
+    private final GameRandom random = new GameRandom();
+
+    // Input recording and replay, set up by the launcher before the game starts
+    private FileHandle recordingFile; // Every level's input is recorded to this file, or null
+    private InputLog replay; // The recording the levels replay, or null to play with the keyboard
+    private FileHandle startMap; // The map to start with instead of the menu, or null
+
+    // Frame timings and GL counters, shown as an overlay while enabled; kept across levels
+    private final FrameProfiler profiler = new FrameProfiler();
+
+    // Metrics of the session, exported for offline analysis if the launcher names a file
+    private static final float METRICS_INTERVAL = 1; // Seconds between two snapshots in the file
+    private FileHandle metricsFile; // The file the metrics are exported to, or null to record none
+    private MetricsRegistry metrics; // Created on start if there is a metrics file
+    private GcPauseMonitor gcPauseMonitor;
+    private MetricsExporter metricsExporter;
+
 
 
     // Character animation downwards
@@ -123,19 +145,24 @@ public MazeRunnerGame(NativeFileChooser fileChooser) {
      */
     @Override
     public void create() {
-        spriteBatch = new SpriteBatch(); // Create SpriteBatch
-        skin = new Skin(Gdx.files.internal("craft/craftacular-ui.json")); // Load UI skin
+        if (metricsFile != null) {
+            metrics = new MetricsRegistry();
+            gcPauseMonitor = new GcPauseMonitor(metrics);
+            metricsExporter = new MetricsExporter(metrics, metricsFile, METRICS_INTERVAL);
+        }
+        spriteBatch = new ProfiledSpriteBatch(profiler); // Create SpriteBatch, timing its flushes while profiling
+        skin = loadSkin("craft/craftacular-ui.json"); // Load UI skin
         this.loadCharacterAnimations(); // Load character animations
         this.loadCharacterArmedAnimations(); // load armed character animations
         this.loadEnemyAnimations(); // Load enemy animations
 
 
         // Load the sprite sheet
-        mazeElementsTexture = new Texture(Gdx.files.internal("basictiles-shee.salomet.png"));
-        obstaclesTexture = new Texture(Gdx.files.internal("objects.OwOt.png"));
-        mobsTexture = new Texture(Gdx.files.internal("mobs-sheet.salome.png"));//Enemy design by Salome Tsitskishvili
-        chestTexture = new Texture(Gdx.files.internal("things.png"));
-        collectiblesTexture = new Texture(Gdx.files.internal("objects.OwOt.png"));
+        mazeElementsTexture = loadTexture("basictiles-shee.salomet.png");
+        obstaclesTexture = loadTexture("objects.OwOt.png");
+        mobsTexture = loadTexture("mobs-sheet.salome.png");//Enemy design by Salome Tsitskishvili
+        chestTexture = loadTexture("things.png");
+        collectiblesTexture = loadTexture("objects.OwOt.png");
 
 
         // Initialize TextureRegions for each element
@@ -159,19 +186,25 @@ public void create() {
 
         // Play some background music
         // Background sound
-        backgroundMusic = Gdx.audio.newMusic(Gdx.files.internal("Kevin MacLeod - Pixelland.mp3"));
+        backgroundMusic = loadMusic("Kevin MacLeod - Pixelland.mp3");
         backgroundMusic.setLooping(true);
         backgroundMusic.setVolume(0.1f);
         backgroundMusic.play();
         loadTextures();
-        gameOverMusic = Gdx.audio.newMusic(Gdx.files.internal("Jorge Hernandez - Chopsticks.mp3"));
-        gameMusic = Gdx.audio.newMusic(Gdx.files.internal("Jeremy Blake - Powerup!.mp3"));
-        victoryMusic = Gdx.audio.newMusic(Gdx.files.internal(" 8 bit Paradise.mp3"));
+        gameOverMusic = loadMusic("Jorge Hernandez - Chopsticks.mp3");
+        gameMusic = loadMusic("Jeremy Blake - Powerup!.mp3");
+        victoryMusic = loadMusic(" 8 bit Paradise.mp3");
         this.setScreen(menuScreen);
         goToMenu(); // Navigate to the menu screen
+        if (startMap != null) {
+            loadMaze(startMap);
+        }
     }
 
     public void showGameOverScreen() {
+        ScreenSwitchEvent event = new ScreenSwitchEvent();
+        event.begin();
+        Screen previous = getScreen();
         if (gameMusic.isPlaying()) {
             gameMusic.stop();
         } else if (backgroundMusic.isPlaying()) {
@@ -184,9 +217,13 @@ public void showGameOverScreen() {
         gameOverMusic.play();
         gameOverMusic.setLooping(true);
         setScreen(new GameOverScreen(this));
+        commitScreenSwitch(event, previous);
     }
 
     public void showVictoryScreen() {
+        ScreenSwitchEvent event = new ScreenSwitchEvent();
+        event.begin();
+        Screen previous = getScreen();
         if (gameMusic.isPlaying()) {
             gameMusic.stop();
         } else if (backgroundMusic.isPlaying()) {
@@ -197,13 +234,16 @@ public void showVictoryScreen() {
         victoryMusic.play();
         victoryMusic.setLooping(true);
         setScreen(new VictoryScreen(this));
-
+        commitScreenSwitch(event, previous);
     }
 
     /**
      * Switches to the menu screen.
      */
     public void goToMenu() {
+        ScreenSwitchEvent event = new ScreenSwitchEvent();
+        event.begin();
+        Screen previous = getScreen();
         if (gameOverMusic.isPlaying()) {
             gameOverMusic.stop();
         } else if (gameMusic.isPlaying()) {
@@ -215,12 +255,16 @@ public void goToMenu() {
         backgroundMusic.setLooping(true);
         this.menuScreen = new MenuScreen(this);
         this.setScreen(menuScreen);// Set the current screen to MenuScreen
+        commitScreenSwitch(event, previous);
     }
 
     /**
      * Switches to the game screen.
      */
     public void goToGame() {
+        ScreenSwitchEvent event = new ScreenSwitchEvent();
+        event.begin();
+        Screen previous = getScreen();
         if (backgroundMusic.isPlaying()) {
             backgroundMusic.stop();
         } else if (gameOverMusic.isPlaying()) {
@@ -230,6 +274,9 @@ public void goToGame() {
         }
         gameMusic.play();
         gameMusic.setLooping(true);
+        if (gameScreen != null) {
+            gameScreen.dispose(); // Release the previous game's worker threads
+        }
         gameScreen = new GameScreen(this);
         this.setScreen(gameScreen); // Set the current screen to GameScreen
         Gdx.app.log("Debug", "gameScreen instantiated");
@@ -238,6 +285,7 @@ public void goToGame() {
             menuScreen.dispose(); // Dispose the menu screen if it exists
 
         }
+        commitScreenSwitch(event, previous);
     }
     /**
      * Switches back to the game screen. Resumes game where you left off.
@@ -303,7 +351,7 @@ public Animation<TextureRegion> getCharacterRightAnimation() {
      * Loads the character animations from the character.png file.
      */
     private void loadCharacterAnimations() {
-        Texture walkSheet = new Texture(Gdx.files.internal("character.salome-sheet.png"));
+        Texture walkSheet = loadTexture("character.salome-sheet.png");
 
         int frameWidth = 16;
         int frameHeight = 32;
@@ -319,7 +367,7 @@ private void loadCharacterAnimations() {
      * Loads the armed character animations from the character.png file.
      */
     private void loadCharacterArmedAnimations() {
-        Texture walkSheet = new Texture(Gdx.files.internal("characters.salome-sheet.png"));
+        Texture walkSheet = loadTexture("characters.salome-sheet.png");
         TextureRegion armedRegion = new TextureRegion(walkSheet,0,4,84,84);
 
 
@@ -338,7 +386,7 @@ private void loadCharacterArmedAnimations() {
      * Loads the enemy animations from the mobs.png file.
      */
     private void loadEnemyAnimations() {
-        Texture walkSheet = new Texture(Gdx.files.internal("mobs-sheet.salome.png"));//Enemy design by Salome Tsitskishvili
+        Texture walkSheet = loadTexture("mobs-sheet.salome.png");//Enemy design by Salome Tsitskishvili
 
         int frameWidth = 16;
         int frameHeight = 16;
@@ -354,10 +402,10 @@ private void loadEnemyAnimations() {
      * Loads and initializes textures for various game elements. This includes setting up texture regions for hearts and loading other sprites from asset files.
      */
     private void loadTextures() {
-        spriteBatch = new SpriteBatch(); // Create SpriteBatch
-        Texture spriteSheet = new Texture(Gdx.files.internal("objects.png")); // Adjust path and coordinates
-        Texture noKeytexture = new Texture(Gdx.files.internal("objects.png"));
-        Texture keytexture = new Texture(Gdx.files.internal("objects.png"));
+        spriteBatch = new ProfiledSpriteBatch(profiler); // Create SpriteBatch
+        Texture spriteSheet = loadTexture("objects.png"); // Adjust path and coordinates
+        Texture noKeytexture = loadTexture("objects.png");
+        Texture keytexture = loadTexture("objects.png");
         fullHeartTexture = new TextureRegion(spriteSheet, 64, 0, 16, 16);
         emptyHeartTexture = new TextureRegion(spriteSheet, 128, 0, 16, 16);
 
@@ -380,13 +428,77 @@ private Animation<TextureRegion> createAnimation(Texture sheet, int row, int fra
         }
         return new Animation<>(0.1f, frames);
     }
+
+    /**
+     * Loads a texture from the assets, recorded as an asset load by the flight recorder.
+     *
+     * @param path The internal path of the texture.
+     * @return The texture; the caller owns it.
+     */
+    private Texture loadTexture(String path) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        FileHandle file = Gdx.files.internal(path);
+        Texture texture = new Texture(file);
+        commitAssetLoad(event, file, "Texture");
+        return texture;
+    }
+
+    /**
+     * Loads a piece of music from the assets, recorded as an asset load by the flight recorder.
+     *
+     * @param path The internal path of the music file.
+     * @return The music; the caller owns it.
+     */
+    private Music loadMusic(String path) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        FileHandle file = Gdx.files.internal(path);
+        Music music = Gdx.audio.newMusic(file);
+        commitAssetLoad(event, file, "Music");
+        return music;
+    }
+
+    /**
+     * Loads the UI skin from the assets, recorded as an asset load by the flight recorder.
+     *
+     * @param path The internal path of the skin's JSON file; its atlas is loaded with it.
+     * @return The skin; the caller owns it.
+     */
+    private Skin loadSkin(String path) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        FileHandle file = Gdx.files.internal(path);
+        Skin loaded = new Skin(file);
+        commitAssetLoad(event, file, "Skin");
+        return loaded;
+    }
+
+    private static void commitAssetLoad(AssetLoadEvent event, FileHandle file, String type) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = file.path();
+            event.type = type;
+            event.size = file.length();
+            event.commit();
+        }
+    }
+
+    private void commitScreenSwitch(ScreenSwitchEvent event, Screen previous) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.from = previous == null ? "none" : previous.getClass().getSimpleName();
+            event.to = getScreen() == null ? "none" : getScreen().getClass().getSimpleName();
+            event.commit();
+        }
+    }
     /**
      * Loads the animation for the key not being possessed by the player.
      *
      * @return An Animation object for the no-key state.
      */
     protected Animation<TextureRegion> loadNoKeyAnimation() {
-        Texture noKeySheet = new Texture(Gdx.files.internal("objects.OwOt.png")); // Make sure this path is correct
+        Texture noKeySheet = loadTexture("objects.OwOt.png"); // Make sure this path is correct
 
         int frameWidth = 16; // Make sure these dimensions match your sprite sheet
         int frameHeight = 16;
@@ -411,7 +523,7 @@ protected Animation<TextureRegion> loadNoKeyAnimation() {
      * @return An Animation object for traps.
      */
     protected Animation<TextureRegion> loadTrapAnimation() {
-        Texture trapSheet = new Texture(Gdx.files.internal("objects.png")); // Adjust the file name as needed
+        Texture trapSheet = loadTexture("objects.png"); // Adjust the file name as needed
 
         int frameWidth = 16; // Adjust the frame width as per your sprite sheet
         int frameHeight = 16; // Adjust the frame height as per your sprite sheet
@@ -439,7 +551,7 @@ protected Animation<TextureRegion> loadTrapAnimation() {
      * @return An Animation object for the key possession state.
      */
     protected Animation<TextureRegion> loadKeyAnimation() {
-        Texture keySheet = new Texture(Gdx.files.internal("objects.OwOt.png"));
+        Texture keySheet = loadTexture("objects.OwOt.png");
 
         int frameWidth = 16;
         int frameHeight = 16;
@@ -468,7 +580,7 @@ protected Animation<TextureRegion> loadKeyAnimation() {
      */
 
     protected Animation<TextureRegion> loadEnemyDeathAnimation() {
-        Texture keySheet = new Texture(Gdx.files.internal("objects.OwOt.png"));
+        Texture keySheet = loadTexture("objects.OwOt.png");
 
         int frameWidth = 24;
         int frameHeight = 24;
@@ -496,7 +608,7 @@ protected Animation<TextureRegion> loadEnemyDeathAnimation() {
      */
 
     protected Animation<TextureRegion> loadLavaAnimation() {
-        Texture lavaSheet = new Texture(Gdx.files.internal("lava.png")); // Adjust the file name as needed
+        Texture lavaSheet = loadTexture("lava.png"); // Adjust the file name as needed
 
         int frameWidth = 16; // Adjust the frame width as per your sprite sheet
         int frameHeight = 16; // Adjust the frame height as per your sprite sheet
@@ -523,6 +635,7 @@ public void dispose() {
         getScreen().hide(); // Hide the current screen
         getScreen().dispose(); // Dispose the current screen
         spriteBatch.dispose(); // Dispose the spriteBatch
+        profiler.dispose();
         skin.dispose(); // Dispose the skin
         mazeElementsTexture.dispose(); // Dispose the texture
         // Dispose screens
@@ -549,6 +662,9 @@ public void dispose() {
         if (collectiblesTexture != null) {
             collectiblesTexture.dispose();
         }
+        if (tilePrototypes != null) {
+            tilePrototypes.dispose();
+        }
 
         // Dispose music
         if (backgroundMusic != null) {
@@ -564,6 +680,11 @@ public void dispose() {
             victoryMusic.dispose();
         }
 
+        // Write the last snapshot once the levels are done recording
+        if (metrics != null) {
+            gcPauseMonitor.dispose();
+            metricsExporter.dispose();
+        }
     }
 
     // Getters and setters
@@ -579,6 +700,17 @@ public SpriteBatch getSpriteBatch() {
         return spriteBatch;
     }
 
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * @return The metrics the levels record into, or null if the session records none.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     public static TextureRegion getWallTextureRegion() {
         return wallTextureRegion;
     }
@@ -743,4 +875,60 @@ public Animation<TextureRegion> getCharacterRightAnimationArmed() {
     public Maze getMaze() {
         return maze;
     }
+
+    public TilePrototypes getTilePrototypes() {
+        if (tilePrototypes == null) {
+            tilePrototypes = new TilePrototypes(this);
+        }
+        return tilePrototypes;
+    }
+
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Records the input of every level the game plays; each level replaces the recording of the one before.
+     *
+     * @param recordingFile The file to record to, or null to stop recording.
+     */
+    public void setRecordingFile(FileHandle recordingFile) {
+        this.recordingFile = recordingFile;
+    }
+
+    public FileHandle getRecordingFile() {
+        return recordingFile;
+    }
+
+    /**
+     * Replays a recording instead of reading the keyboard. The recording must have been made in the maze that is
+     * played.
+     *
+     * @param replay The recording, or null to play with the keyboard.
+     */
+    public void setReplay(InputLog replay) {
+        this.replay = replay;
+    }
+
+    public InputLog getReplay() {
+        return replay;
+    }
+
+    /**
+     * Records the session's metrics and exports a snapshot of them every second: the tick time, pathfinding
+     * latency, enemies per state, collision queries per tick and garbage collection pauses. Must be set before
+     * the game starts.
+     *
+     * @param metricsFile The file to export to, CSV if it ends in {@code .csv} and JSON lines otherwise, or null.
+     */
+    public void setMetricsFile(FileHandle metricsFile) {
+        this.metricsFile = metricsFile;
+    }
+
+    /**
+     * @param startMap The map to load right after start-up instead of waiting in the menu, or null.
+     */
+    public void setStartMap(FileHandle startMap) {
+        this.startMap = startMap;
+    }
 }
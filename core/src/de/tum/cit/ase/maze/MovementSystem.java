@@ -0,0 +1,32 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+/**
+ * Copies the position of every moving entity (the player and the enemies) from the element that moves it
+ * into its {@link PositionComponent}, so the systems after it read positions from components only.
+ * Static entities are not part of the family and cost nothing here.
+ */
+public class MovementSystem extends IteratingSystem {
+    private final ComponentMapper<PositionComponent> positions = ComponentMapper.getFor(PositionComponent.class);
+    private final ComponentMapper<ElementComponent> elements = ComponentMapper.getFor(ElementComponent.class);
+
+    /**
+     * @param priority The order of the system in the engine; lower runs first.
+     */
+    public MovementSystem(int priority) {
+        super(Family.all(PositionComponent.class, ElementComponent.class)
+                .one(PlayerComponent.class, EnemyComponent.class).get(), priority);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        MazeElement element = elements.get(entity).element;
+        PositionComponent position = positions.get(entity);
+        position.x = element.getX();
+        position.y = element.getY();
+    }
+}
@@ -0,0 +1,32 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * Number formatting shared by the debug overlays. The values are appended as integer parts, so that rebuilding the
+ * overlay text every frame does not allocate the way {@link String#format} does.
+ */
+final class OverlayText {
+    private OverlayText() {
+    }
+
+    /**
+     * Appends a duration with two decimals, e.g. "1.05".
+     */
+    static void appendMillis(StringBuilder text, float millis) {
+        int hundredths = Math.round(millis * 100);
+        text.append(hundredths / 100).append('.');
+        if (hundredths % 100 < 10) {
+            text.append('0');
+        }
+        text.append(hundredths % 100);
+    }
+
+    /**
+     * Appends a value with one decimal, e.g. "2.5".
+     */
+    static void appendTenths(StringBuilder text, float value) {
+        int tenths = Math.round(value * 10);
+        text.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
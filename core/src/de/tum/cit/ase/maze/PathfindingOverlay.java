@@ -0,0 +1,217 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Draws what the enemies' pathfinding does over the world: the tiles the last search explored, the path every
+ * enemy is following, and a table of the level's {@link PathfindingStats} with the enemies that replan most.
+ * Helps to tune the pathfinding budgets and heuristics on real maps.
+ * <p>
+ * While enabled, the pathfinding service keeps the explored tiles of every search, which costs the workers a pass
+ * over the node grid per search. The overlay's shapes, batch and font are created when it is first drawn.
+ */
+public class PathfindingOverlay implements Disposable {
+    private static final int TILE_SIZE = 16;
+    private static final float REFRESH_INTERVAL = 1; // Seconds between two updates of the replan rates and the text
+    private static final int TOP_REPLANNERS = 5; // Enemies listed with their replan rate
+    private static final float MARGIN = 10; // Pixels between the table and the edge of the screen
+    private static final float TABLE_WIDTH = 330; // Pixels
+    private static final Color EXPLORED_COLOR = new Color(0.2f, 0.6f, 1, 0.25f);
+    private static final Color PATH_COLOR = new Color(1, 0.3f, 0.2f, 1);
+
+    private final EnemySystem enemies;
+    private final PathfindingService pathfindingService;
+    private final PathfindingStats stats;
+    private final int mazeHeight; // Tiles, to turn cell indices into coordinates
+    private boolean enabled;
+
+    private final IntArray explored = new IntArray();
+    private int[] lastReplans = new int[0]; // Replan counts of every enemy at the last refresh
+    private float[] replanRates = new float[0]; // Replans per second of every enemy over the last interval
+    private float sinceRefresh = REFRESH_INTERVAL; // Refresh on the first frame
+
+    // Drawing
+    private ShapeRenderer shapes;
+    private SpriteBatch batch;
+    private BitmapFont font;
+    private final Matrix4 screenProjection = new Matrix4();
+    private final com.badlogic.gdx.utils.StringBuilder text = new com.badlogic.gdx.utils.StringBuilder();
+
+    /**
+     * @param enemies The enemies whose paths are drawn.
+     * @param pathfindingService The service that searches in BACKGROUND mode.
+     * @param stats The statistics the enemies and the service record into.
+     * @param mazeHeight The height of the maze in tiles.
+     */
+    public PathfindingOverlay(EnemySystem enemies, PathfindingService pathfindingService, PathfindingStats stats,
+                              int mazeHeight) {
+        this.enemies = enemies;
+        this.pathfindingService = pathfindingService;
+        this.stats = stats;
+        this.mazeHeight = mazeHeight;
+    }
+
+    /**
+     * Turns the overlay on or off.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        pathfindingService.setExploredCaptured(enabled);
+        sinceRefresh = REFRESH_INTERVAL;
+    }
+
+    /**
+     * Turns the overlay on if it is off and off if it is on.
+     */
+    public void toggle() {
+        setEnabled(!enabled);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Draws the overlay: the explored tiles and the paths in the world, the table in the top right corner of the
+     * screen. Must be called outside of any batch.
+     *
+     * @param worldProjection The projection of the camera the world is drawn with.
+     * @param delta The time since the last frame, in seconds.
+     */
+    public void draw(Matrix4 worldProjection, float delta) {
+        if (!enabled) {
+            return;
+        }
+        if (shapes == null) {
+            shapes = new ShapeRenderer();
+            batch = new SpriteBatch();
+            font = new BitmapFont();
+        }
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_INTERVAL) {
+            updateReplanRates(sinceRefresh);
+            updateText();
+            sinceRefresh = 0;
+        }
+
+        Gdx.gl.glEnable(GL20.GL_BLEND); // For the translucent tiles
+        shapes.setProjectionMatrix(worldProjection);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(EXPLORED_COLOR);
+        explored.clear();
+        enemies.copyExploredCells(explored);
+        for (int k = 0; k < explored.size; k++) {
+            int cell = explored.get(k);
+            shapes.rect(cell / mazeHeight * TILE_SIZE, cell % mazeHeight * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+        }
+        shapes.end();
+
+        shapes.begin(ShapeRenderer.ShapeType.Line);
+        shapes.setColor(PATH_COLOR);
+        float half = TILE_SIZE / 2f;
+        for (int i = 0; i < enemies.getCount(); i++) {
+            if (enemies.isDead(i) || enemies.getPathIndex(i) >= enemies.getPathLength(i)) {
+                continue;
+            }
+            float fromX = enemies.getX(i) + half, fromY = enemies.getY(i) + half;
+            for (int k = enemies.getPathIndex(i); k < enemies.getPathLength(i); k++) {
+                int cell = enemies.getPathCell(i, k);
+                float toX = cell / mazeHeight * TILE_SIZE + half, toY = cell % mazeHeight * TILE_SIZE + half;
+                shapes.line(fromX, fromY, toX, toY);
+                fromX = toX;
+                fromY = toY;
+            }
+        }
+        shapes.end();
+
+        screenProjection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.setProjectionMatrix(screenProjection);
+        batch.begin();
+        font.draw(batch, text, Gdx.graphics.getWidth() - TABLE_WIDTH - MARGIN, Gdx.graphics.getHeight() - MARGIN);
+        batch.end();
+    }
+
+    /**
+     * Computes every enemy's replans per second since the last refresh.
+     */
+    private void updateReplanRates(float seconds) {
+        int count = enemies.getCount();
+        if (lastReplans.length < count) { // Enemies spawned since; they start from their current count
+            int[] grown = new int[count];
+            System.arraycopy(lastReplans, 0, grown, 0, lastReplans.length);
+            for (int i = lastReplans.length; i < count; i++) {
+                grown[i] = enemies.getReplanCount(i);
+            }
+            lastReplans = grown;
+            replanRates = new float[count];
+        }
+        for (int i = 0; i < count; i++) {
+            int replans = enemies.getReplanCount(i);
+            replanRates[i] = (replans - lastReplans[i]) / seconds;
+            lastReplans[i] = replans;
+        }
+    }
+
+    /**
+     * Rebuilds the table; only done once per refresh, so it costs little garbage.
+     */
+    private void updateText() {
+        text.setLength(0);
+        text.append("Pathfinding (F4)\n");
+        text.append("Queries ").append(stats.getQueries()).append("  failed ").append(stats.getFailed())
+                .append("  replans ").append(stats.getReplans()).append('\n');
+        text.append("Nodes expanded: mean ").append(Math.round(stats.getMeanNodesExpanded()))
+                .append("  max ").append(stats.getMaxNodesExpanded()).append('\n');
+        text.append("Open set peak: mean ").append(Math.round(stats.getMeanOpenPeak()))
+                .append("  max ").append(stats.getMaxOpenPeak()).append('\n');
+        text.append("Path length: mean ").append(Math.round(stats.getMeanPathLength())).append(" tiles\n");
+        text.append("Search time: mean ");
+        OverlayText.appendMillis(text, stats.getMeanMillis());
+        text.append("  max ");
+        OverlayText.appendMillis(text, stats.getMaxMillis());
+        text.append(" ms\n");
+        text.append("Replans/s:");
+        int listed = 0;
+        float below = Float.MAX_VALUE; // Rate of the last listed enemy; the next one is the highest below it
+        int lastListed = Integer.MAX_VALUE;
+        while (listed < TOP_REPLANNERS) {
+            int best = -1;
+            for (int i = 0; i < enemies.getCount() && i < replanRates.length; i++) {
+                float rate = replanRates[i];
+                boolean afterLast = rate < below || rate == below && i > lastListed;
+                if (rate > 0 && afterLast && (best < 0 || rate > replanRates[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            text.append("  #").append(best).append(' ');
+            OverlayText.appendTenths(text, replanRates[best]);
+            below = replanRates[best];
+            lastListed = best;
+            listed++;
+        }
+        if (listed == 0) {
+            text.append(" none");
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (shapes != null) {
+            shapes.dispose();
+            batch.dispose();
+            font.dispose();
+            shapes = null;
+        }
+    }
+}
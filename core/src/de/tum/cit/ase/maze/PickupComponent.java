@@ -0,0 +1,15 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Something the player picks up by walking over it. A collectible applies its effect and disappears; a key
+ * disappears once the player holds it, since the key itself is taken from the maze tile.
+ */
+public class PickupComponent implements Component {
+    public final Collectible collectible; // null for the key
+
+    public PickupComponent(Collectible collectible) {
+        this.collectible = collectible;
+    }
+}
@@ -0,0 +1,52 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+
+/**
+ * Lets the player pick up the collectibles it walks over and removes picked up entities from the engine.
+ * Picked up collectibles go back to their pool.
+ */
+public class PickupSystem extends IteratingSystem {
+    private final ComponentMapper<PickupComponent> pickups = ComponentMapper.getFor(PickupComponent.class);
+    private final ComponentMapper<ElementComponent> elements = ComponentMapper.getFor(ElementComponent.class);
+    private final Character player;
+    private final CollectiblePool collectiblePool;
+    private final FrameProfiler profiler;
+
+    /**
+     * @param player The character that picks things up.
+     * @param collectiblePool The pool the collectibles came from.
+     * @param profiler The profiler to report the time of the pickups to, as collectible updates.
+     * @param priority The order of the system in the engine; lower runs first.
+     */
+    public PickupSystem(Character player, CollectiblePool collectiblePool, FrameProfiler profiler, int priority) {
+        super(Family.all(PickupComponent.class, ElementComponent.class).get(), priority);
+        this.player = player;
+        this.collectiblePool = collectiblePool;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        profiler.begin(FrameProfiler.Section.COLLECTIBLES);
+        super.update(deltaTime);
+        profiler.end(FrameProfiler.Section.COLLECTIBLES);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        Collectible collectible = pickups.get(entity).collectible;
+        if (collectible == null) {
+            if (player.hasKey()) {
+                getEngine().removeEntity(entity); // The engine removes it after this update
+            }
+        } else if (player.getBounds().overlaps(elements.get(entity).element.getBounds())) {
+            collectible.collect();
+            getEngine().removeEntity(entity);
+            collectiblePool.free(entity); // Only obtained again after the engine has removed it, at the end of this update
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * The player-controlled character.
+ */
+public class PlayerComponent implements Component {
+    public final Character character;
+
+    public PlayerComponent(Character character) {
+        this.character = character;
+    }
+}
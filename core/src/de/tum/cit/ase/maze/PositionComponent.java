@@ -0,0 +1,16 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * The position of an entity in pixels, bottom left corner.
+ */
+public class PositionComponent implements Component {
+    public float x;
+    public float y;
+
+    public PositionComponent(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+}
@@ -0,0 +1,30 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * A sprite batch that reports the time of its flushes to a {@link FrameProfiler}, as
+ * {@link FrameProfiler.Section#BATCH_FLUSH}. A flush is where the batch hands its vertices to GL, at its end and
+ * whenever the texture changes or the buffer is full.
+ */
+public class ProfiledSpriteBatch extends SpriteBatch {
+    private final FrameProfiler profiler;
+
+    /**
+     * @param profiler The profiler to report to; nothing is measured while it is disabled.
+     */
+    public ProfiledSpriteBatch(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void flush() {
+        if (!profiler.isEnabled()) {
+            super.flush();
+            return;
+        }
+        profiler.begin(FrameProfiler.Section.BATCH_FLUSH);
+        super.flush();
+        profiler.end(FrameProfiler.Section.BATCH_FLUSH);
+    }
+}
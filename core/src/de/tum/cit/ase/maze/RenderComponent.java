@@ -0,0 +1,19 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Marks an entity as drawn by the {@link RenderSystem}. Entities on a higher layer are drawn on top.
+ */
+public class RenderComponent implements Component {
+    public static final int LAYER_TILE = 0; // Traps, lava, keys, chests
+    public static final int LAYER_ENEMY = 1;
+    public static final int LAYER_COLLECTIBLE = 2;
+    public static final int LAYER_PLAYER = 3;
+
+    public final int layer;
+
+    public RenderComponent(int layer) {
+        this.layer = layer;
+    }
+}
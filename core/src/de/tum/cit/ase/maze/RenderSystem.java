@@ -0,0 +1,53 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.SortedIteratingSystem;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Draws the elements of all entities by layer, skipping the ones outside the camera's view.
+ * The system does not run in {@code Engine.update}: the game screen calls {@link #update(float)} itself
+ * while the sprite batch is drawing, after the floor and the static tiles.
+ */
+public class RenderSystem extends SortedIteratingSystem {
+    private static final float MARGIN = 32; // Pixels around the view; the player is drawn taller than its tile
+    private final ComponentMapper<ElementComponent> elements = ComponentMapper.getFor(ElementComponent.class);
+    private final ComponentMapper<PositionComponent> positions = ComponentMapper.getFor(PositionComponent.class);
+    private final SpriteBatch batch;
+    private final OrthographicCamera camera;
+    private float left, right, bottom, top; // Visible area of the current frame
+
+    /**
+     * @param batch The batch to draw with; must be drawing when the system is updated.
+     * @param camera The camera whose view is drawn.
+     */
+    public RenderSystem(SpriteBatch batch, OrthographicCamera camera) {
+        super(Family.all(RenderComponent.class, ElementComponent.class, PositionComponent.class).get(),
+                (a, b) -> Integer.compare(a.getComponent(RenderComponent.class).layer, b.getComponent(RenderComponent.class).layer));
+        this.batch = batch;
+        this.camera = camera;
+        setProcessing(false);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2 + MARGIN;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2 + MARGIN;
+        left = camera.position.x - halfWidth;
+        right = camera.position.x + halfWidth;
+        bottom = camera.position.y - halfHeight;
+        top = camera.position.y + halfHeight;
+        super.update(deltaTime);
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = positions.get(entity);
+        if (position.x >= left && position.x <= right && position.y >= bottom && position.y <= top) {
+            elements.get(entity).element.draw(batch);
+        }
+    }
+}
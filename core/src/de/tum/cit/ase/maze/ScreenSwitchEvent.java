@@ -0,0 +1,24 @@
+package de.tum.cit.ase.maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a switch between the screens of {@link MazeRunnerGame}. It lasts from the request to
+ * the new screen being shown, so it includes building the screen, and for the game screen the level.
+ */
+@Name("de.tum.cit.ase.maze.ScreenSwitch")
+@Label("Screen Switch")
+@Category({"Maze Runner", "Screens"})
+@Description("The game switched to another screen")
+class ScreenSwitchEvent extends Event {
+    @Label("From")
+    @Description("Screen shown before, or \"none\"")
+    String from;
+
+    @Label("To")
+    String to;
+}
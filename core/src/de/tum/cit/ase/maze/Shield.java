@@ -30,7 +30,7 @@ public Shield(TextureRegion texture, float x, float y, HUD hud, Character player
     @Override
     protected void applyEffect() {
 
-        player.extendInvulnerability(20.0f);
+        player.getState().shield();
         hud.showMessage("You are invincible!");
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * The shared look of every tile type: the regions and animations all elements of a type draw with. They are
+ * created once per game and reused by every level and restart, instead of once per tile. Animations hold no
+ * state of their own, so all traps, keys, lava tiles and enemies can play the same one.
+ */
+public class TilePrototypes implements Disposable {
+    public final TextureRegion wall;
+    public final TextureRegion entryPoint;
+    public final TextureRegion exit;
+    public final TextureRegion enemy;
+    public final TextureRegion closedChest;
+    public final TextureRegion openChest;
+    public final Animation<TextureRegion> trap;
+    public final Animation<TextureRegion> key;
+    public final Animation<TextureRegion> lava;
+    public final Animation<TextureRegion>[] enemyWalk; // Down, left, right, up
+    public final Animation<TextureRegion> enemyDeath;
+    private final Array<Texture> ownedTextures = new Array<>(); // Loaded for the prototypes, disposed with them
+
+    /**
+     * Loads the prototypes from the game's textures. Needs a GL context.
+     *
+     * @param game The game whose textures and animation loaders to use.
+     */
+    public TilePrototypes(MazeRunnerGame game) {
+        wall = MazeRunnerGame.getWallTextureRegion();
+        entryPoint = MazeRunnerGame.getEntryPointTextureRegion();
+        exit = MazeRunnerGame.getExitTextureRegion();
+        enemy = MazeRunnerGame.getEnemyTextureRegion();
+        closedChest = MazeRunnerGame.getClosedChestTextureRegion();
+        openChest = MazeRunnerGame.getOpenChestTextureRegion();
+        trap = own(game.loadTrapAnimation());
+        key = own(game.loadKeyAnimation());
+        lava = own(game.loadLavaAnimation());
+        enemyDeath = own(game.loadEnemyDeathAnimation());
+        enemyWalk = WalkAnimations.of(
+                game.getEnemyDownAnimation(),
+                game.getEnemyLeftAnimation(),
+                game.getEnemyRightAnimation(),
+                game.getEnemyUpAnimation());
+    }
+
+    /**
+     * Gives every tile type the same region and animation, for building levels without textures.
+     */
+    public TilePrototypes(TextureRegion region, Animation<TextureRegion> animation) {
+        wall = entryPoint = exit = enemy = closedChest = openChest = region;
+        trap = key = lava = enemyDeath = animation;
+        enemyWalk = WalkAnimations.of(animation);
+    }
+
+    /**
+     * Remembers the texture a loader created for an animation, so it is disposed with the prototypes.
+     */
+    private Animation<TextureRegion> own(Animation<TextureRegion> animation) {
+        Texture texture = animation.getKeyFrame(0).getTexture();
+        if (texture != null && !ownedTextures.contains(texture, true)) {
+            ownedTextures.add(texture);
+        }
+        return animation;
+    }
+
+    @Override
+    public void dispose() {
+        for (Texture texture : ownedTextures) {
+            texture.dispose();
+        }
+        ownedTextures.clear();
+    }
+}
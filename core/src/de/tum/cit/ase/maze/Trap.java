@@ -33,4 +33,8 @@ public void update(float delta) {
         stateTime += delta; // Update the stateTime
         setTexture(animation.getKeyFrame(stateTime, true));
     }
-}
\ No newline at end of file
+
+    public Animation<TextureRegion> getAnimation() {
+        return animation;
+    }
+}
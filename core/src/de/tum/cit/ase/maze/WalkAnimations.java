@@ -0,0 +1,45 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Builds the walk animations of the player and the enemies, which are indexed by the ordinal of the
+ * {@link Direction} they face. Java cannot create generic arrays, so the one unchecked array creation lives here.
+ */
+public final class WalkAnimations {
+    private WalkAnimations() {
+    }
+
+    /**
+     * @return The four animations, indexed by {@link Direction} ordinal.
+     */
+    public static Animation<TextureRegion>[] of(Animation<TextureRegion> down, Animation<TextureRegion> left,
+                                                Animation<TextureRegion> right, Animation<TextureRegion> up) {
+        Animation<TextureRegion>[] animations = create(Direction.values().length);
+        animations[Direction.DOWN.ordinal()] = down;
+        animations[Direction.LEFT.ordinal()] = left;
+        animations[Direction.RIGHT.ordinal()] = right;
+        animations[Direction.UP.ordinal()] = up;
+        return animations;
+    }
+
+    /**
+     * @return The same animation for every direction, e.g. for levels built without textures.
+     */
+    public static Animation<TextureRegion>[] of(Animation<TextureRegion> animation) {
+        return of(animation, animation, animation, animation);
+    }
+
+    /**
+     * @return No animations, for elements that are never drawn.
+     */
+    public static Animation<TextureRegion>[] none() {
+        return create(0);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Generic arrays cannot be created directly
+    private static Animation<TextureRegion>[] create(int length) {
+        return new Animation[length];
+    }
+}
@@ -3,6 +3,7 @@
 import com.badlogic.gdx.Graphics;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
 import games.spooky.gdx.nativefilechooser.desktop.DesktopFileChooser;
 
 /**
@@ -12,10 +13,29 @@
 public class DesktopLauncher {
 	/**
 	 * The main method sets up the configuration for the game window and starts the application.
+	 * <p>
+	 * Options: {@code --record <file>} records the input of the levels played to the file. {@code --replay <file>
+	 * --map <file>} plays the map with the recorded input and quits when the recording ends, reporting whether the
+	 * level ended in the recorded state; with {@code --fast} the replay runs as fast as the machine can draw
+	 * instead of at the recorded frame rate. {@code --metrics <file>} writes the game's metrics to the file every
+	 * second, as CSV if its name ends in {@code .csv} and as JSON lines otherwise.
 	 *
-	 * @param arg Command line arguments (not used in this application)
+	 * @param arg Command line arguments, see above
 	 */
 	public static void main(String[] arg) {
+		MazeRunnerGame game = new MazeRunnerGame(new DesktopFileChooser());
+		boolean fast = false;
+		for (int i = 0; i < arg.length; i++) {
+			switch (arg[i]) {
+				case "--record" -> game.setRecordingFile(new FileHandle(arg[++i]));
+				case "--replay" -> game.setReplay(InputLog.load(new FileHandle(arg[++i])));
+				case "--map" -> game.setStartMap(new FileHandle(arg[++i]));
+				case "--metrics" -> game.setMetricsFile(new FileHandle(arg[++i]));
+				case "--fast" -> fast = true;
+				default -> throw new IllegalArgumentException("Unknown argument " + arg[i]);
+			}
+		}
+
 		// Configuration for the game window
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		config.setTitle("Maze Runner"); // Set the window title
@@ -27,10 +47,10 @@ public static void main(String[] arg) {
 				Math.round(0.8f * displayMode.width),
 				Math.round(0.8f * displayMode.height)
 		);
-		config.useVsync(true); // Enable vertical sync
-		config.setForegroundFPS(60); // Set the foreground frames per second
+		config.useVsync(!fast); // Enable vertical sync
+		config.setForegroundFPS(fast ? 0 : 60); // Set the foreground frames per second, uncapped for fast replays
 
 		// Launch the game
-		new Lwjgl3Application(new MazeRunnerGame(new DesktopFileChooser()), config);
+		new Lwjgl3Application(game, config);
 	}
 }
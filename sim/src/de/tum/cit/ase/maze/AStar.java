@@ -0,0 +1,518 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+/**
+ * Implements the A* search algorithm for finding the shortest path between two points on a grid.
+ * A search can either run to completion with {@link #findPath(float, float, float, float)} or be
+ * time-sliced: started with {@link #beginSearch(float, float, float, float)} and advanced a limited
+ * number of node expansions per frame with {@link #continueSearch(int)}. The open and closed sets are
+ * kept between calls, so a sliced search produces exactly the same path as a full one.
+ * A path can be read as a list of nodes or, without creating garbage, as cell indices in a reused array.
+ * Every search counts its expanded nodes, the peak size of its open set and the time spent in it, for statistics.
+ */
+
+public class AStar {
+    /**
+     * The state of the current search.
+     */
+    public enum SearchStatus {
+        IDLE,        // No search has been started yet.
+        IN_PROGRESS, // The search has open nodes left and can be continued.
+        FOUND,       // The end node was reached; the path is available.
+        NOT_FOUND    // The open set ran empty without reaching the end node.
+    }
+
+    /**
+     * An admissible estimate of the cost between two tiles, used to order the open set.
+     */
+    public interface Heuristic {
+        /**
+         * @return A lower bound on the cost of moving from the first tile to the second, {@link Grid#STEP_COST} per step.
+         */
+        float estimate(int fromX, int fromY, int toX, int toY);
+    }
+
+    private Node[][] grid;
+    private Heuristic heuristic; // null means Manhattan distance
+    private WalkableComponents components; // Rejects goals in another region up front, null to always search
+    private Node[] openHeap; // Binary min-heap ordered by fCost, then hCost
+    private int openSize;
+    private int searchId; // Stamp that tells which nodes belong to the current search
+    private Node startNode;
+    private Node endNode;
+    private Node bestNode; // Closed node closest to the end node, used for partial paths
+    private SearchStatus status = SearchStatus.IDLE;
+    private int nodesExpanded;
+    private int openPeak; // Largest size of the open set in the current search
+    private long searchNanos; // Time spent in continueSearch for the current search
+    private final IntArray pathCells = new IntArray(); // Reused by getPathCells and getPartialPathCells
+
+    /**
+     * Initializes a new instance of the AStar class with a specified grid.
+     *
+     * @param grid The grid of nodes representing the search area.
+     */
+
+    public AStar(Node[][] grid) {
+        this.grid = grid;
+        this.openHeap = new Node[16];
+    }
+
+    /**
+     * Replaces the Manhattan distance estimate, e.g. with a {@link Landmarks} heuristic.
+     * Takes effect with the next search.
+     *
+     * @param heuristic The heuristic to use, or null for Manhattan distance.
+     */
+    public void setHeuristic(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Lets searches between tiles in different connected regions fail immediately instead of expanding
+     * the whole region of the start tile. The components must describe the same layout as the grid.
+     *
+     * @param components The connected regions of the walkable tiles, or null to always search.
+     */
+    public void setComponents(WalkableComponents components) {
+        this.components = components;
+    }
+
+    /**
+     * Finds the shortest path from a start point to an end point within the grid.
+     *
+     * @param startX The x-coordinate of the start point.
+     * @param startY The y-coordinate of the start point.
+     * @param endX The x-coordinate of the end point.
+     * @param endY The y-coordinate of the end point.
+     * @return A list of nodes representing the path from the start node to the end node, or an empty list if no path is found.
+     */
+
+    public List<Node> findPath(float startX, float startY, float endX, float endY) {
+        beginSearch(startX, startY, endX, endY);
+        continueSearch(Integer.MAX_VALUE);
+        return getPath();
+    }
+
+    /**
+     * Starts a new search and discards any search that is still in progress.
+     * No nodes are expanded until {@link #continueSearch(int)} is called.
+     *
+     * @param startX The x-coordinate of the start point.
+     * @param startY The y-coordinate of the start point.
+     * @param endX The x-coordinate of the end point.
+     * @param endY The y-coordinate of the end point.
+     */
+    public void beginSearch(float startX, float startY, float endX, float endY) {
+        searchId++;
+        openSize = 0;
+        nodesExpanded = 0;
+        openPeak = 0;
+        searchNanos = 0;
+        startNode = getNode((int) startX, (int) startY);
+        endNode = getNode((int) endX, (int) endY);
+        bestNode = null;
+
+        if (startNode == null || endNode == null
+                || components != null && !components.canReach(startNode.x, startNode.y, endNode.x, endNode.y)) {
+            status = SearchStatus.NOT_FOUND;
+            return;
+        }
+
+        touch(startNode);
+        startNode.gCost = 0;
+        startNode.hCost = estimate(startNode, endNode);
+        startNode.parent = null;
+        pushOpen(startNode);
+        status = SearchStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Abandons the current search, e.g. because its goal is no longer relevant.
+     */
+    public void cancelSearch() {
+        status = SearchStatus.IDLE;
+        openSize = 0;
+        bestNode = null;
+    }
+
+    /**
+     * Expands at most the given number of nodes of the current search.
+     *
+     * @param maxExpansions The maximum number of nodes to move from the open to the closed set in this call.
+     * @return The status of the search after this call.
+     */
+    public SearchStatus continueSearch(int maxExpansions) {
+        long started = System.nanoTime();
+        if (PathfindingQueryEvent.isRecorded()) {
+            expandRecorded(maxExpansions);
+        } else {
+            expand(maxExpansions);
+        }
+        searchNanos += System.nanoTime() - started;
+        return status;
+    }
+
+    /**
+     * Expands like {@link #expand(int)} and records the slice with the flight recorder.
+     */
+    private void expandRecorded(int maxExpansions) {
+        PathfindingQueryEvent event = new PathfindingQueryEvent();
+        event.begin();
+        expand(maxExpansions);
+        event.end();
+        if (event.shouldCommit() && startNode != null && endNode != null) {
+            event.engine = PathfindingQueryEvent.A_STAR;
+            event.startX = startNode.x;
+            event.startY = startNode.y;
+            event.goalX = endNode.x;
+            event.goalY = endNode.y;
+            event.nodesExpanded = nodesExpanded;
+            event.openPeak = openPeak;
+            event.pathLength = status == SearchStatus.FOUND ? getPathCells().size : 0;
+            event.finished = status != SearchStatus.IN_PROGRESS;
+            event.commit();
+        }
+    }
+
+    private SearchStatus expand(int maxExpansions) {
+        int expanded = 0;
+        while (status == SearchStatus.IN_PROGRESS && expanded < maxExpansions) {
+            if (openSize == 0) {
+                status = SearchStatus.NOT_FOUND;
+                break;
+            }
+
+            Node currentNode = popOpen();
+            currentNode.closed = true;
+            expanded++;
+            nodesExpanded++;
+
+            if (bestNode == null || currentNode.hCost < bestNode.hCost
+                    || currentNode.hCost == bestNode.hCost && currentNode.gCost < bestNode.gCost) {
+                bestNode = currentNode;
+            }
+
+            if (currentNode == endNode) {
+                status = SearchStatus.FOUND;
+                break;
+            }
+
+            expandNeighbors(currentNode);
+        }
+        return status;
+    }
+
+    /**
+     * Returns the path of a finished search.
+     *
+     * @return The path from the start node to the end node, or an empty list if the search has not found one (yet).
+     */
+    public List<Node> getPath() {
+        if (status != SearchStatus.FOUND) {
+            return new ArrayList<>();
+        }
+        return retracePath(startNode, endNode);
+    }
+
+    /**
+     * Returns the best path known so far: the path to the expanded node that is closest to the end node.
+     * While a search is in progress this lets the caller start moving in a sensible direction.
+     *
+     * @return The best-so-far path, or an empty list if nothing but the start node has been expanded.
+     */
+    public List<Node> getPartialPath() {
+        if (status == SearchStatus.FOUND) {
+            return getPath();
+        }
+        if (bestNode == null) {
+            return new ArrayList<>();
+        }
+        return retracePath(startNode, bestNode);
+    }
+
+    /**
+     * Returns the path of a finished search as cell indices ({@code x * height + y}). The array is reused by the
+     * next call, so the caller has to copy what it keeps.
+     *
+     * @return The path from the start tile (exclusive) to the end tile, empty if the search has not found one (yet).
+     */
+    public IntArray getPathCells() {
+        pathCells.clear();
+        if (status == SearchStatus.FOUND) {
+            retraceCells(endNode);
+        }
+        return pathCells;
+    }
+
+    /**
+     * Returns the best path known so far as cell indices, like {@link #getPartialPath()}. The array is reused
+     * by the next call.
+     *
+     * @return The best-so-far path, empty if nothing but the start node has been expanded.
+     */
+    public IntArray getPartialPathCells() {
+        if (status == SearchStatus.FOUND) {
+            return getPathCells();
+        }
+        pathCells.clear();
+        if (bestNode != null) {
+            retraceCells(bestNode);
+        }
+        return pathCells;
+    }
+
+    /**
+     * @return The status of the current search.
+     */
+    public SearchStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if a search has been started and can still be continued.
+     */
+    public boolean isSearching() {
+        return status == SearchStatus.IN_PROGRESS;
+    }
+
+    /**
+     * @return The number of nodes expanded by the current search so far.
+     */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * @return The largest number of nodes the open set of the current search has held so far.
+     */
+    public int getOpenPeak() {
+        return openPeak;
+    }
+
+    /**
+     * @return The time spent in {@link #continueSearch(int)} for the current search, in nanoseconds.
+     */
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    /**
+     * Adds the tiles the current search has expanded, as cell indices ({@code x * height + y}). Looks at every
+     * node of the grid, so it is meant for debug views, not for every frame of a game.
+     *
+     * @param cells The array to add to.
+     */
+    public void copyExploredCells(IntArray cells) {
+        int height = grid[0].length;
+        for (Node[] column : grid) {
+            for (Node node : column) {
+                if (node.searchId == searchId && node.closed) {
+                    cells.add(node.x * height + node.y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves every walkable, not yet closed neighbor of a node into the open set or lowers its cost.
+     *
+     * @param currentNode The node being expanded.
+     */
+    private void expandNeighbors(Node currentNode) {
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            Node neighbor = getNode(currentNode.x + Grid.NEIGHBOR_OFFSETS[i], currentNode.y + Grid.NEIGHBOR_OFFSETS[i + 1]);
+            if (neighbor == null || !neighbor.walkable) {
+                continue;
+            }
+            boolean fresh = neighbor.searchId != searchId;
+            if (fresh) {
+                touch(neighbor);
+            } else if (neighbor.closed) {
+                continue;
+            }
+
+            float newMovementCostToNeighbor = currentNode.gCost + getDistance(currentNode, neighbor);
+            if (fresh || newMovementCostToNeighbor < neighbor.gCost) {
+                neighbor.gCost = newMovementCostToNeighbor;
+                neighbor.hCost = estimate(neighbor, endNode);
+                neighbor.parent = currentNode;
+
+                if (neighbor.heapIndex < 0) {
+                    pushOpen(neighbor);
+                } else {
+                    siftUp(neighbor.heapIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retraces the path from the end node to the start node.
+     *
+     * @param startNode The start node.
+     * @param endNode The end node.
+     * @return A list of nodes representing the path from the start node to the end node.
+     */
+    private List<Node> retracePath(Node startNode, Node endNode) {
+        List<Node> path = new ArrayList<>();
+        Node currentNode = endNode;
+
+        while (currentNode != null && currentNode != startNode) {
+            path.add(currentNode);
+            currentNode = currentNode.parent;
+        }
+
+        if (currentNode == null) {
+            return new ArrayList<>(); // Return empty path if no path is found
+        }
+
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Fills the cell buffer with the path from the start node (exclusive) to the given node.
+     */
+    private void retraceCells(Node node) {
+        int height = grid[0].length;
+        while (node != null && node != startNode) {
+            pathCells.add(node.x * height + node.y);
+            node = node.parent;
+        }
+        if (node == null) {
+            pathCells.clear();
+            return;
+        }
+        pathCells.reverse();
+    }
+
+
+    /**
+     * Gets the node at the given grid coordinates.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The node, or null if the coordinates are outside the grid.
+     */
+    private Node getNode(int x, int y) {
+        if (x < 0 || x >= grid.length || y < 0 || y >= grid[0].length) {
+            return null;
+        }
+        return grid[x][y];
+    }
+
+    /**
+     * Resets the per-search fields of a node the first time the current search reaches it.
+     *
+     * @param node The node to claim for the current search.
+     */
+    private void touch(Node node) {
+        node.searchId = searchId;
+        node.closed = false;
+        node.heapIndex = -1;
+    }
+
+    private void pushOpen(Node node) {
+        if (openSize == openHeap.length) {
+            Node[] grown = new Node[openSize * 2];
+            System.arraycopy(openHeap, 0, grown, 0, openSize);
+            openHeap = grown;
+        }
+        openHeap[openSize] = node;
+        node.heapIndex = openSize;
+        openSize++;
+        openPeak = Math.max(openPeak, openSize);
+        siftUp(node.heapIndex);
+    }
+
+    private Node popOpen() {
+        Node top = openHeap[0];
+        openSize--;
+        Node last = openHeap[openSize];
+        openHeap[openSize] = null;
+        if (openSize > 0) {
+            openHeap[0] = last;
+            last.heapIndex = 0;
+            siftDown(0);
+        }
+        top.heapIndex = -1;
+        return top;
+    }
+
+    private void siftUp(int index) {
+        Node node = openHeap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            Node parent = openHeap[parentIndex];
+            if (!isBefore(node, parent)) {
+                break;
+            }
+            openHeap[index] = parent;
+            parent.heapIndex = index;
+            index = parentIndex;
+        }
+        openHeap[index] = node;
+        node.heapIndex = index;
+    }
+
+    private void siftDown(int index) {
+        Node node = openHeap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= openSize) {
+                break;
+            }
+            if (child + 1 < openSize && isBefore(openHeap[child + 1], openHeap[child])) {
+                child++;
+            }
+            if (!isBefore(openHeap[child], node)) {
+                break;
+            }
+            openHeap[index] = openHeap[child];
+            openHeap[index].heapIndex = index;
+            index = child;
+        }
+        openHeap[index] = node;
+        node.heapIndex = index;
+    }
+
+    /**
+     * Orders open nodes by fCost and breaks ties with the lower hCost, like the original linear scan.
+     */
+    private static boolean isBefore(Node a, Node b) {
+        float fa = a.getFCost();
+        float fb = b.getFCost();
+        return fa < fb || fa == fb && a.hCost < b.hCost;
+    }
+
+    /**
+     * Estimates the remaining cost from a node to the end node with the configured heuristic.
+     */
+    private float estimate(Node node, Node endNode) {
+        if (heuristic == null) {
+            return getDistance(node, endNode);
+        }
+        return heuristic.estimate(node.x, node.y, endNode.x, endNode.y);
+    }
+
+    /**
+     * Calculates the distance between two nodes on the grid.
+     * The distance is based on the sum of the absolute differences in the x and y coordinates of the nodes,
+     * multiplied by a factor to represent the cost of moving from one node to another. This implementation
+     * assumes a uniform cost for each step in the four cardinal directions.
+     *
+     * @param nodeA The first node.
+     * @param nodeB The second node.
+     * @return The calculated distance between nodeA and nodeB, representing the cost of moving from nodeA to nodeB.
+     */
+    private float getDistance(Node nodeA, Node nodeB) {
+        int distX = Math.abs(nodeA.x - nodeB.x);
+        int distY = Math.abs(nodeA.y - nodeB.y);
+
+        return (distX + distY) * Grid.STEP_COST;
+    }}
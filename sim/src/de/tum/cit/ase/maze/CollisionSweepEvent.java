@@ -0,0 +1,43 @@
+package de.tum.cit.ase.maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one collision check of a bounding box against the tiles of a {@link Maze}. There are
+ * several per tick, so the event is off unless a recording's settings turn it on.
+ */
+@Name("de.tum.cit.ase.maze.CollisionSweep")
+@Label("Collision Sweep")
+@Category({"Maze Runner", "Simulation"})
+@Description("The corners of a bounding box checked against the maze")
+@Enabled(false)
+@StackTrace(false)
+class CollisionSweepEvent extends Event {
+    private static final CollisionSweepEvent PROBE = new CollisionSweepEvent(); // Never committed
+
+    /**
+     * @return Whether a recording wants the event. Checked before an event is created, so the checks allocate
+     *         nothing while no recording does.
+     */
+    static boolean isRecorded() {
+        return PROBE.isEnabled();
+    }
+
+    @Label("X")
+    @Description("Left edge of the box, in pixels")
+    float x;
+
+    @Label("Y")
+    @Description("Bottom edge of the box, in pixels")
+    float y;
+
+    @Label("Result")
+    @Description("Type of the tile hit, or -1 if nothing was hit")
+    int result;
+}
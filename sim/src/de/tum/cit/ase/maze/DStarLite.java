@@ -0,0 +1,466 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental path planner based on D* Lite (Koenig and Likhachev, 2002), with the moving target handling of
+ * Moving Target D* Lite (Sun, Yeoh and Koenig, 2010).
+ * The planner searches forwards from the start (the chaser) to the goal (the player) and keeps its g/rhs values
+ * between queries. When the player moves only the heuristic offset changes. When the chaser moves, the part of
+ * the search below its new tile is kept and the rest is discarded, so only the tiles behind it are searched again,
+ * and only if the new path needs them. When a tile of the maze changes only the vertices whose distance is
+ * affected are repaired. The planner listens to the maze itself, so tile changes are picked up automatically.
+ */
+public class DStarLite implements MazeListener {
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+    private static final byte TOUCHED = 1; // The cell is in touchedCells
+    private static final byte KEPT = 2; // The cell is in the subtree shiftRoot keeps
+
+    private final Maze maze;
+    private final int width;
+    private final int height;
+    private final int[] g;
+    private final int[] rhs;
+    private final int[] parent; // Neighbor a cell's rhs comes from, or -1
+    private final int[] heapIndex; // Position of a cell in the queue, or -1
+    private final byte[] flags; // TOUCHED and KEPT per cell
+    private final IntArray touchedCells = new IntArray(); // Cells with a finite g or rhs, or in the queue
+    private final IntArray scratch = new IntArray(); // The kept subtree, then the discarded cells in shiftRoot
+    private final IntArray pathCells = new IntArray(); // Reused by getPathCells
+    private int[] heap;
+    private long[] heapKeys; // Packed (k1, k2) per queue position
+    private int heapSize;
+
+    private int start = -1;
+    private int goal = -1;
+    private int km; // Accumulated heuristic offset from goal moves
+    private int nodesExpanded; // Expansions of the last computeShortestPath call
+    private int openPeak; // Largest size of the queue during the last computeShortestPath call
+
+    /**
+     * Constructs a planner for the given maze and registers it as a listener of the maze.
+     *
+     * @param maze The maze to plan in.
+     */
+    public DStarLite(Maze maze) {
+        this.maze = maze;
+        this.width = maze.getLayout().length;
+        this.height = maze.getLayout()[0].length;
+        int cells = width * height;
+        this.g = new int[cells];
+        this.rhs = new int[cells];
+        this.parent = new int[cells];
+        this.heapIndex = new int[cells];
+        this.flags = new byte[cells];
+        this.heap = new int[64];
+        this.heapKeys = new long[64];
+        Arrays.fill(g, INFINITY);
+        Arrays.fill(rhs, INFINITY);
+        Arrays.fill(parent, -1);
+        Arrays.fill(heapIndex, -1);
+        maze.addListener(this);
+    }
+
+    /**
+     * Moves the start and the goal of the planner and repairs the search.
+     * The first call initializes the search; later calls reuse as much of it as possible.
+     *
+     * @param startX The x-coordinate of the chaser's tile.
+     * @param startY The y-coordinate of the chaser's tile.
+     * @param goalX The x-coordinate of the player's tile.
+     * @param goalY The y-coordinate of the player's tile.
+     */
+    public void update(int startX, int startY, int goalX, int goalY) {
+        if (!inBounds(startX, startY) || !inBounds(goalX, goalY)) {
+            return;
+        }
+        if (!PathfindingQueryEvent.isRecorded()) {
+            repair(startX * height + startY, goalX * height + goalY);
+            return;
+        }
+        PathfindingQueryEvent event = new PathfindingQueryEvent();
+        event.begin();
+        repair(startX * height + startY, goalX * height + goalY);
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = PathfindingQueryEvent.D_STAR_LITE;
+            event.startX = startX;
+            event.startY = startY;
+            event.goalX = goalX;
+            event.goalY = goalY;
+            event.nodesExpanded = nodesExpanded;
+            event.openPeak = openPeak;
+            event.pathLength = getPathCells().size;
+            event.finished = true;
+            event.commit();
+        }
+    }
+
+    private void repair(int newStart, int newGoal) {
+        if (start < 0 || km > INFINITY / 2 || !shiftRoot(newStart)) {
+            initialize(newStart, newGoal); // First query, the offsets grew too large, or the chaser left the search
+        } else if (newGoal != goal) {
+            km += heuristic(goal, newGoal);
+            goal = newGoal;
+        }
+        computeShortestPath();
+    }
+
+    /**
+     * Makes the chaser's new tile the root of the search. The cells below it in the search tree keep their values,
+     * which all count from the old root, so they still differ by the right distances; the root keeps its value as
+     * its rhs. Every other cell is discarded and takes its rhs from the kept cells next to it.
+     *
+     * @return Whether the search was kept; false if the new tile is not settled in it.
+     */
+    private boolean shiftRoot(int newStart) {
+        if (newStart == start) {
+            return true;
+        }
+        if (g[newStart] >= INFINITY / 2 || g[newStart] != rhs[newStart]) {
+            return false;
+        }
+        IntArray subtree = scratch;
+        subtree.clear();
+        subtree.add(newStart);
+        flags[newStart] |= KEPT;
+        for (int k = 0; k < subtree.size; k++) {
+            int cell = subtree.get(k);
+            int x = cell / height, y = cell % height;
+            for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+                int nx = x + Grid.NEIGHBOR_OFFSETS[i], ny = y + Grid.NEIGHBOR_OFFSETS[i + 1];
+                int neighbor = nx * height + ny;
+                if (inBounds(nx, ny) && parent[neighbor] == cell && (flags[neighbor] & KEPT) == 0) {
+                    flags[neighbor] |= KEPT;
+                    subtree.add(neighbor);
+                }
+            }
+        }
+        start = newStart;
+        parent[newStart] = -1;
+
+        // Every kept cell has been touched, so what remains of the touched cells is the subtree
+        IntArray discarded = scratch;
+        discarded.clear();
+        int remaining = 0;
+        for (int k = 0; k < touchedCells.size; k++) {
+            int cell = touchedCells.get(k);
+            if ((flags[cell] & KEPT) != 0) {
+                flags[cell] &= ~KEPT;
+                touchedCells.set(remaining++, cell);
+            } else {
+                reset(cell);
+                discarded.add(cell);
+            }
+        }
+        touchedCells.size = remaining;
+        for (int k = 0; k < discarded.size; k++) {
+            updateVertex(discarded.get(k));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current shortest path from the start to the goal.
+     *
+     * @return The path from the start tile (exclusive) to the goal tile, or an empty list if the goal cannot be reached.
+     */
+    public List<Node> getPath() {
+        IntArray cells = getPathCells();
+        List<Node> path = new ArrayList<>(cells.size);
+        for (int i = 0; i < cells.size; i++) {
+            path.add(new Node(cells.get(i) / height, cells.get(i) % height, true));
+        }
+        return path;
+    }
+
+    /**
+     * Returns the current shortest path as cell indices ({@code x * height + y}). The array is reused by the next
+     * call, so the caller has to copy what it keeps.
+     *
+     * @return The path from the start tile (exclusive) to the goal tile, empty if the goal cannot be reached.
+     */
+    public IntArray getPathCells() {
+        pathCells.clear();
+        if (start < 0 || g[goal] >= INFINITY) {
+            return pathCells;
+        }
+        // Walk back from the goal to the neighbor closest to the start until the start is reached
+        int current = goal;
+        int limit = width * height;
+        while (current != start && pathCells.size < limit) {
+            pathCells.add(current);
+            int previous = -1;
+            int best = g[current];
+            int cx = current / height, cy = current % height;
+            for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+                int nx = cx + Grid.NEIGHBOR_OFFSETS[i], ny = cy + Grid.NEIGHBOR_OFFSETS[i + 1];
+                if (!isPassable(nx, ny)) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (g[neighbor] < best) {
+                    best = g[neighbor];
+                    previous = neighbor;
+                }
+            }
+            if (previous < 0) {
+                pathCells.clear(); // Dead end, the goal has become unreachable
+                return pathCells;
+            }
+            current = previous;
+        }
+        pathCells.reverse();
+        return pathCells;
+    }
+
+    /**
+     * @return The number of vertices expanded by the most recent repair or initial search.
+     */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * @return The largest number of vertices in the queue during the most recent repair or initial search.
+     */
+    public int getOpenPeak() {
+        return openPeak;
+    }
+
+    /**
+     * Adds the tiles whose distance from the start the planner knows, as cell indices ({@code x * height + y}):
+     * what its searches and repairs have explored so far. Meant for debug views.
+     *
+     * @param cells The array to add to.
+     */
+    public void copyExploredCells(IntArray cells) {
+        for (int k = 0; k < touchedCells.size; k++) {
+            int cell = touchedCells.get(k);
+            if (g[cell] < INFINITY) {
+                cells.add(cell);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the planner from the maze. The planner must not be used afterwards.
+     */
+    public void dispose() {
+        maze.removeListener(this);
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldType, int newType) {
+        if (start < 0 || (oldType == -1) == (newType == -1)) {
+            return; // Not initialized yet, or the walkability did not change
+        }
+        // The edges into and out of the changed tile have a new cost, so its rhs and its neighbors' can change
+        int cell = x * height + y;
+        updateVertex(cell);
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            int nx = x + Grid.NEIGHBOR_OFFSETS[i], ny = y + Grid.NEIGHBOR_OFFSETS[i + 1];
+            if (inBounds(nx, ny)) {
+                updateVertex(nx * height + ny);
+            }
+        }
+    }
+
+    /**
+     * Starts a new search. Only the cells the previous one touched are reset, not the whole maze.
+     */
+    private void initialize(int newStart, int newGoal) {
+        for (int k = 0; k < touchedCells.size; k++) {
+            reset(touchedCells.get(k));
+        }
+        touchedCells.clear();
+        heapSize = 0;
+        km = 0;
+        start = newStart;
+        goal = newGoal;
+        rhs[start] = 0;
+        touch(start);
+        insert(start, calculateKey(start));
+    }
+
+    private void reset(int cell) {
+        g[cell] = INFINITY;
+        rhs[cell] = INFINITY;
+        parent[cell] = -1;
+        flags[cell] = 0;
+        if (heapIndex[cell] >= 0) {
+            remove(cell);
+        }
+    }
+
+    private void touch(int cell) {
+        if ((flags[cell] & TOUCHED) == 0) {
+            flags[cell] |= TOUCHED;
+            touchedCells.add(cell);
+        }
+    }
+
+    private void computeShortestPath() {
+        nodesExpanded = 0;
+        openPeak = heapSize;
+        while (heapSize > 0 && (heapKeys[0] < calculateKey(goal) || rhs[goal] != g[goal])) {
+            int u = heap[0];
+            long oldKey = heapKeys[0];
+            long newKey = calculateKey(u);
+            nodesExpanded++;
+            if (oldKey < newKey) {
+                heapKeys[0] = newKey;
+                siftDown(0);
+            } else if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                remove(u);
+                updateNeighbors(u);
+            } else {
+                g[u] = INFINITY;
+                updateVertex(u);
+                updateNeighbors(u);
+            }
+        }
+    }
+
+    private void updateNeighbors(int cell) {
+        int x = cell / height, y = cell % height;
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            int nx = x + Grid.NEIGHBOR_OFFSETS[i], ny = y + Grid.NEIGHBOR_OFFSETS[i + 1];
+            if (inBounds(nx, ny)) {
+                updateVertex(nx * height + ny);
+            }
+        }
+    }
+
+    private void updateVertex(int u) {
+        if (u != start) { // The root keeps its value
+            int best = INFINITY;
+            int bestParent = -1;
+            int x = u / height, y = u % height;
+            if (isWalkable(x, y)) { // A wall cannot be reached, whatever its neighbors are
+                for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+                    int nx = x + Grid.NEIGHBOR_OFFSETS[i], ny = y + Grid.NEIGHBOR_OFFSETS[i + 1];
+                    if (isPassable(nx, ny) && Grid.STEP_COST + g[nx * height + ny] < best) {
+                        best = Grid.STEP_COST + g[nx * height + ny];
+                        bestParent = nx * height + ny;
+                    }
+                }
+            }
+            rhs[u] = best;
+            parent[u] = bestParent;
+        }
+        if (heapIndex[u] >= 0) {
+            remove(u);
+        }
+        if (g[u] != rhs[u]) {
+            touch(u);
+            insert(u, calculateKey(u));
+        } else if (g[u] < INFINITY) {
+            touch(u);
+        }
+    }
+
+    /**
+     * Packs the D* Lite key (min(g, rhs) + h + km, min(g, rhs)) into one long so keys compare with a single <.
+     */
+    private long calculateKey(int cell) {
+        long m = Math.min(g[cell], rhs[cell]);
+        long k1 = m >= INFINITY ? INFINITY : m + heuristic(cell, goal) + km;
+        return k1 << 32 | m;
+    }
+
+    private int heuristic(int a, int b) {
+        return (Math.abs(a / height - b / height) + Math.abs(a % height - b % height)) * Grid.STEP_COST;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    private boolean isWalkable(int x, int y) {
+        return inBounds(x, y) && maze.getElementAt(x, y) == -1; // Only floor tiles can be walked on
+    }
+
+    /**
+     * @return Whether a path can lead through a tile: floor tiles, and the start, which the chaser may stand on
+     * even if it is not floor.
+     */
+    private boolean isPassable(int x, int y) {
+        return isWalkable(x, y) || x * height + y == start;
+    }
+
+    private void insert(int cell, long key) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+        heap[heapSize] = cell;
+        heapKeys[heapSize] = key;
+        heapIndex[cell] = heapSize;
+        heapSize++;
+        openPeak = Math.max(openPeak, heapSize);
+        siftUp(heapSize - 1);
+    }
+
+    private void remove(int cell) {
+        int index = heapIndex[cell];
+        heapIndex[cell] = -1;
+        heapSize--;
+        if (index == heapSize) {
+            return;
+        }
+        int last = heap[heapSize];
+        heap[index] = last;
+        heapKeys[index] = heapKeys[heapSize];
+        heapIndex[last] = index;
+        siftDown(index);
+        siftUp(heapIndex[last]);
+    }
+
+    private void siftUp(int index) {
+        int cell = heap[index];
+        long key = heapKeys[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            if (heapKeys[parentIndex] <= key) {
+                break;
+            }
+            heap[index] = heap[parentIndex];
+            heapKeys[index] = heapKeys[parentIndex];
+            heapIndex[heap[index]] = index;
+            index = parentIndex;
+        }
+        heap[index] = cell;
+        heapKeys[index] = key;
+        heapIndex[cell] = index;
+    }
+
+    private void siftDown(int index) {
+        int cell = heap[index];
+        long key = heapKeys[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (heapKeys[child] >= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            heapKeys[index] = heapKeys[child];
+            heapIndex[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = cell;
+        heapKeys[index] = key;
+        heapIndex[cell] = index;
+    }
+}
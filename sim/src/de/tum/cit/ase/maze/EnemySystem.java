@@ -0,0 +1,1197 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.ai.msg.MessageDispatcher;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simulates all enemies of a level. The state of every enemy lives in parallel primitive arrays indexed by
+ * the enemy's index: position, velocity, tile, FSM state, direction, timers and the cursor into its path.
+ * {@link #update(float, float, float)} runs once per tick, independently of drawing; the game's Enemy objects
+ * only read the arrays to render an enemy.
+ * <p>
+ * A tick starts with a perception sweep: one tight loop over the packed coordinates computes every enemy's
+ * squared distance to the player, and a second loop compares the result with the detection range of the last
+ * tick and records an event for each enemy that entered or left it. The state machine only reacts to these
+ * events; nothing polls the player's position per enemy.
+ * <p>
+ * Then come four phases. The two parallel ones can be split into batches on a {@link ForkJoinPool}; in them
+ * an enemy reads only its own slot and the inputs captured for the tick (player position, layout version,
+ * the static layer) and writes only its own slot. Everything that touches shared state runs in the serial
+ * phases, in enemy index order, so a tick gives bit-identical results with any number of threads:
+ * <ol>
+ *     <li>decide (parallel): timers, perception, state transitions and what the enemy wants to do</li>
+ *     <li>plan (serial): path searches and requests that use the shared planners</li>
+ *     <li>move (parallel): patrol and path following, including patrol turns and contact with the player</li>
+ *     <li>merge (serial): occupancy layer updates, the list of enemies touching the player, time-sliced searches</li>
+ * </ol>
+ * Random patrol turns use a generator per enemy, seeded from the system seed and the enemy's index.
+ * Timers are stored as clock times (when the enemy died, when an unreachable player is tried again, when a MID
+ * or FAR enemy last ticked) instead of being counted down, so a waiting enemy is not written to until it ticks.
+ * <p>
+ * Enemies are simulated at a {@link SimulationTier} that depends on their distance to the player, so the cost
+ * of a tick follows the number of enemies near the player rather than the total. NEAR enemies tick every
+ * frame. MID enemies tick every few frames, staggered by index, and patrol tile by tile with the time that
+ * built up. FAR enemies are frozen; when they come closer again, the time they missed is caught up with
+ * a patrol of at most {@link #MAX_CATCH_UP_TILES} tiles.
+ * In TIME_SLICED mode all enemies share one {@link AStar}: enemies that need a path are queued and the
+ * queue is worked off under the per-frame {@link PathfindingBudget}, so the node grid exists only once.
+ * In GDX_AI mode they share one {@link GdxAiPathfinder} instead, which searches to completion and is charged
+ * against the same budget afterwards.
+ * <p>
+ * State changes are announced through a gdx-ai {@link MessageDispatcher}, if one is set, with the enemy's
+ * index as extra info: {@link #MSG_SPOTTED_PLAYER}, {@link #MSG_LOST_PLAYER} and {@link #MSG_DIED}.
+ */
+public class EnemySystem {
+    // Message codes for the message dispatcher
+    public static final int MSG_SPOTTED_PLAYER = 1; // The enemy started chasing the player
+    public static final int MSG_LOST_PLAYER = 2; // The enemy went back to patrolling
+    public static final int MSG_DIED = 3;
+    private static final int TILE_SIZE = 16; // each tile is 16x16
+    private static final float PATROL_SPEED = TILE_SIZE; // Pixels per second
+    private static final float CHASE_SPEED = 40.0f;
+    private static final float DETECTION_RADIUS = TILE_SIZE * 4; // The player is noticed within 4 tiles
+    private static final float REACHED_NODE_TOLERANCE = 2.0f;
+    private static final float UNREACHABLE_RETRY_MIN = 0.25f; // Seconds
+    private static final float UNREACHABLE_RETRY_MAX = 4.0f;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final EnemyState[] STATES = EnemyState.values();
+    private static final int BATCH_SIZE = 512; // Enemies per fork-join task
+    private static final SimulationTier[] TIERS = SimulationTier.values();
+    private static final int MAX_CATCH_UP_TILES = 8; // Longest patrol a frozen enemy catches up in one tick
+    // What an enemy does in the move phase
+    private static final byte ACTION_NONE = 0;
+    private static final byte ACTION_PATROL = 1;
+    private static final byte ACTION_FOLLOW_PATH = 2;
+    // Phases that run in batches
+    private static final int PHASE_DECIDE = 0;
+    private static final int PHASE_MOVE = 1;
+
+    private final Maze maze;
+    private final int mazeHeight;
+    private final long seed;
+    private ForkJoinPool pool; // null runs every phase on the calling thread
+
+    private int count;
+    // Kinematics
+    private float[] x, y; // Bottom left corner in pixels
+    private float[] velocityX, velocityY; // Pixels per second during the last tick
+    private int[] tileX, tileY; // Tile the enemy is counted on in the occupancy layer
+    // State machine
+    private byte[] state; // EnemyState ordinal
+    private byte[] direction; // Direction ordinal
+    private boolean[] dead;
+    private long[] randomState; // Generator state per enemy
+    private byte[] action; // Decided in the decide phase, carried out in the move phase
+    private boolean[] touchingPlayer;
+    private float[] distanceSquared; // To the player, computed by the perception sweep
+    private boolean[] inDetectionRange; // Result of the last perception sweep
+    private float[] stateTime; // Time since the animation started
+    private byte[] tier; // SimulationTier ordinal
+    private double[] lastTickTime; // Clock time at which the enemy last ticked
+    private float[] stepTime; // Time the enemy advances in the current tick, 0 if it skips the tick
+    private double[] diedAt; // Clock time of the enemy's death
+    // Chasing
+    private double[] retryAt; // Clock time at which an unreachable player is tried again
+    private float[] retryBackoff; // Current wait between attempts, 0 while the player is reachable
+    private int[][] pathCells; // Path tiles as x * height + y, reused between paths
+    private int[] pathLength;
+    private int[] pathIndex;
+    private int[] plannedGoalX, plannedGoalY; // Player tile the current path or pending request leads to
+    private int[] plannedLayoutVersion;
+    private boolean[] pathRequestPending;
+    private DStarLite[] incrementalPlanners; // Created on first use in INCREMENTAL mode
+    private boolean[] needsPlan; // Set in the decide phase, handled in the plan phase
+    private boolean[] cancelSearch; // The shared search must be cancelled if it belongs to this enemy
+
+    // Shared search for TIME_SLICED mode
+    private final AStar pathfinder;
+    private int[] searchQueue; // Ring buffer of enemies waiting for a search
+    private int queueHead, queueSize;
+    private boolean[] queued;
+    private int searchingEnemy = -1; // Enemy the running search belongs to, or -1
+    private int lastIncrementalEnemy = -1; // Enemy whose planner repaired last in INCREMENTAL mode, or -1
+
+    // Inputs of the current tick, read by every enemy
+    private double clock; // Game time in seconds, the sum of all tick deltas
+    private float playerX, playerY;
+    private int playerTileX, playerTileY;
+    private int layoutVersion;
+    private WalkableComponents components;
+    private ExitMasks exitMasks;
+    private final IntArray playerContacts = new IntArray(); // Enemies touching the player, by index
+    private final IntArray enteredRange = new IntArray(); // Perception events of the current tick, by index
+    private final IntArray leftRange = new IntArray();
+    private int frame; // Tick counter for the staggered MID tier
+
+    // Level of detail
+    private float nearDistance = 16 * TILE_SIZE; // Pixels
+    private float farDistance = 48 * TILE_SIZE;
+    private int midTickInterval = 4; // MID enemies tick every this many frames
+    private final int[] tierCounts = new int[TIERS.length];
+
+    private PathfindingBudget pathfindingBudget; // Shared per-frame node budget, null means unlimited
+    private PathfindingMode pathfindingMode = PathfindingMode.TIME_SLICED;
+    private PathfindingService pathfindingService; // Used in BACKGROUND mode
+    private GdxAiPathfinder gdxAiPathfinder; // Used in GDX_AI mode, created on first use
+    private MessageDispatcher messageDispatcher; // Receives state change messages, null for none
+    private boolean pathfindingTimed; // Whether update measures pathfindingNanos
+    private long pathfindingNanos; // Time the last update spent planning paths, if measured
+
+    // Metrics, null while none are recorded
+    private MetricsRegistry.Gauge[] stateGauges; // Living enemies per EnemyState
+    private MetricsRegistry.Gauge deadGauge;
+    private MetricsRegistry.Histogram pathLatency;
+    private final int[] stateCounts = new int[STATES.length];
+    private long[] pathRequestedAt; // When the enemy asked for the path it waits for, in nanoseconds, or 0
+    private PathfindingStats pathfindingStats; // Receives the queries searched on this thread, null for none
+    private int[] replans; // Paths the enemy asked for since it spawned
+
+    /**
+     * Creates an empty system for the given maze.
+     *
+     * @param maze The maze the enemies move in.
+     * @param initialCapacity The number of enemies to allocate room for; the arrays grow when more are spawned.
+     */
+    public EnemySystem(Maze maze, int initialCapacity) {
+        this(maze, initialCapacity, new RandomXS128().nextLong());
+    }
+
+    /**
+     * Creates an empty system with a seed for the random patrol directions, so that runs are reproducible.
+     *
+     * @param maze The maze the enemies move in.
+     * @param initialCapacity The number of enemies to allocate room for.
+     * @param seed The seed for patrol directions.
+     */
+    public EnemySystem(Maze maze, int initialCapacity, long seed) {
+        this.maze = maze;
+        this.mazeHeight = maze.getLayout()[0].length;
+        this.seed = seed;
+        this.pathfinder = new AStar(maze.getSnapshot().createNodes());
+        this.pathfinder.setComponents(maze.getComponents());
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Adds an enemy that starts patrolling in a random direction.
+     *
+     * @param spawnX The x-coordinate in pixels.
+     * @param spawnY The y-coordinate in pixels.
+     * @return The index of the new enemy.
+     */
+    public int spawn(float spawnX, float spawnY) {
+        if (count == x.length) {
+            allocate(x.length * 2);
+        }
+        int i = count++;
+        x[i] = spawnX;
+        y[i] = spawnY;
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+        tileX[i] = (int) (spawnX / TILE_SIZE);
+        tileY[i] = (int) (spawnY / TILE_SIZE);
+        state[i] = (byte) EnemyState.PATROLLING.ordinal();
+        randomState[i] = mix(seed + (i + 1) * 0x9E3779B97F4A7C15L);
+        direction[i] = (byte) nextRandom(i, DIRECTIONS.length); // Random initial direction
+        dead[i] = false;
+        action[i] = ACTION_NONE;
+        touchingPlayer[i] = false;
+        inDetectionRange[i] = false;
+        needsPlan[i] = false;
+        cancelSearch[i] = false;
+        tier[i] = (byte) SimulationTier.NEAR.ordinal();
+        lastTickTime[i] = clock;
+        stepTime[i] = 0;
+        stateTime[i] = 0;
+        diedAt[i] = 0;
+        retryAt[i] = 0;
+        retryBackoff[i] = 0;
+        pathLength[i] = 0;
+        pathIndex[i] = 0;
+        replans[i] = 0;
+        plannedGoalX[i] = -1;
+        plannedGoalY[i] = -1;
+        pathRequestPending[i] = false;
+        maze.occupy(tileX[i], tileY[i]);
+        if (pathfindingService != null) {
+            registerWithService(i);
+        }
+        return i;
+    }
+
+    /**
+     * Marks an enemy as dead. It stops moving, no longer blocks its tile and keeps the state it died in.
+     *
+     * @param i The index of the enemy.
+     */
+    public void kill(int i) {
+        if (dead[i]) {
+            return;
+        }
+        dead[i] = true;
+        diedAt[i] = clock; // The death animation starts now
+        inDetectionRange[i] = false; // So the next perception sweep does not report that it lost the player
+        if (messageDispatcher != null) {
+            messageDispatcher.dispatchMessage(MSG_DIED, Integer.valueOf(i)); // Boxed, or it is read as (delay, message)
+        }
+        velocityX[i] = 0;
+        velocityY[i] = 0;
+        maze.vacate(tileX[i], tileY[i]);
+        if (searchingEnemy == i) {
+            pathfinder.cancelSearch();
+            searchingEnemy = -1;
+        }
+        if (incrementalPlanners[i] != null) {
+            incrementalPlanners[i].dispose(); // Stop receiving tile changes
+            incrementalPlanners[i] = null;
+        }
+    }
+
+    /**
+     * Advances all enemies by one tick.
+     *
+     * @param delta The time passed since the last tick.
+     * @param playerX The x-coordinate of the player in pixels.
+     * @param playerY The y-coordinate of the player in pixels.
+     */
+    public void update(float delta, float playerX, float playerY) {
+        // Capture the inputs every enemy reads during the tick
+        this.clock += delta;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.playerTileX = (int) (playerX / TILE_SIZE);
+        this.playerTileY = (int) (playerY / TILE_SIZE);
+        this.layoutVersion = maze.getLayoutVersion();
+        this.components = maze.getComponents(); // Created here, not lazily inside a worker
+        this.exitMasks = maze.getExitMasks();
+        this.frame++;
+
+        sensePlayer();
+        applyPerceptionEvents();
+        runPhase(PHASE_DECIDE);
+        long planStart = pathfindingTimed ? System.nanoTime() : 0;
+        for (int i = 0; i < count; i++) {
+            plan(i);
+        }
+        if (pathfindingTimed) {
+            pathfindingNanos = System.nanoTime() - planStart;
+        }
+        runPhase(PHASE_MOVE);
+        merge();
+        if (EntityCountEvent.isRecorded()) {
+            commitCounts();
+        }
+        if (stateGauges != null) {
+            recordStates();
+        }
+    }
+
+    /**
+     * Sets the gauges of the enemies per state to the counts of the tick that just ended.
+     */
+    private void recordStates() {
+        Arrays.fill(stateCounts, 0);
+        int deadCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (dead[i]) {
+                deadCount++;
+            } else {
+                stateCounts[state[i]]++;
+            }
+        }
+        for (int s = 0; s < STATES.length; s++) {
+            stateGauges[s].set(stateCounts[s]);
+        }
+        deadGauge.set(deadCount);
+    }
+
+    /**
+     * Records the counts of the tick that just ended with the flight recorder.
+     */
+    private void commitCounts() {
+        int alive = 0, chasing = 0;
+        for (int i = 0; i < count; i++) {
+            if (!dead[i]) {
+                alive++;
+                if (state[i] == EnemyState.CHASING.ordinal()) {
+                    chasing++;
+                }
+            }
+        }
+        EntityCountEvent event = new EntityCountEvent();
+        event.enemies = count;
+        event.alive = alive;
+        event.chasing = chasing;
+        event.near = tierCounts[SimulationTier.NEAR.ordinal()];
+        event.mid = tierCounts[SimulationTier.MID.ordinal()];
+        event.far = tierCounts[SimulationTier.FAR.ordinal()];
+        event.queuedSearches = queueSize;
+        event.commit();
+    }
+
+    /**
+     * Perception sweep: computes the squared distance of every enemy to the player in one branch-free loop
+     * over the coordinate arrays, which the JIT can vectorize, and then records the enemies whose detection
+     * state changed since the last tick.
+     */
+    private void sensePlayer() {
+        float px = playerX, py = playerY;
+        for (int i = 0; i < count; i++) {
+            float dx = px - x[i];
+            float dy = py - y[i];
+            distanceSquared[i] = dx * dx + dy * dy;
+        }
+
+        enteredRange.clear();
+        leftRange.clear();
+        float rangeSquared = DETECTION_RADIUS * DETECTION_RADIUS;
+        for (int i = 0; i < count; i++) {
+            boolean inRange = !dead[i] && distanceSquared[i] <= rangeSquared;
+            if (inRange != inDetectionRange[i]) {
+                inDetectionRange[i] = inRange;
+                (inRange ? enteredRange : leftRange).add(i);
+            }
+        }
+    }
+
+    /**
+     * Lets the state machine react to the perception events: an enemy that noticed the player starts chasing
+     * with a fresh path, and one that lost it goes back to patrolling.
+     */
+    private void applyPerceptionEvents() {
+        byte chasing = (byte) EnemyState.CHASING.ordinal();
+        for (int k = 0; k < enteredRange.size; k++) {
+            int i = enteredRange.get(k);
+            if (state[i] != chasing) {
+                state[i] = chasing;
+                pathLength[i] = 0;
+                pathIndex[i] = 0;
+                plannedGoalX[i] = -1; // Plan a fresh path
+                cancelSearch[i] = true; // A search left over from an earlier chase has a stale goal
+                if (messageDispatcher != null) {
+                    messageDispatcher.dispatchMessage(MSG_SPOTTED_PLAYER, Integer.valueOf(i));
+                }
+            }
+        }
+        for (int k = 0; k < leftRange.size; k++) {
+            int i = leftRange.get(k);
+            state[i] = (byte) EnemyState.PATROLLING.ordinal();
+            pathRequestedAt[i] = 0; // No longer waits for a path
+            if (messageDispatcher != null) {
+                messageDispatcher.dispatchMessage(MSG_LOST_PLAYER, Integer.valueOf(i));
+            }
+        }
+    }
+
+    /**
+     * Runs a parallel phase over all enemies, in batches on the pool if there is one and enough enemies.
+     */
+    private void runPhase(int phase) {
+        if (pool == null || count <= BATCH_SIZE) {
+            runBatch(phase, 0, count);
+        } else {
+            pool.invoke(new Batch(phase, 0, count));
+        }
+    }
+
+    private void runBatch(int phase, int from, int to) {
+        if (phase == PHASE_DECIDE) {
+            for (int i = from; i < to; i++) {
+                decide(i);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                move(i);
+            }
+        }
+    }
+
+    /**
+     * Splits a range of enemies in halves until it is small enough to run as one batch.
+     */
+    private final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int phase, from, to;
+
+        Batch(int phase, int from, int to) {
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                runBatch(phase, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(phase, from, middle), new Batch(phase, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Decide phase: picks the simulation tier, updates the timers and decides what the enemy does in the
+     * move phase. Writes only slot i.
+     */
+    private void decide(int i) {
+        action[i] = ACTION_NONE;
+        needsPlan[i] = false;
+        stepTime[i] = 0;
+        if (dead[i]) {
+            return; // The death animation reads the time since diedAt
+        }
+
+        if (distanceSquared[i] <= nearDistance * nearDistance) {
+            tier[i] = (byte) SimulationTier.NEAR.ordinal();
+        } else if (distanceSquared[i] <= farDistance * farDistance) {
+            tier[i] = (byte) SimulationTier.MID.ordinal();
+            if ((frame + i) % midTickInterval != 0) {
+                return; // Not this enemy's turn; the time since its last tick builds up
+            }
+        } else {
+            tier[i] = (byte) SimulationTier.FAR.ordinal();
+            return; // Frozen until it comes closer
+        }
+        float elapsed = (float) (clock - lastTickTime[i]);
+        lastTickTime[i] = clock;
+        stepTime[i] = elapsed;
+        stateTime[i] += elapsed;
+
+        if (state[i] == EnemyState.CHASING.ordinal()) {
+            decideChase(i);
+        } else {
+            action[i] = ACTION_PATROL;
+        }
+    }
+
+    /**
+     * Decides whether a chasing enemy can reach the player and whether it needs a new path.
+     */
+    private void decideChase(int i) {
+        int startX = (int) (x[i] / TILE_SIZE);
+        int startY = (int) (y[i] / TILE_SIZE);
+
+        if (clock < retryAt[i]) {
+            action[i] = ACTION_PATROL; // Wander until the next attempt
+            return;
+        }
+        if (!components.canReach(startX, startY, playerTileX, playerTileY)) {
+            // The player is in another region; wait before asking again and double the wait every time
+            retryBackoff[i] = retryBackoff[i] == 0 ? UNREACHABLE_RETRY_MIN : Math.min(retryBackoff[i] * 2, UNREACHABLE_RETRY_MAX);
+            retryAt[i] = clock + retryBackoff[i];
+            pathLength[i] = 0;
+            plannedGoalX[i] = -1;
+            cancelSearch[i] = true;
+            return;
+        }
+        retryBackoff[i] = 0;
+
+        boolean pathExhausted = pathIndex[i] >= pathLength[i];
+        if (pathfindingMode == PathfindingMode.BACKGROUND && pathfindingService != null) {
+            // At most one request per enemy is in flight for the current layout version
+            boolean waiting = pathRequestPending[i] && plannedLayoutVersion[i] == layoutVersion;
+            boolean goalMoved = playerTileX != plannedGoalX[i] || playerTileY != plannedGoalY[i];
+            needsPlan[i] = !waiting && (pathExhausted || goalMoved);
+        } else if (pathfindingMode == PathfindingMode.INCREMENTAL) {
+            // Moving the goal only shifts the planner's key offset, so the player is followed tile by tile
+            boolean goalMoved = playerTileX != plannedGoalX[i] || playerTileY != plannedGoalY[i];
+            needsPlan[i] = pathExhausted || goalMoved || plannedLayoutVersion[i] != layoutVersion;
+        } else if (pathfindingMode == PathfindingMode.GDX_AI) {
+            needsPlan[i] = pathExhausted || plannedGoalX[i] < 0 || plannedLayoutVersion[i] != layoutVersion;
+        } else {
+            needsPlan[i] = pathExhausted && (searchingEnemy != i || cancelSearch[i]) && !queued[i];
+        }
+        action[i] = ACTION_FOLLOW_PATH;
+    }
+
+    /**
+     * Plan phase: carries out the decisions that use the shared planners. Runs in index order.
+     */
+    private void plan(int i) {
+        if (cancelSearch[i]) {
+            cancelSearch[i] = false;
+            if (searchingEnemy == i) {
+                pathfinder.cancelSearch();
+                searchingEnemy = -1;
+            }
+        }
+        if (!needsPlan[i]) {
+            return;
+        }
+        if (pathLatency != null && pathRequestedAt[i] == 0) {
+            pathRequestedAt[i] = System.nanoTime(); // Kept while the enemy waits, so the wait counts too
+        }
+        if (pathfindingMode == PathfindingMode.GDX_AI && pathfindingBudget != null
+                && pathfindingBudget.getRemaining() == 0) {
+            return; // A gdx-ai search runs to completion, so it waits for a frame with nodes left
+        }
+        replans[i]++; // Only counted once the search or request is issued
+        if (pathfindingStats != null) {
+            pathfindingStats.recordReplan();
+        }
+        int startX = (int) (x[i] / TILE_SIZE);
+        int startY = (int) (y[i] / TILE_SIZE);
+        if (pathfindingMode == PathfindingMode.BACKGROUND && pathfindingService != null) {
+            pathfindingService.requestPath(i, startX, startY, playerTileX, playerTileY, maze.getSnapshot());
+            pathRequestPending[i] = true;
+            plannedLayoutVersion[i] = layoutVersion;
+            plannedGoalX[i] = playerTileX;
+            plannedGoalY[i] = playerTileY;
+        } else if (pathfindingMode == PathfindingMode.INCREMENTAL) {
+            replanIncrementally(i, startX, startY);
+        } else if (pathfindingMode == PathfindingMode.GDX_AI) {
+            planWithGdxAi(i);
+        } else {
+            enqueueSearch(i);
+        }
+    }
+
+    /**
+     * Plans with D* Lite towards the player's tile, repairing the enemy's previous search.
+     */
+    private void replanIncrementally(int i, int startX, int startY) {
+        if (incrementalPlanners[i] == null) {
+            incrementalPlanners[i] = new DStarLite(maze);
+        }
+        plannedGoalX[i] = playerTileX;
+        plannedGoalY[i] = playerTileY;
+        long started = pathfindingStats != null ? System.nanoTime() : 0;
+        DStarLite planner = incrementalPlanners[i];
+        lastIncrementalEnemy = i;
+        planner.update(startX, startY, plannedGoalX[i], plannedGoalY[i]);
+        IntArray cells = planner.getPathCells();
+        if (pathfindingStats != null) {
+            boolean found = cells.size > 0 || startX == plannedGoalX[i] && startY == plannedGoalY[i];
+            pathfindingStats.recordQuery(planner.getNodesExpanded(), planner.getOpenPeak(), cells.size,
+                    System.nanoTime() - started, found);
+        }
+        setPath(i, cells);
+        plannedLayoutVersion[i] = layoutVersion;
+        recordPathLatency(i);
+    }
+
+    /**
+     * Plans with gdx-ai. A search runs to completion, so {@link #plan(int)} only starts it while the frame budget
+     * has nodes left, and the nodes it visited are charged afterwards; enemies that find the budget spent try again
+     * next tick.
+     */
+    private void planWithGdxAi(int i) {
+        if (gdxAiPathfinder == null) {
+            gdxAiPathfinder = new GdxAiPathfinder(maze);
+        }
+        long started = pathfindingStats != null ? System.nanoTime() : 0;
+        int length = gdxAiPathfinder.findPath(x[i] / TILE_SIZE, y[i] / TILE_SIZE, playerTileX, playerTileY);
+        if (pathfindingStats != null) {
+            pathfindingStats.recordQuery(gdxAiPathfinder.getVisitedNodes(), gdxAiPathfinder.getOpenPeak(), length,
+                    System.nanoTime() - started, gdxAiPathfinder.isPathFound());
+        }
+        if (pathfindingBudget != null) {
+            pathfindingBudget.consume(gdxAiPathfinder.getVisitedNodes());
+        }
+        if (pathCells[i] == null || pathCells[i].length < length) {
+            pathCells[i] = new int[Math.max(16, length)];
+        }
+        gdxAiPathfinder.copyPath(pathCells[i]);
+        pathLength[i] = length;
+        pathIndex[i] = 0;
+        plannedGoalX[i] = playerTileX;
+        plannedGoalY[i] = playerTileY;
+        plannedLayoutVersion[i] = layoutVersion;
+        recordPathLatency(i);
+    }
+
+    /**
+     * Move phase: patrols or follows the path, then records the velocity and whether the enemy touches
+     * the player. Writes only slot i; the occupancy layer is updated in the merge phase.
+     */
+    private void move(int i) {
+        if (action[i] == ACTION_NONE) {
+            velocityX[i] = 0;
+            velocityY[i] = 0;
+            touchingPlayer[i] = false;
+            return;
+        }
+        float startX = x[i], startY = y[i];
+        if (action[i] == ACTION_PATROL) {
+            patrol(i);
+        } else {
+            followPath(i);
+        }
+        if (stepTime[i] > 0) {
+            velocityX[i] = (x[i] - startX) / stepTime[i];
+            velocityY[i] = (y[i] - startY) / stepTime[i];
+        }
+        touchingPlayer[i] = Math.abs(playerX - x[i]) < TILE_SIZE && Math.abs(playerY - y[i]) < TILE_SIZE;
+    }
+
+    /**
+     * Merge phase: applies the writes that touch shared state, in index order.
+     */
+    private void merge() {
+        playerContacts.clear();
+        Arrays.fill(tierCounts, 0);
+        for (int i = 0; i < count; i++) {
+            if (dead[i]) {
+                continue;
+            }
+            tierCounts[tier[i]]++;
+            int newTileX = (int) (x[i] / TILE_SIZE);
+            int newTileY = (int) (y[i] / TILE_SIZE);
+            if (newTileX != tileX[i] || newTileY != tileY[i]) {
+                maze.vacate(tileX[i], tileY[i]);
+                maze.occupy(newTileX, newTileY);
+                tileX[i] = newTileX;
+                tileY[i] = newTileY;
+            }
+            if (touchingPlayer[i]) {
+                playerContacts.add(i);
+            }
+        }
+        if (pathfindingMode == PathfindingMode.TIME_SLICED) {
+            long searchStart = pathfindingTimed ? System.nanoTime() : 0;
+            advanceSearches();
+            if (pathfindingTimed) {
+                pathfindingNanos += System.nanoTime() - searchStart;
+            }
+        }
+    }
+
+    /**
+     * Walks straight on and turns when the next tile is a wall. Time that built up in the MID or FAR tier
+     * is walked off in steps of at most one tile, so the enemy never skips over a wall.
+     */
+    private void patrol(int i) {
+        float remaining = Math.min(PATROL_SPEED * stepTime[i], MAX_CATCH_UP_TILES * TILE_SIZE);
+        do {
+            float step = Math.min(remaining, TILE_SIZE);
+            remaining -= step;
+            int dir = direction[i];
+            float projectedX = x[i] + step * directionX(dir);
+            float projectedY = y[i] + step * directionY(dir);
+            if (!isWallAhead(projectedX, projectedY, dir)) {
+                x[i] = projectedX;
+                y[i] = projectedY;
+            } else {
+                chooseNewDirection(i);
+            }
+        } while (remaining > 0);
+    }
+
+    /**
+     * Picks a random open exit of the enemy's tile other than the current direction, in O(1).
+     * An enemy walled in on all other sides keeps its direction.
+     */
+    private void chooseNewDirection(int i) {
+        int exits = exitMasks.getMask((int) (x[i] / TILE_SIZE), (int) (y[i] / TILE_SIZE)) & ~(1 << direction[i]);
+        if (exits != 0) {
+            direction[i] = (byte) ExitMasks.exit(exits, nextRandom(i, ExitMasks.exitCount(exits)));
+        }
+    }
+
+    /**
+     * Checks whether the tile next to a position in the given direction is a wall or outside the maze.
+     */
+    private boolean isWallAhead(float px, float py, int dir) {
+        return !exitMasks.isOpen((int) (px / TILE_SIZE), (int) (py / TILE_SIZE), dir);
+    }
+
+    /**
+     * Receives a path from the background service at the start of a tick.
+     */
+    private void onPathFound(int i, IntArray cells) {
+        pathRequestPending[i] = false;
+        recordPathLatency(i);
+        if (i < count && !dead[i] && state[i] == EnemyState.CHASING.ordinal()) {
+            setPath(i, cells);
+        }
+    }
+
+    private void enqueueSearch(int i) {
+        searchQueue[(queueHead + queueSize) % searchQueue.length] = i;
+        queueSize++;
+        queued[i] = true;
+    }
+
+    /**
+     * Works off the queue of enemies that need a path with the shared pathfinder, one search at a time,
+     * until the frame budget is spent. An enemy whose search is still running walks along the best
+     * partial path found so far.
+     */
+    private void advanceSearches() {
+        while (true) {
+            if (searchingEnemy < 0) {
+                if (queueSize == 0) {
+                    return;
+                }
+                int next = searchQueue[queueHead];
+                queueHead = (queueHead + 1) % searchQueue.length;
+                queueSize--;
+                queued[next] = false;
+                if (dead[next] || state[next] != EnemyState.CHASING.ordinal()) {
+                    continue; // No longer needs a path
+                }
+                searchingEnemy = next;
+                pathfinder.setHeuristic(maze.getLandmarks());
+                pathfinder.beginSearch(x[next] / TILE_SIZE, y[next] / TILE_SIZE, playerTileX, playerTileY);
+            }
+
+            int granted = pathfindingBudget == null ? Integer.MAX_VALUE : pathfindingBudget.acquire();
+            if (granted == 0) {
+                return; // Frame budget is spent; continue next frame
+            }
+            int expandedBefore = pathfinder.getNodesExpanded();
+            AStar.SearchStatus status = pathfinder.continueSearch(granted);
+            if (pathfindingBudget != null) {
+                pathfindingBudget.release(granted - (pathfinder.getNodesExpanded() - expandedBefore));
+            }
+
+            if (status == AStar.SearchStatus.IN_PROGRESS) {
+                if (pathIndex[searchingEnemy] >= pathLength[searchingEnemy]) {
+                    setPath(searchingEnemy, pathfinder.getPartialPathCells());
+                }
+            } else {
+                IntArray cells = pathfinder.getPathCells();
+                if (pathfindingStats != null) {
+                    pathfindingStats.recordQuery(pathfinder.getNodesExpanded(), pathfinder.getOpenPeak(), cells.size,
+                            pathfinder.getSearchNanos(), status == AStar.SearchStatus.FOUND);
+                }
+                setPath(searchingEnemy, cells);
+                recordPathLatency(searchingEnemy);
+                searchingEnemy = -1;
+            }
+        }
+    }
+
+    /**
+     * Records the time since the enemy asked for the path it just got, if metrics are recorded.
+     */
+    private void recordPathLatency(int i) {
+        if (pathLatency != null && pathRequestedAt[i] != 0) {
+            pathLatency.record(System.nanoTime() - pathRequestedAt[i]);
+            pathRequestedAt[i] = 0;
+        }
+    }
+
+    /**
+     * Copies a path into the enemy's reusable path buffer and restarts the path cursor.
+     */
+    private void setPath(int i, IntArray cells) {
+        int size = cells.size;
+        if (pathCells[i] == null || pathCells[i].length < size) {
+            pathCells[i] = new int[Math.max(16, size)];
+        }
+        System.arraycopy(cells.items, 0, pathCells[i], 0, size);
+        pathLength[i] = size;
+        pathIndex[i] = 0;
+    }
+
+    /**
+     * Moves towards the next tile of the path and advances the cursor once the tile is reached.
+     */
+    private void followPath(int i) {
+        if (pathIndex[i] >= pathLength[i]) {
+            return;
+        }
+        int cell = pathCells[i][pathIndex[i]];
+        float targetX = cell / mazeHeight * TILE_SIZE;
+        float targetY = cell % mazeHeight * TILE_SIZE;
+
+        float diffX = targetX - x[i];
+        float diffY = targetY - y[i];
+        float magnitude = (float) Math.sqrt(diffX * diffX + diffY * diffY);
+        if (magnitude > 0) {
+            float moveX = CHASE_SPEED * stepTime[i] * (diffX / magnitude);
+            float moveY = CHASE_SPEED * stepTime[i] * (diffY / magnitude);
+
+            // Ensure the enemy does not overshoot the target
+            if (Math.abs(moveX) > Math.abs(diffX)) moveX = diffX;
+            if (Math.abs(moveY) > Math.abs(diffY)) moveY = diffY;
+            x[i] += moveX;
+            y[i] += moveY;
+
+            if (Math.abs(diffX) > Math.abs(diffY)) {
+                direction[i] = (byte) (diffX > 0 ? Direction.RIGHT : Direction.LEFT).ordinal();
+            } else {
+                direction[i] = (byte) (diffY > 0 ? Direction.UP : Direction.DOWN).ordinal();
+            }
+        }
+        float dx = targetX - x[i], dy = targetY - y[i];
+        if (dx * dx + dy * dy < REACHED_NODE_TOLERANCE) {
+            pathIndex[i]++;
+        }
+    }
+
+    /**
+     * Draws a number in [0, bound) from the enemy's own generator (xorshift64*).
+     */
+    private int nextRandom(int i, int bound) {
+        long state = randomState[i];
+        state ^= state >>> 12;
+        state ^= state << 25;
+        state ^= state >>> 27;
+        randomState[i] = state;
+        return (int) (((state * 0x2545F4914F6CDD1DL) >>> 33) % bound);
+    }
+
+    /**
+     * Scrambles a seed so that neighboring enemy indices get unrelated generator states (SplitMix64 finalizer).
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return z == 0 ? 1 : z; // xorshift must not start at 0
+    }
+
+    private static int directionX(int dir) {
+        return dir == Direction.RIGHT.ordinal() ? 1 : dir == Direction.LEFT.ordinal() ? -1 : 0;
+    }
+
+    private static int directionY(int dir) {
+        return dir == Direction.UP.ordinal() ? 1 : dir == Direction.DOWN.ordinal() ? -1 : 0;
+    }
+
+    /**
+     * Configures the simulation tiers.
+     *
+     * @param nearTiles Enemies up to this many tiles from the player tick every frame. At least the detection range.
+     * @param farTiles Enemies further away than this are frozen.
+     * @param midTickInterval Enemies in between tick once every this many frames.
+     * @throws IllegalArgumentException If the thresholds are not ordered or the interval is not positive.
+     */
+    public void setLevelOfDetail(float nearTiles, float farTiles, int midTickInterval) {
+        if (nearTiles * TILE_SIZE < DETECTION_RADIUS || farTiles < nearTiles || midTickInterval <= 0) {
+            throw new IllegalArgumentException("Invalid level of detail: near " + nearTiles + ", far " + farTiles
+                    + ", interval " + midTickInterval);
+        }
+        this.nearDistance = nearTiles * TILE_SIZE;
+        this.farDistance = farTiles * TILE_SIZE;
+        this.midTickInterval = midTickInterval;
+    }
+
+    /**
+     * Gets the number of living enemies that were in a tier during the last tick.
+     *
+     * @param simulationTier The tier.
+     * @return The number of enemies in the tier.
+     */
+    public int getTierCount(SimulationTier simulationTier) {
+        return tierCounts[simulationTier.ordinal()];
+    }
+
+    public SimulationTier getTier(int i) {
+        return TIERS[tier[i]];
+    }
+
+    /**
+     * Lets the parallel phases run in batches on a fork-join pool. Results are identical with or without it.
+     *
+     * @param pool The pool to use, or null to update all enemies on the calling thread.
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    /**
+     * Sets the per-frame pathfinding budget for TIME_SLICED mode.
+     * Without a budget every queued search runs to completion in the tick it is started.
+     *
+     * @param pathfindingBudget The shared budget, or null for unlimited searches.
+     */
+    public void setPathfindingBudget(PathfindingBudget pathfindingBudget) {
+        this.pathfindingBudget = pathfindingBudget;
+    }
+
+    /**
+     * Selects how chasing enemies find their path.
+     *
+     * @param pathfindingMode The pathfinding mode. BACKGROUND requires a pathfinding service.
+     */
+    public void setPathfindingMode(PathfindingMode pathfindingMode) {
+        this.pathfindingMode = pathfindingMode;
+    }
+
+    /**
+     * Sets the dispatcher that receives a message for every enemy that spots the player, loses it or dies.
+     *
+     * @param messageDispatcher The dispatcher, or null to send no messages.
+     */
+    public void setMessageDispatcher(MessageDispatcher messageDispatcher) {
+        this.messageDispatcher = messageDispatcher;
+    }
+
+    /**
+     * Sets the background service used in BACKGROUND mode. Each enemy uses its index as requester id.
+     *
+     * @param pathfindingService The service to request paths from.
+     */
+    public void setPathfindingService(PathfindingService pathfindingService) {
+        this.pathfindingService = pathfindingService;
+        for (int i = 0; i < count; i++) {
+            registerWithService(i);
+        }
+    }
+
+    /**
+     * Lets every update measure the time it spends planning paths: requests, searches and repairs, but not
+     * following the paths. Off by default, since it reads the clock a few times per tick.
+     *
+     * @param timed Whether to measure.
+     */
+    public void setPathfindingTimed(boolean timed) {
+        this.pathfindingTimed = timed;
+        this.pathfindingNanos = 0;
+    }
+
+    /**
+     * @return The time the last update spent planning paths, in nanoseconds, or 0 if it was not measured.
+     */
+    public long getPathfindingNanos() {
+        return pathfindingNanos;
+    }
+
+    /**
+     * Records the enemies into a registry: after every update the number of living enemies in each
+     * {@link EnemyState} ({@code enemies.patrolling}, ...) and of dead ones, and for every path an enemy gets the
+     * time since it first asked for it ({@code pathfinding.latency}): the search in INCREMENTAL mode, the ticks
+     * spent waiting for the frame budget and the search in GDX_AI mode, the wait for a turn of the shared
+     * pathfinder and all slices in TIME_SLICED mode, and the ticks until the delivery in BACKGROUND mode.
+     *
+     * @param registry The registry to record into, or null to record nothing.
+     */
+    public void setMetrics(MetricsRegistry registry) {
+        Arrays.fill(pathRequestedAt, 0);
+        if (registry == null) {
+            stateGauges = null;
+            deadGauge = null;
+            pathLatency = null;
+            return;
+        }
+        stateGauges = new MetricsRegistry.Gauge[STATES.length];
+        for (int s = 0; s < STATES.length; s++) {
+            stateGauges[s] = registry.gauge("enemies." + STATES[s].name().toLowerCase());
+        }
+        deadGauge = registry.gauge("enemies.dead");
+        pathLatency = registry.histogram("pathfinding.latency", "ns");
+    }
+
+    /**
+     * Records every path query the system searches itself, in the TIME_SLICED, INCREMENTAL and GDX_AI modes, and
+     * every time an enemy asks for a new path. In BACKGROUND mode the service searches; give it the statistics
+     * with {@link PathfindingService#setStats(PathfindingStats)}.
+     *
+     * @param pathfindingStats The statistics to record into, or null to record nothing.
+     */
+    public void setPathfindingStats(PathfindingStats pathfindingStats) {
+        this.pathfindingStats = pathfindingStats;
+    }
+
+    /**
+     * @return The number of paths the enemy asked for since it spawned: searches, repairs and service requests.
+     */
+    public int getReplanCount(int i) {
+        return replans[i];
+    }
+
+    /**
+     * @return The number of tiles of the enemy's current path, 0 if it has none.
+     */
+    public int getPathLength(int i) {
+        return pathLength[i];
+    }
+
+    /**
+     * @return The index of the path tile the enemy walks to next; the tiles before it are behind the enemy.
+     */
+    public int getPathIndex(int i) {
+        return pathIndex[i];
+    }
+
+    /**
+     * @return A tile of the enemy's current path, as a cell index ({@code x * height + y}).
+     */
+    public int getPathCell(int i, int k) {
+        return pathCells[i][k];
+    }
+
+    /**
+     * Adds the tiles the last path search explored, as cell indices ({@code x * height + y}), for debug views.
+     * In TIME_SLICED mode these are the tiles of the shared pathfinder's current or last search, in INCREMENTAL
+     * mode the tiles the planner of the last planned enemy knows the distance of, and in BACKGROUND mode the
+     * tiles of the last delivered search if the service {@link PathfindingService#setExploredCaptured(boolean)
+     * captures them}. gdx-ai does not expose its search, so GDX_AI mode adds nothing.
+     *
+     * @param cells The array to add to.
+     */
+    public void copyExploredCells(IntArray cells) {
+        if (pathfindingMode == PathfindingMode.BACKGROUND && pathfindingService != null) {
+            cells.addAll(pathfindingService.getLastExplored());
+        } else if (pathfindingMode == PathfindingMode.INCREMENTAL) {
+            if (lastIncrementalEnemy >= 0 && incrementalPlanners[lastIncrementalEnemy] != null) {
+                incrementalPlanners[lastIncrementalEnemy].copyExploredCells(cells);
+            }
+        } else if (pathfindingMode == PathfindingMode.TIME_SLICED) {
+            pathfinder.copyExploredCells(cells);
+        }
+    }
+
+    private void registerWithService(int i) {
+        pathfindingService.register(i, cells -> onPathFound(i, cells));
+    }
+
+    /**
+     * Releases the planners and service registrations of all enemies.
+     */
+    public void dispose() {
+        for (int i = 0; i < count; i++) {
+            if (incrementalPlanners[i] != null) {
+                incrementalPlanners[i].dispose();
+                incrementalPlanners[i] = null;
+            }
+            if (pathfindingService != null) {
+                pathfindingService.unregister(i);
+            }
+        }
+        if (gdxAiPathfinder != null) {
+            gdxAiPathfinder.dispose();
+            gdxAiPathfinder = null;
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public float getX(int i) {
+        return x[i];
+    }
+
+    public float getY(int i) {
+        return y[i];
+    }
+
+    public float getVelocityX(int i) {
+        return velocityX[i];
+    }
+
+    public float getVelocityY(int i) {
+        return velocityY[i];
+    }
+
+    public EnemyState getState(int i) {
+        return STATES[state[i]];
+    }
+
+    public Direction getDirection(int i) {
+        return DIRECTIONS[direction[i]];
+    }
+
+    public boolean isDead(int i) {
+        return dead[i];
+    }
+
+    public float getStateTime(int i) {
+        return stateTime[i];
+    }
+
+    public float getDeathTime(int i) {
+        return (float) (clock - diedAt[i]);
+    }
+
+    /**
+     * Gets the enemies that noticed the player in the last tick, in index order.
+     *
+     * @return The indices of the enemies that came within detection range.
+     */
+    public IntArray getEnteredRange() {
+        return enteredRange;
+    }
+
+    /**
+     * Gets the enemies that lost sight of the player in the last tick, in index order.
+     *
+     * @return The indices of the enemies that left detection range.
+     */
+    public IntArray getLeftRange() {
+        return leftRange;
+    }
+
+    /**
+     * Gets the enemies that touched the player in the last tick, in index order.
+     *
+     * @return The indices of the enemies whose tile-sized bounds overlap the player's position.
+     */
+    public IntArray getPlayerContacts() {
+        return playerContacts;
+    }
+
+    /**
+     * Grows every per-enemy array to the given capacity.
+     */
+    private void allocate(int capacity) {
+        x = copy(x, capacity);
+        y = copy(y, capacity);
+        velocityX = copy(velocityX, capacity);
+        velocityY = copy(velocityY, capacity);
+        tileX = copy(tileX, capacity);
+        tileY = copy(tileY, capacity);
+        state = state == null ? new byte[capacity] : Arrays.copyOf(state, capacity);
+        direction = direction == null ? new byte[capacity] : Arrays.copyOf(direction, capacity);
+        dead = copy(dead, capacity);
+        randomState = randomState == null ? new long[capacity] : Arrays.copyOf(randomState, capacity);
+        action = action == null ? new byte[capacity] : Arrays.copyOf(action, capacity);
+        tier = tier == null ? new byte[capacity] : Arrays.copyOf(tier, capacity);
+        lastTickTime = copy(lastTickTime, capacity);
+        stepTime = copy(stepTime, capacity);
+        touchingPlayer = copy(touchingPlayer, capacity);
+        distanceSquared = copy(distanceSquared, capacity);
+        inDetectionRange = copy(inDetectionRange, capacity);
+        stateTime = copy(stateTime, capacity);
+        diedAt = copy(diedAt, capacity);
+        retryAt = copy(retryAt, capacity);
+        retryBackoff = copy(retryBackoff, capacity);
+        pathCells = pathCells == null ? new int[capacity][] : Arrays.copyOf(pathCells, capacity);
+        pathLength = copy(pathLength, capacity);
+        pathIndex = copy(pathIndex, capacity);
+        plannedGoalX = copy(plannedGoalX, capacity);
+        plannedGoalY = copy(plannedGoalY, capacity);
+        plannedLayoutVersion = copy(plannedLayoutVersion, capacity);
+        pathRequestPending = copy(pathRequestPending, capacity);
+        needsPlan = copy(needsPlan, capacity);
+        cancelSearch = copy(cancelSearch, capacity);
+        incrementalPlanners = incrementalPlanners == null ? new DStarLite[capacity] : Arrays.copyOf(incrementalPlanners, capacity);
+        queued = copy(queued, capacity);
+        pathRequestedAt = pathRequestedAt == null ? new long[capacity] : Arrays.copyOf(pathRequestedAt, capacity);
+        replans = copy(replans, capacity);
+
+        // The ring buffer is unrolled into the new array so that its order is kept
+        int[] queue = new int[capacity];
+        for (int k = 0; k < queueSize; k++) {
+            queue[k] = searchQueue[(queueHead + k) % searchQueue.length];
+        }
+        searchQueue = queue;
+        queueHead = 0;
+    }
+
+    private static float[] copy(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static double[] copy(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static int[] copy(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static boolean[] copy(boolean[] array, int capacity) {
+        return array == null ? new boolean[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
@@ -0,0 +1,52 @@
+package de.tum.cit.ase.maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the enemies of one tick: how many there are and how much of the simulation they
+ * need. It is recorded at the end of {@link EnemySystem#update(float, float, float)}, as an instant.
+ */
+@Name("de.tum.cit.ase.maze.EntityCount")
+@Label("Entity Count")
+@Category({"Maze Runner", "Simulation"})
+@Description("The enemies of a tick by tier and state")
+@StackTrace(false)
+class EntityCountEvent extends Event {
+    private static final EntityCountEvent PROBE = new EntityCountEvent(); // Never committed
+
+    /**
+     * @return Whether a recording wants the event. Checked before an event is created, so the ticks allocate
+     *         nothing while no recording does.
+     */
+    static boolean isRecorded() {
+        return PROBE.isEnabled();
+    }
+
+    @Label("Enemies")
+    @Description("Enemy slots, dead ones included")
+    int enemies;
+
+    @Label("Alive")
+    int alive;
+
+    @Label("Chasing")
+    int chasing;
+
+    @Label("Near Tier")
+    int near;
+
+    @Label("Mid Tier")
+    int mid;
+
+    @Label("Far Tier")
+    int far;
+
+    @Label("Queued Searches")
+    @Description("Enemies waiting for a time-sliced search")
+    int queuedSearches;
+}
@@ -0,0 +1,128 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Stores for every tile which of its four neighbors can be walked into, as a 4-bit mask with one bit per
+ * {@link Direction} ordinal. A neighbor is open unless it is a wall or outside the maze, the same rule
+ * patrolling enemies use. The masks are computed once when the level loads and then updated for the
+ * neighbors of every tile that changes, so patrols can pick a valid exit in O(1) instead of retrying
+ * random directions.
+ * Tiles with exactly two exits that lie opposite each other are corridor tiles; all others are junctions
+ * or dead ends, where a patrol has a real choice to make.
+ */
+public class ExitMasks implements MazeListener {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int[] DX = new int[DIRECTIONS.length];
+    private static final int[] DY = new int[DIRECTIONS.length];
+    // For every mask, the directions whose bit is set, so the k-th exit is a table lookup
+    private static final byte[][] EXITS = new byte[1 << DIRECTIONS.length][];
+
+    static {
+        for (Direction direction : DIRECTIONS) {
+            DX[direction.ordinal()] = direction == Direction.RIGHT ? 1 : direction == Direction.LEFT ? -1 : 0;
+            DY[direction.ordinal()] = direction == Direction.UP ? 1 : direction == Direction.DOWN ? -1 : 0;
+        }
+        for (int mask = 0; mask < EXITS.length; mask++) {
+            EXITS[mask] = new byte[Integer.bitCount(mask)];
+            int k = 0;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                if ((mask & 1 << d) != 0) {
+                    EXITS[mask][k++] = (byte) d;
+                }
+            }
+        }
+    }
+
+    private final int[][] layout;
+    private final int width;
+    private final int height;
+    private final byte[] masks; // Indexed by x * height + y
+
+    /**
+     * Computes the masks of all tiles and registers for tile changes.
+     *
+     * @param maze The maze to compute the masks for.
+     */
+    public ExitMasks(Maze maze) {
+        this.layout = maze.getLayout();
+        this.width = layout.length;
+        this.height = layout[0].length;
+        this.masks = new byte[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                masks[x * height + y] = computeMask(x, y);
+            }
+        }
+        maze.addListener(this);
+    }
+
+    /**
+     * Gets the open exits of a tile.
+     *
+     * @return The mask with bit {@code 1 << direction.ordinal()} set for every open neighbor, or 0 outside the maze.
+     */
+    public int getMask(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0;
+        }
+        return masks[x * height + y];
+    }
+
+    /**
+     * Checks whether the neighbor of a tile in the given direction can be walked into.
+     */
+    public boolean isOpen(int x, int y, int direction) {
+        return (getMask(x, y) & 1 << direction) != 0;
+    }
+
+    /**
+     * Checks whether a tile is a junction or dead end rather than a straight corridor.
+     */
+    public boolean isJunction(int x, int y) {
+        int mask = getMask(x, y);
+        return mask != (1 << Direction.UP.ordinal() | 1 << Direction.DOWN.ordinal())
+                && mask != (1 << Direction.LEFT.ordinal() | 1 << Direction.RIGHT.ordinal());
+    }
+
+    /**
+     * @return The number of directions set in a mask.
+     */
+    public static int exitCount(int mask) {
+        return EXITS[mask].length;
+    }
+
+    /**
+     * Picks one of the directions set in a mask.
+     *
+     * @param mask A non-empty mask of directions.
+     * @param k The index of the exit, from 0 to {@link #exitCount(int)} - 1.
+     * @return The ordinal of the k-th direction in the mask.
+     */
+    public static int exit(int mask, int k) {
+        return EXITS[mask][k];
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldType, int newType) {
+        if ((oldType == 0) == (newType == 0)) {
+            return; // Still as much of a wall as before
+        }
+        // Only the neighbors see a different exit; the tile's own mask depends on its neighbors
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int nx = x + DX[d], ny = y + DY[d];
+            if (nx >= 0 && ny >= 0 && nx < width && ny < height) {
+                masks[nx * height + ny] = computeMask(nx, ny);
+            }
+        }
+    }
+
+    private byte computeMask(int x, int y) {
+        int mask = 0;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int nx = x + DX[d], ny = y + DY[d];
+            if (nx >= 0 && ny >= 0 && nx < width && ny < height && layout[nx][ny] != 0) {
+                mask |= 1 << d;
+            }
+        }
+        return (byte) mask;
+    }
+}
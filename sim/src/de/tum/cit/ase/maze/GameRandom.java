@@ -0,0 +1,53 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * The one source of gameplay randomness of a game session, such as what a chest drops. Game code draws from
+ * here instead of creating its own {@link java.util.Random}, so a session can be repeated from its seed and
+ * drawing a number allocates nothing. Enemies have their own generators in {@link EnemySystem}.
+ */
+public class GameRandom {
+    private final RandomXS128 random = new RandomXS128();
+    private long seed;
+
+    /**
+     * Creates a generator with a seed of its own.
+     */
+    public GameRandom() {
+        this(new RandomXS128().nextLong());
+    }
+
+    public GameRandom(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Restarts the sequence of numbers from a seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+    }
+
+    /**
+     * @return The seed the current sequence started from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return A number in [0, bound).
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * @return A number in [0, 1).
+     */
+    public float nextFloat() {
+        return random.nextFloat();
+    }
+}
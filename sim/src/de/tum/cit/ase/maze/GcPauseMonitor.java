@@ -0,0 +1,69 @@
+package de.tum.cit.ase.maze;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Records every garbage collection into a {@link MetricsRegistry}: its duration in the {@code gc.pause}
+ * histogram, and per collector ("G1 Young Generation", ...) a count and the total milliseconds. The JVM reports
+ * a collection to the {@link GarbageCollectorMXBean}s after it ended, on a thread of its own, so listening costs
+ * the game's threads nothing.
+ * <p>
+ * The durations are what the collectors report: for the stop-the-world collectors of HotSpot the pause, rounded
+ * to milliseconds.
+ */
+public class GcPauseMonitor implements NotificationListener {
+    private final MetricsRegistry registry;
+    private final MetricsRegistry.Histogram pauses;
+
+    /**
+     * Starts listening to all garbage collectors of the JVM.
+     *
+     * @param registry The registry to record into.
+     */
+    public GcPauseMonitor(MetricsRegistry registry) {
+        this.registry = registry;
+        this.pauses = registry.histogram("gc.pause", "ms");
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+            }
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        long duration = info.getGcInfo().getDuration();
+        pauses.record(duration);
+        String collector = "gc." + info.getGcName().replace(' ', '_');
+        registry.counter(collector + ".count").increment();
+        registry.counter(collector + ".ms").add(duration);
+    }
+
+    /**
+     * Stops listening.
+     */
+    public void dispose() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // Was never added to this collector
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.PathSmoother;
+import com.badlogic.gdx.ai.pfa.SmoothableGraphPath;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.utils.Collision;
+import com.badlogic.gdx.ai.utils.Ray;
+import com.badlogic.gdx.ai.utils.RaycastCollisionDetector;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Finds paths with gdx-ai instead of the in-house {@link AStar}: an {@link IndexedAStarPathFinder} searches the
+ * {@link MazeGraph} of the live maze, and a {@link PathSmoother} then drops every waypoint the enemy can skip by
+ * walking in a straight line. The smoother checks the whole tile-sized body of the enemy along the line, not just
+ * its corner, so a smoothed path never cuts through the corner of a wall.
+ * Searches run to completion in one call; the caller is responsible for rationing them.
+ */
+public class GdxAiPathfinder {
+    private static final float SWEEP_STEP = 1 / 16f; // Tiles between the samples of a line-of-sight check: one pixel
+
+    private final MazeGraph graph;
+    private final IndexedAStarPathFinder<MazeGraph.Tile> pathFinder;
+    private final BodySweep sweep = new BodySweep();
+    private final PathSmoother<MazeGraph.Tile, Vector2> smoother;
+    private final Ray<Vector2> firstRay = new Ray<>(new Vector2(), new Vector2());
+    private final TilePath path = new TilePath();
+    private final Heuristic<MazeGraph.Tile> heuristic;
+    private boolean smoothing = true;
+    private int firstWaypoint; // 0 if the last path starts with its start tile, 1 if the body can skip it
+    private boolean found; // Whether the last search reached its goal, or started on it
+
+    /**
+     * Builds the graph of the maze and registers it for tile changes.
+     *
+     * @param maze The maze to search.
+     */
+    public GdxAiPathfinder(Maze maze) {
+        this.graph = new MazeGraph(maze);
+        this.pathFinder = new IndexedAStarPathFinder<>(graph, true); // Metrics count the visited nodes
+        this.smoother = new PathSmoother<>(sweep);
+        this.heuristic = (node, end) -> {
+            Landmarks landmarks = maze.getLandmarks();
+            if (landmarks != null) {
+                return landmarks.estimate(node.x, node.y, end.x, end.y);
+            }
+            return Grid.STEP_COST * (Math.abs(node.x - end.x) + Math.abs(node.y - end.y)); // Manhattan, like AStar
+        };
+    }
+
+    /**
+     * Turns path smoothing on or off; without it the path visits every tile like the in-house A*.
+     */
+    public void setSmoothing(boolean smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    /**
+     * Searches a path between two tiles.
+     *
+     * @return The number of waypoints of the path found, without the start tile, or 0 if there is none.
+     */
+    public int findPath(int startX, int startY, int goalX, int goalY) {
+        return findPath((float) startX, (float) startY, goalX, goalY);
+    }
+
+    /**
+     * Searches a path from a body that may stand between tiles to a tile. The search starts on the tile the body
+     * overlaps most, and smoothing starts at the body itself. If the body cannot walk straight to the first
+     * waypoint, it first steps onto that start tile, which only ever takes it over tiles it already overlaps.
+     *
+     * @param fromX The x coordinate of the body's bottom left corner, in tiles.
+     * @param fromY The y coordinate of the body's bottom left corner, in tiles.
+     * @return The number of waypoints of the path found, or 0 if there is none.
+     */
+    public int findPath(float fromX, float fromY, int goalX, int goalY) {
+        if (!PathfindingQueryEvent.isRecorded()) {
+            return search(fromX, fromY, goalX, goalY);
+        }
+        PathfindingQueryEvent event = new PathfindingQueryEvent();
+        event.begin();
+        int length = search(fromX, fromY, goalX, goalY);
+        event.end();
+        if (event.shouldCommit()) {
+            event.engine = PathfindingQueryEvent.GDX_AI;
+            event.startX = Math.round(fromX);
+            event.startY = Math.round(fromY);
+            event.goalX = goalX;
+            event.goalY = goalY;
+            event.nodesExpanded = getVisitedNodes();
+            event.openPeak = getOpenPeak();
+            event.pathLength = length;
+            event.finished = true;
+            event.commit();
+        }
+        return length;
+    }
+
+    private int search(float fromX, float fromY, int goalX, int goalY) {
+        path.clear();
+        path.start.set(fromX, fromY);
+        firstWaypoint = 1;
+        MazeGraph.Tile start = graph.getTile(Math.round(fromX), Math.round(fromY));
+        MazeGraph.Tile goal = graph.getTile(goalX, goalY);
+        if (start == null || goal == null || start == goal || !graph.isWalkable(goalX, goalY)) {
+            pathFinder.metrics.reset();
+            found = start != null && start == goal;
+            return 0;
+        }
+        found = pathFinder.searchNodePath(start, goal, heuristic, path);
+        if (!found) {
+            path.clear();
+            return 0;
+        }
+        if (smoothing) {
+            smoother.smoothPath(path);
+        }
+        // The smoother takes the first line for granted, since it joins neighbors on the grid
+        if (!path.start.equals(start.position)) {
+            firstRay.start.set(path.start);
+            firstRay.end.set(path.get(1).position);
+            if (sweep.collides(firstRay)) {
+                firstWaypoint = 0;
+            }
+        }
+        return path.getCount() - firstWaypoint;
+    }
+
+    /**
+     * Copies the waypoints of the last path as cell indices ({@code x * height + y}).
+     *
+     * @param cells The array to fill; must have room for all waypoints.
+     */
+    public void copyPath(int[] cells) {
+        for (int k = firstWaypoint; k < path.getCount(); k++) {
+            cells[k - firstWaypoint] = path.get(k).index;
+        }
+    }
+
+    /**
+     * @return The number of nodes the last search visited.
+     */
+    public int getVisitedNodes() {
+        return pathFinder.metrics.visitedNodes;
+    }
+
+    /**
+     * @return Whether the last search found a path; a search that starts on its goal finds an empty one.
+     */
+    public boolean isPathFound() {
+        return found;
+    }
+
+    /**
+     * @return The largest number of nodes the open list of the last search held.
+     */
+    public int getOpenPeak() {
+        return pathFinder.metrics.openListPeak;
+    }
+
+    /**
+     * Stops listening to the maze.
+     */
+    public void dispose() {
+        graph.dispose();
+    }
+
+    /**
+     * A node path whose waypoints the smoother can read as positions and remove.
+     */
+    private static final class TilePath extends DefaultGraphPath<MazeGraph.Tile>
+            implements SmoothableGraphPath<MazeGraph.Tile, Vector2> {
+        private final Vector2 start = new Vector2(); // Where the body is; the smoother never moves the first node
+
+        @Override
+        public Vector2 getNodePosition(int index) {
+            return index == 0 ? start : nodes.get(index).position;
+        }
+
+        @Override
+        public void swapNodes(int index1, int index2) {
+            nodes.set(index1, nodes.get(index2));
+        }
+
+        @Override
+        public void truncatePath(int newLength) {
+            nodes.truncate(newLength);
+        }
+    }
+
+    /**
+     * Line of sight for a body one tile in size: the body is moved along the ray pixel by pixel and every tile it
+     * overlaps on the way has to be walkable. Positions are the bottom left corners of tiles, in tiles.
+     */
+    private final class BodySweep implements RaycastCollisionDetector<Vector2> {
+        @Override
+        public boolean collides(Ray<Vector2> ray) {
+            float dx = ray.end.x - ray.start.x;
+            float dy = ray.end.y - ray.start.y;
+            int steps = Math.max(1, (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)) / SWEEP_STEP));
+            for (int s = 0; s <= steps; s++) {
+                float px = ray.start.x + dx * s / steps;
+                float py = ray.start.y + dy * s / steps;
+                int left = (int) Math.floor(px), bottom = (int) Math.floor(py);
+                int right = (int) Math.ceil(px), top = (int) Math.ceil(py);
+                if (!graph.isWalkable(left, bottom) || !graph.isWalkable(right, bottom)
+                        || !graph.isWalkable(left, top) || !graph.isWalkable(right, top)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Only tells whether the ray collides; the smoother does not need the collision point.
+         */
+        @Override
+        public boolean findCollision(Collision<Vector2> outputCollision, Ray<Vector2> inputRay) {
+            return collides(inputRay);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The tile grid the pathfinders search: every tile connects to its four cardinal neighbors, one step each.
+ * Keeping the neighbors and the step cost in one place lets the costs of AStar, D* Lite, gdx-ai and the landmark
+ * heuristic be compared with each other.
+ */
+final class Grid {
+    // Cost of one cardinal step; paths cost and heuristics estimate in these units
+    static final int STEP_COST = 10;
+    // Offsets of the four cardinal neighbors as (dx, dy) pairs; must not be written to
+    static final int[] NEIGHBOR_OFFSETS = {0, 1, 0, -1, 1, 0, -1, 0};
+
+    private Grid() {
+    }
+}
@@ -0,0 +1,257 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A recording of the input of one level, tick by tick, that can be replayed to repeat the level exactly: the held
+ * keys and the length of every tick, together with the seed of the level's randomness and a hash of the maze it
+ * was played in. The end state of the level can be stored with it, as a {@link Simulation#checksum()}, so a
+ * replay can tell whether it ended the same way.
+ * <p>
+ * Consecutive ticks with the same keys and length are stored as one run, which keeps a recording at a few bytes
+ * per key change. The binary form is: magic, version, seed, layout hash, whether there is an end state and its
+ * checksum, the number of runs, then per run the tick count as a varint, the keys as a byte and the tick length
+ * as a float.
+ */
+public class InputLog {
+    /**
+     * Input bit of the key that opens chests; the game handles it, the simulation ignores it.
+     */
+    public static final int INTERACT = 1 << 4;
+    private static final int MAGIC = 0x4D5A494C; // "MZIL"
+    private static final int VERSION = 1;
+
+    private final long seed;
+    private final long layoutHash;
+    private final IntArray runTicks = new IntArray();
+    private final IntArray runInputs = new IntArray();
+    private final FloatArray runDeltas = new FloatArray();
+    private int tickCount;
+    private boolean hasEndChecksum;
+    private long endChecksum;
+    // Replay cursor
+    private int run = -1;
+    private int left; // Ticks left in the current run
+    private int ticksReplayed;
+
+    /**
+     * Starts an empty recording.
+     *
+     * @param seed The seed the level's randomness was started from.
+     * @param layoutHash The {@link #hashLayout(int[][])} of the maze at the start of the level.
+     */
+    public InputLog(long seed, long layoutHash) {
+        this.seed = seed;
+        this.layoutHash = layoutHash;
+    }
+
+    /**
+     * Hashes a maze layout, so a replay can make sure it runs in the maze it was recorded in.
+     */
+    public static long hashLayout(int[][] layout) {
+        long hash = 0xCBF29CE484222325L; // FNV-1a
+        for (int[] column : layout) {
+            hash = (hash ^ column.length) * 0x100000001B3L;
+            for (int type : column) {
+                hash = (hash ^ type) * 0x100000001B3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Appends one tick.
+     *
+     * @param input The held keys, as a combination of {@link Simulation#inputBit(Direction)} and {@link #INTERACT}.
+     * @param delta The length of the tick, in seconds.
+     */
+    public void record(int input, float delta) {
+        int last = runTicks.size - 1;
+        if (last >= 0 && runInputs.get(last) == input && runDeltas.get(last) == delta) {
+            runTicks.incr(last, 1);
+        } else {
+            runTicks.add(1);
+            runInputs.add(input);
+            runDeltas.add(delta);
+        }
+        tickCount++;
+    }
+
+    /**
+     * Stores the state the level ended in after the recorded ticks.
+     *
+     * @param checksum The {@link Simulation#checksum()} after the last tick.
+     */
+    public void setEndChecksum(long checksum) {
+        this.hasEndChecksum = true;
+        this.endChecksum = checksum;
+    }
+
+    /**
+     * Starts the replay over from the first tick.
+     */
+    public void rewind() {
+        run = -1;
+        left = 0;
+        ticksReplayed = 0;
+    }
+
+    /**
+     * @return Whether there are ticks left to replay.
+     */
+    public boolean hasNext() {
+        return ticksReplayed < tickCount;
+    }
+
+    /**
+     * Advances the replay by one tick.
+     *
+     * @return The keys held in the tick.
+     * @throws IllegalStateException If every tick has been replayed.
+     */
+    public int next() {
+        if (!hasNext()) {
+            throw new IllegalStateException("The recording has no more ticks");
+        }
+        if (left == 0) {
+            run++;
+            left = runTicks.get(run);
+        }
+        left--;
+        ticksReplayed++;
+        return runInputs.get(run);
+    }
+
+    /**
+     * @return The length of the tick last returned by {@link #next()}, in seconds.
+     */
+    public float getDelta() {
+        return runDeltas.get(run);
+    }
+
+    /**
+     * Writes the binary form.
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeLong(layoutHash);
+        out.writeBoolean(hasEndChecksum);
+        out.writeLong(endChecksum);
+        writeVarInt(out, runTicks.size);
+        for (int i = 0; i < runTicks.size; i++) {
+            writeVarInt(out, runTicks.get(i));
+            out.writeByte(runInputs.get(i));
+            out.writeFloat(runDeltas.get(i));
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads the binary form.
+     *
+     * @throws IOException If the stream fails or does not hold a recording of this version.
+     */
+    public static InputLog read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an input recording");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported input recording version " + version);
+        }
+        InputLog log = new InputLog(in.readLong(), in.readLong());
+        boolean hasEndChecksum = in.readBoolean();
+        long endChecksum = in.readLong();
+        if (hasEndChecksum) {
+            log.setEndChecksum(endChecksum);
+        }
+        int runs = readVarInt(in);
+        for (int i = 0; i < runs; i++) {
+            int ticks = readVarInt(in);
+            if (ticks < 1) {
+                throw new IOException("Run " + i + " has no ticks");
+            }
+            log.runTicks.add(ticks);
+            log.runInputs.add(in.readUnsignedByte());
+            log.runDeltas.add(in.readFloat());
+            log.tickCount += ticks;
+        }
+        log.rewind();
+        return log;
+    }
+
+    /**
+     * Writes the recording to a file, replacing it.
+     */
+    public void save(FileHandle file) {
+        try (OutputStream out = file.write(false)) {
+            write(out);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write input recording " + file, e);
+        }
+    }
+
+    /**
+     * Reads a recording from a file.
+     */
+    public static InputLog load(FileHandle file) {
+        try (InputStream in = file.read()) {
+            return read(in);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read input recording " + file, e);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getLayoutHash() {
+        return layoutHash;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public boolean hasEndChecksum() {
+        return hasEndChecksum;
+    }
+
+    public long getEndChecksum() {
+        return endChecksum;
+    }
+}
@@ -0,0 +1,111 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * A sequence of held inputs for driving a {@link Simulation} without a keyboard. The script is a list of runs,
+ * each holding a combination of {@link Simulation#inputBit(Direction)} for a number of ticks, and repeats from
+ * the start when it runs out.
+ * <p>
+ * The text form has one run per line: the number of ticks and the held directions joined by {@code +}, or
+ * {@code NONE}, e.g. {@code 90 UP+LEFT}. Empty lines and lines starting with {@code #} are skipped.
+ */
+public class InputScript {
+    private final IntArray runTicks = new IntArray();
+    private final IntArray runInputs = new IntArray();
+    private int run; // Current run
+    private int left; // Ticks left in the current run
+
+    /**
+     * Parses the text form of a script.
+     *
+     * @throws IllegalArgumentException If a line is malformed or the script holds no ticks.
+     */
+    public static InputScript parse(String text) {
+        InputScript script = new InputScript();
+        String[] lines = text.split("\\R");
+        for (int number = 0; number < lines.length; number++) {
+            String line = lines[number].trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Line " + (number + 1) + ": expected <ticks> <directions>");
+            }
+            int input = 0;
+            if (!parts[1].equalsIgnoreCase("NONE")) {
+                for (String name : parts[1].split("\\+")) {
+                    try {
+                        input |= Simulation.inputBit(Direction.valueOf(name.toUpperCase()));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Line " + (number + 1) + ": unknown direction " + name);
+                    }
+                }
+            }
+            try {
+                script.add(Integer.parseInt(parts[0]), input);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Line " + (number + 1) + ": bad tick count " + parts[0]);
+            }
+        }
+        if (script.runTicks.isEmpty()) {
+            throw new IllegalArgumentException("The script holds no ticks");
+        }
+        return script;
+    }
+
+    /**
+     * Builds a script of a random walk: each run holds one direction for a random number of ticks.
+     *
+     * @param runs The number of runs before the walk repeats.
+     * @param seed The seed of the walk.
+     */
+    public static InputScript randomWalk(int runs, long seed) {
+        RandomXS128 random = new RandomXS128(seed);
+        Direction[] directions = Direction.values();
+        InputScript script = new InputScript();
+        for (int i = 0; i < runs; i++) {
+            script.add(10 + random.nextInt(50), Simulation.inputBit(directions[random.nextInt(directions.length)]));
+        }
+        return script;
+    }
+
+    /**
+     * Appends a run.
+     *
+     * @param ticks The number of ticks to hold the input, at least 1.
+     * @param input The held directions.
+     */
+    public void add(int ticks, int input) {
+        if (ticks < 1) {
+            throw new IllegalArgumentException("A run lasts at least one tick");
+        }
+        runTicks.add(ticks);
+        runInputs.add(input);
+        if (runTicks.size == 1) {
+            rewind();
+        }
+    }
+
+    /**
+     * @return The input of the next tick.
+     */
+    public int next() {
+        if (left == 0) {
+            run = (run + 1) % runTicks.size;
+            left = runTicks.get(run);
+        }
+        left--;
+        return runInputs.get(run);
+    }
+
+    /**
+     * Starts over from the first run.
+     */
+    public void rewind() {
+        run = 0;
+        left = runTicks.get(0);
+    }
+}
@@ -0,0 +1,231 @@
+package de.tum.cit.ase.maze;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed landmark distances for the ALT ("A*, landmarks, triangle inequality") heuristic.
+ * For a few landmark tiles the walking distance to every tile is stored. By the triangle inequality
+ * |d(L, a) - d(L, b)| never exceeds the real distance between a and b, and in a winding maze it is usually
+ * much closer to it than the Manhattan distance, so A* expands far fewer nodes.
+ * Landmarks are the walkable tiles nearest to the four corners, the entry, the exit and the key, topped up with
+ * the tiles farthest from all landmarks chosen so far. Distances are stored in one short[] per landmark, or in
+ * an int[] for mazes with more tiles than a short can count.
+ * A Landmarks instance is immutable and belongs to one layout version of a maze.
+ */
+public final class Landmarks implements AStar.Heuristic {
+    private static final int UNREACHABLE = -1;
+    private static final int SHORT_UNREACHABLE = 0xFFFF; // Distances are stored as unsigned shorts
+
+    private final int width;
+    private final int height;
+    private final int version;
+    private final int[] landmarkCells; // x * height + y of each landmark
+    private final short[][] shortDistances; // Used when the maze has fewer than 0xFFFF tiles
+    private final int[][] intDistances; // Used otherwise
+
+    private Landmarks(int width, int height, int version, int[] landmarkCells, int[][] distances) {
+        this.width = width;
+        this.height = height;
+        this.version = version;
+        this.landmarkCells = landmarkCells;
+        if (width * height < SHORT_UNREACHABLE) {
+            this.shortDistances = new short[distances.length][];
+            for (int i = 0; i < distances.length; i++) {
+                short[] compact = new short[distances[i].length];
+                for (int cell = 0; cell < compact.length; cell++) {
+                    int distance = distances[i][cell];
+                    compact[cell] = (short) (distance == UNREACHABLE ? SHORT_UNREACHABLE : distance);
+                }
+                this.shortDistances[i] = compact;
+            }
+            this.intDistances = null;
+        } else {
+            this.shortDistances = null;
+            this.intDistances = distances;
+        }
+    }
+
+    /**
+     * Selects up to the given number of landmarks and computes their distances with one breadth-first search each.
+     *
+     * @param layout The maze layout, indexed as layout[x][y]. Only floor tiles (-1) are walkable.
+     * @param count The maximum number of landmarks.
+     * @param version The layout version the distances belong to.
+     * @return The landmark data.
+     */
+    public static Landmarks compute(int[][] layout, int count, int version) {
+        int width = layout.length;
+        int height = layout[0].length;
+        int[] candidates = new int[count];
+        int chosen = 0;
+
+        // Corners first, then the entry, exit and key tiles
+        int[][] corners = {{0, 0}, {width - 1, 0}, {0, height - 1}, {width - 1, height - 1}};
+        for (int[] corner : corners) {
+            chosen = addCandidate(candidates, chosen, nearestWalkable(layout, corner[0], corner[1]));
+        }
+        for (int type : new int[]{1, 2, 5}) {
+            chosen = addCandidate(candidates, chosen, findTile(layout, type));
+        }
+
+        int[][] distances = new int[count][];
+        int[] nearest = new int[width * height]; // Distance to the nearest landmark so far, for farthest-point fill
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        for (int i = 0; i < chosen; i++) {
+            distances[i] = breadthFirst(layout, candidates[i]);
+            keepNearest(nearest, distances[i]);
+        }
+        while (chosen < count) {
+            int farthest = -1;
+            for (int cell = 0; cell < nearest.length; cell++) {
+                if (nearest[cell] != Integer.MAX_VALUE && (farthest < 0 || nearest[cell] > nearest[farthest])) {
+                    farthest = cell;
+                }
+            }
+            if (farthest < 0 || nearest[farthest] == 0) {
+                break; // Every reachable tile already is a landmark
+            }
+            candidates[chosen] = farthest;
+            distances[chosen] = breadthFirst(layout, farthest);
+            keepNearest(nearest, distances[chosen]);
+            chosen++;
+        }
+        return new Landmarks(width, height, version, Arrays.copyOf(candidates, chosen), Arrays.copyOf(distances, chosen));
+    }
+
+    @Override
+    public float estimate(int fromX, int fromY, int toX, int toY) {
+        int best = Math.abs(fromX - toX) + Math.abs(fromY - toY);
+        int from = fromX * height + fromY;
+        int to = toX * height + toY;
+        for (int i = 0; i < landmarkCells.length; i++) {
+            int fromDistance = distance(i, from);
+            int toDistance = distance(i, to);
+            if (fromDistance == UNREACHABLE || toDistance == UNREACHABLE) {
+                continue;
+            }
+            int bound = Math.abs(fromDistance - toDistance);
+            if (bound > best) {
+                best = bound;
+            }
+        }
+        return best * Grid.STEP_COST;
+    }
+
+    /**
+     * Gets the walking distance from a landmark to a tile.
+     *
+     * @param landmark The index of the landmark.
+     * @param cell The tile as x * height + y.
+     * @return The number of steps, or -1 if the tile cannot be reached from the landmark.
+     */
+    public int distance(int landmark, int cell) {
+        if (shortDistances != null) {
+            int distance = shortDistances[landmark][cell] & 0xFFFF;
+            return distance == SHORT_UNREACHABLE ? UNREACHABLE : distance;
+        }
+        return intDistances[landmark][cell];
+    }
+
+    public int getLandmarkCount() {
+        return landmarkCells.length;
+    }
+
+    public int getLandmarkX(int landmark) {
+        return landmarkCells[landmark] / height;
+    }
+
+    public int getLandmarkY(int landmark) {
+        return landmarkCells[landmark] % height;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The number of bytes used by the distance tables.
+     */
+    public int getMemoryBytes() {
+        int perTable = width * height * (shortDistances != null ? Short.BYTES : Integer.BYTES);
+        return perTable * landmarkCells.length;
+    }
+
+    private static int addCandidate(int[] candidates, int chosen, int cell) {
+        if (cell < 0 || chosen == candidates.length) {
+            return chosen;
+        }
+        for (int i = 0; i < chosen; i++) {
+            if (candidates[i] == cell) {
+                return chosen;
+            }
+        }
+        candidates[chosen] = cell;
+        return chosen + 1;
+    }
+
+    private static int findTile(int[][] layout, int type) {
+        for (int x = 0; x < layout.length; x++) {
+            for (int y = 0; y < layout[x].length; y++) {
+                if (layout[x][y] == type) {
+                    return x * layout[0].length + y;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int nearestWalkable(int[][] layout, int cornerX, int cornerY) {
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int x = 0; x < layout.length; x++) {
+            for (int y = 0; y < layout[x].length; y++) {
+                int distance = Math.abs(x - cornerX) + Math.abs(y - cornerY);
+                if (layout[x][y] == -1 && distance < bestDistance) {
+                    best = x * layout[0].length + y;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static void keepNearest(int[] nearest, int[] distances) {
+        for (int cell = 0; cell < nearest.length; cell++) {
+            if (distances[cell] != UNREACHABLE && distances[cell] < nearest[cell]) {
+                nearest[cell] = distances[cell];
+            }
+        }
+    }
+
+    /**
+     * Computes the number of steps from a source tile to every walkable tile.
+     * The source itself may be a non-walkable tile such as the entry or the key.
+     */
+    private static int[] breadthFirst(int[][] layout, int source) {
+        int width = layout.length;
+        int height = layout[0].length;
+        int[] distances = new int[width * height];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[width * height];
+        int head = 0, tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell / height, y = cell % height;
+            for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+                int nx = x + Grid.NEIGHBOR_OFFSETS[i], ny = y + Grid.NEIGHBOR_OFFSETS[i + 1];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height || layout[nx][ny] != -1) {
+                    continue;
+                }
+                int neighbor = nx * height + ny;
+                if (distances[neighbor] == UNREACHABLE) {
+                    distances[neighbor] = distances[cell] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return distances;
+    }
+}
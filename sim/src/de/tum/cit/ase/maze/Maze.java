@@ -0,0 +1,440 @@
+package de.tum.cit.ase.maze;
+import com.badlogic.gdx.files.FileHandle;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+
+/**
+ * The Maze class is responsible for loading, parsing, and storing the layout of the maze.
+ * It reads a maze configuration from a .properties file and represents it as a 2D grid.
+ * The grid holds two layers: the static tiles of the level (walls, traps, keys, ...), which only change through
+ * {@link #setElementAt(int, int, int)}, and an occupancy layer that counts the moving entities on each tile.
+ * Enemy spawn tiles are turned into floor tiles when the level is loaded and remembered as spawn points,
+ * so enemies walking around never change the static layer or the caches built from it.
+ */
+public class Maze {
+    private static final float TILE_SIZE = 16;
+    private int[][] layout; // Static tiles
+    private int[] occupants; // Number of moving entities per tile, indexed by x * height + y
+    private final IntArray enemySpawns = new IntArray(); // Spawn tiles as x * height + y
+    private boolean isValidMaze = false;
+    private int layoutVersion = 0; // Incremented whenever a tile of the layout changes
+    private long collisionQueries; // Calls of checkCollision so far
+    private MazeSnapshot snapshot; // Walkability copy for background pathfinding, rebuilt per version
+    private final Array<MazeListener> listeners = new Array<>(false, 4);
+    private int landmarkCount = 0; // 0 disables the landmark heuristic
+    private Landmarks landmarks; // Cached landmark distances for the current layout version
+    private WalkableComponents components; // Created on first use, then kept up to date as a listener
+    private ExitMasks exitMasks; // Likewise
+
+    /**
+     * Constructor for the Maze class.
+     * Loads and parses the maze configuration from the given file.
+     *
+     * @param fileHandle The handle to the .properties file containing the maze layout.
+     */
+    public Maze(FileHandle fileHandle) {
+        if (fileHandle == null || !fileHandle.exists()) {
+            System.err.println("Maze file is null or does not exist.");
+            return;
+        }
+
+        MazeLoadEvent event = new MazeLoadEvent();
+        event.begin();
+        Properties properties = new Properties();
+        try {
+            properties.load(fileHandle.read());
+            int[] size = determineMazeSize(properties);
+            if (size[0] > 0 && size[1] > 0) {
+                layout = new int[size[0]][size[1]];
+                // Initialize the layout with floor value (-1)
+                for (int i = 0; i < layout.length; i++) {
+                    Arrays.fill(layout[i], -1); // Fill row with floor value
+                }
+                parseProperties(properties);
+                extractEnemySpawns();
+                isValidMaze = true;
+            } else {
+                System.err.println("Invalid maze size determined from the file.");
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading maze file: " + e.getMessage());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid number format in maze file: " + e.getMessage());
+        }
+        commit(event, fileHandle.path());
+    }
+
+    /**
+     * Constructor for a maze that was not loaded from a file, e.g. one created by the {@link MazeGenerator}.
+     * The layout array is used directly, not copied, and its enemy tiles are replaced by floor.
+     *
+     * @param layout The maze layout, indexed as layout[x][y].
+     */
+    public Maze(int[][] layout) {
+        if (layout == null || layout.length == 0 || layout[0].length == 0) {
+            System.err.println("Maze layout is null or empty.");
+            return;
+        }
+        MazeLoadEvent event = new MazeLoadEvent();
+        event.begin();
+        this.layout = layout;
+        extractEnemySpawns();
+        isValidMaze = true;
+        commit(event, "generated");
+    }
+
+    /**
+     * Records the loading of the maze with the flight recorder, if it is recording.
+     */
+    private void commit(MazeLoadEvent event, String source) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.width = layout == null ? 0 : layout.length;
+            event.height = layout == null ? 0 : layout[0].length;
+            event.enemySpawns = enemySpawns.size;
+            event.valid = isValidMaze;
+            event.commit();
+        }
+    }
+
+    /**
+     * Moves the enemies out of the static layer: their tiles become floor and are kept as spawn points.
+     * Also sets up the empty occupancy layer.
+     */
+    private void extractEnemySpawns() {
+        int height = layout[0].length;
+        occupants = new int[layout.length * height];
+        for (int x = 0; x < layout.length; x++) {
+            for (int y = 0; y < height; y++) {
+                if (layout[x][y] == 4) {
+                    layout[x][y] = -1;
+                    enemySpawns.add(x * height + y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determines the size of the maze based on the properties file.
+     *
+     * @param properties The properties object containing the maze data.
+     * @return An array containing the width and height of the maze.
+     */
+    private int[] determineMazeSize(Properties properties) {
+        int maxWidth = 0;
+        int maxHeight = 0;
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                String[] coords = key.split(",");
+                int x = Integer.parseInt(coords[0]);
+                int y = Integer.parseInt(coords[1]);
+                if (x > maxWidth) maxWidth = x;
+                if (y > maxHeight) maxHeight = y;
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid coordinate format: " + key);
+            }
+        }
+        return new int[]{maxWidth + 1, maxHeight + 1};
+    }
+
+    /**
+     * Parses the properties file and fills the maze layout.
+     *
+     * @param properties The properties object containing the maze data.
+     */
+    private void parseProperties(Properties properties) {
+        properties.forEach((key, value) -> {
+            try {
+                String[] coords = ((String) key).split(",");
+                int x = Integer.parseInt(coords[0]);
+                int y = Integer.parseInt(coords[1]);
+                int type = Integer.parseInt((String) value);
+                layout[x][y] = type;
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid format in maze file for key: " + key);
+            }
+        });
+    }
+
+    /**
+     * Gets the static layer of the maze as a 2D integer array. Enemies are not part of it.
+     *
+     * @return The 2D array representing the maze.
+     */
+    public int[][] getLayout() {
+        return layout;
+    }
+
+
+    /**
+     * Checks for collisions between the character and specific tiles in the maze based on the character's intended movement.
+     * It uses the character's bounding box and checks if it overlaps with tiles that represent walls, doors, traps, enemies, etc.
+     * Static tiles take precedence; an enemy (4) is reported for a tile that has no static obstacle but is occupied.
+     *
+     * @param characterBounds The bounding box of the character after movement.
+     * @param hasKey A boolean indicating if the character has a key (for locked doors).
+     * @return The type of element the character collides with, or -1 if there is no collision.
+     */
+    public int checkCollision(Rectangle characterBounds, boolean hasKey) {
+        collisionQueries++;
+        if (!CollisionSweepEvent.isRecorded()) {
+            return sweepCorners(characterBounds, hasKey);
+        }
+        CollisionSweepEvent event = new CollisionSweepEvent();
+        event.begin();
+        int result = sweepCorners(characterBounds, hasKey);
+        event.end();
+        if (event.shouldCommit()) {
+            event.x = characterBounds.x;
+            event.y = characterBounds.y;
+            event.result = result;
+            event.commit();
+        }
+        return result;
+    }
+
+    private int sweepCorners(Rectangle characterBounds, boolean hasKey) {
+        // Check each corner of the character's bounding box
+        for (float checkX = characterBounds.x; checkX <= characterBounds.x + characterBounds.width; checkX += characterBounds.width) {
+            for (float checkY = characterBounds.y; checkY <= characterBounds.y + characterBounds.height; checkY += characterBounds.height) {
+                int gridX = (int) (checkX / TILE_SIZE);
+                int gridY = (int) (checkY / TILE_SIZE);
+
+                if (gridX < 0 || gridY < 0 || gridX >= layout.length || gridY >= layout[0].length) {
+                    return 0;
+                }
+
+                int tileType = layout[gridX][gridY];
+                switch (tileType) {
+                    case 0: // Wall
+                        return 0;
+                    case 2: // Exit
+                        if (!hasKey) return 2;
+                        if (hasKey) return 22;
+
+                        // Collision with locked door if no key
+                    case 3: // Trap
+                        return 3;
+                    case 4: // Enemy
+                        return 4;
+                    case 5: // Key
+                        return 5;
+                    // Add additional cases as needed
+                }
+                if (occupants[gridX * layout[0].length + gridY] > 0) {
+                    return 4; // Enemy
+                }
+            }
+        }
+
+        return -1; // No collision detected
+    }
+
+
+    /**
+     * Gets the type of element at the specified coordinates.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @return The type of element at the coordinates, or -1 if out of bounds.
+     */
+    public int getElementAt(int x, int y) {
+        // Check bounds
+        if (x < 0 || y < 0 || x >= layout.length || y >= layout[0].length) {
+            return -1; // Indicating out of bounds or no element
+        }
+        return layout[x][y];
+    }
+    /**
+     * Sets the type of element at the specified coordinates in the static layer, e.g. for a door that opens.
+     * Moving entities must use {@link #occupy(int, int)} and {@link #vacate(int, int)} instead.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @param elementType The type of element to set at the coordinates.
+     */
+    public void setElementAt(int x, int y, int elementType) {
+        // Check bounds to avoid ArrayIndexOutOfBoundsException
+        if (x >= 0 && y >= 0 && x < layout.length && y < layout[0].length && layout[x][y] != elementType) {
+            int oldType = layout[x][y];
+            layout[x][y] = elementType;
+            layoutVersion++;
+            for (int i = 0; i < listeners.size; i++) {
+                listeners.get(i).tileChanged(x, y, oldType, elementType);
+            }
+        }
+    }
+
+    /**
+     * Records that a moving entity entered a tile. Only the occupancy layer changes, so the layout version,
+     * snapshots and other caches of the static layer stay valid.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void occupy(int x, int y) {
+        if (x >= 0 && y >= 0 && x < layout.length && y < layout[0].length) {
+            occupants[x * layout[0].length + y]++;
+        }
+    }
+
+    /**
+     * Records that a moving entity left a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     */
+    public void vacate(int x, int y) {
+        if (x >= 0 && y >= 0 && x < layout.length && y < layout[0].length && occupants[x * layout[0].length + y] > 0) {
+            occupants[x * layout[0].length + y]--;
+        }
+    }
+
+    /**
+     * Gets the number of moving entities on a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The number of occupants, or 0 if out of bounds.
+     */
+    public int getOccupantCount(int x, int y) {
+        if (x < 0 || y < 0 || x >= layout.length || y >= layout[0].length) {
+            return 0;
+        }
+        return occupants[x * layout[0].length + y];
+    }
+
+    /**
+     * Removes all moving entities from the occupancy layer, e.g. before a level is restarted.
+     */
+    public void clearOccupants() {
+        Arrays.fill(occupants, 0);
+    }
+
+    /**
+     * @return The number of enemy spawn points of the level.
+     */
+    public int getEnemySpawnCount() {
+        return enemySpawns.size;
+    }
+
+    public int getEnemySpawnX(int index) {
+        return enemySpawns.get(index) / layout[0].length;
+    }
+
+    public int getEnemySpawnY(int index) {
+        return enemySpawns.get(index) % layout[0].length;
+    }
+
+    /**
+     * Registers a listener that is notified whenever a tile of the layout changes.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(MazeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeListener(MazeListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    /**
+     * Gets the version of the layout. It changes every time {@link #setElementAt(int, int, int)} modifies a tile,
+     * so it can be used to detect results that were computed against an outdated layout.
+     *
+     * @return The current layout version.
+     */
+    public int getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    /**
+     * @return The number of calls of {@link #checkCollision(Rectangle, boolean)} since the maze was loaded.
+     */
+    public long getCollisionQueries() {
+        return collisionQueries;
+    }
+
+    /**
+     * Gets an immutable copy of the walkable tiles for the current layout version.
+     * The copy is created lazily and shared until the layout changes again.
+     *
+     * @return The snapshot of the current layout.
+     */
+    public MazeSnapshot getSnapshot() {
+        if (snapshot == null || snapshot.getVersion() != layoutVersion) {
+            snapshot = new MazeSnapshot(layout, layoutVersion, getLandmarks());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Enables the landmark (ALT) heuristic for pathfinding in this maze.
+     * The distances are computed on first use and cached until the layout changes.
+     *
+     * @param count The number of landmarks, or 0 to disable the heuristic.
+     */
+    public void enableLandmarks(int count) {
+        if (count != landmarkCount) {
+            landmarkCount = count;
+            landmarks = null;
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Gets the landmark distances for the current layout version.
+     *
+     * @return The landmark heuristic, or null if landmarks are disabled.
+     */
+    public Landmarks getLandmarks() {
+        if (landmarkCount <= 0) {
+            return null;
+        }
+        if (landmarks == null || landmarks.getVersion() != layoutVersion) {
+            landmarks = Landmarks.compute(layout, landmarkCount, layoutVersion);
+        }
+        return landmarks;
+    }
+
+    /**
+     * Gets the connected regions of walkable tiles. They are labelled on first use and then updated
+     * incrementally whenever a tile changes.
+     *
+     * @return The connected components of the walkable tiles.
+     */
+    public WalkableComponents getComponents() {
+        if (components == null) {
+            components = new WalkableComponents(this);
+        }
+        return components;
+    }
+
+    /**
+     * Gets the open exits of every tile. They are computed on first use and then updated incrementally
+     * whenever a tile changes.
+     *
+     * @return The exit masks of the tiles.
+     */
+    public ExitMasks getExitMasks() {
+        if (exitMasks == null) {
+            exitMasks = new ExitMasks(this);
+        }
+        return exitMasks;
+    }
+
+
+}
+
@@ -0,0 +1,136 @@
+package de.tum.cit.ase.maze;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Generates random maze layouts in the same tile format as the .properties map files.
+ * The same size, seed and settings always produce the same layout, which makes generated
+ * mazes usable for reproducible benchmarks of large maps.
+ */
+public final class MazeGenerator {
+    private MazeGenerator() {
+    }
+
+    /**
+     * Generates a maze with one entry point, one exit and one key.
+     * Corridors are carved with a randomized depth-first search and a share of the remaining walls
+     * is knocked out afterwards, so the maze contains loops instead of being a perfect tree.
+     *
+     * @param width The width of the maze in tiles (at least 5).
+     * @param height The height of the maze in tiles (at least 5).
+     * @param seed The seed for the random number generator.
+     * @param loopChance The chance (0-1) that an inner wall between two corridors is removed.
+     * @param enemyCount The number of enemies to place on free floor tiles.
+     * @param trapCount The number of traps to place on free floor tiles.
+     * @return The layout, indexed as layout[x][y].
+     */
+    public static int[][] generate(int width, int height, long seed, float loopChance, int enemyCount, int trapCount) {
+        if (width < 5 || height < 5) {
+            throw new IllegalArgumentException("Maze must be at least 5x5 tiles");
+        }
+        Random random = new Random(seed);
+        int[][] layout = new int[width][height]; // Everything starts as wall (0)
+
+        // Carve corridors between the cells at odd coordinates
+        int cellsX = (width - 1) / 2;
+        int cellsY = (height - 1) / 2;
+        boolean[] visited = new boolean[cellsX * cellsY];
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        stack.push(0);
+        visited[0] = true;
+        layout[1][1] = -1;
+        int[] order = {0, 1, 2, 3};
+        while (!stack.isEmpty()) {
+            int cell = stack.peek();
+            int cx = cell / cellsY, cy = cell % cellsY;
+            shuffle(order, random);
+            boolean carved = false;
+            for (int direction : order) {
+                int nx = cx + DX[direction], ny = cy + DY[direction];
+                if (nx < 0 || ny < 0 || nx >= cellsX || ny >= cellsY || visited[nx * cellsY + ny]) {
+                    continue;
+                }
+                visited[nx * cellsY + ny] = true;
+                layout[2 * cx + 1 + DX[direction]][2 * cy + 1 + DY[direction]] = -1;
+                layout[2 * nx + 1][2 * ny + 1] = -1;
+                stack.push(nx * cellsY + ny);
+                carved = true;
+                break;
+            }
+            if (!carved) {
+                stack.pop();
+            }
+        }
+
+        // Knock out inner walls that separate two corridors to create loops
+        for (int x = 1; x < width - 1; x++) {
+            for (int y = 1; y < height - 1; y++) {
+                if (layout[x][y] != 0 || random.nextFloat() >= loopChance) {
+                    continue;
+                }
+                boolean horizontal = layout[x - 1][y] == -1 && layout[x + 1][y] == -1;
+                boolean vertical = layout[x][y - 1] == -1 && layout[x][y + 1] == -1;
+                if (horizontal != vertical) {
+                    layout[x][y] = -1;
+                }
+            }
+        }
+
+        layout[1][1] = 1; // Entry point
+        layout[0][1] = 0;
+        placeExit(layout, cellsX, cellsY);
+        placeOnFreeFloor(layout, 5, 1, random); // Key
+        placeOnFreeFloor(layout, 4, enemyCount, random);
+        placeOnFreeFloor(layout, 3, trapCount, random);
+        return layout;
+    }
+
+    /**
+     * Generates a maze with default settings: 10% loops, one enemy per 200 tiles and one trap per 400 tiles.
+     *
+     * @param width The width of the maze in tiles.
+     * @param height The height of the maze in tiles.
+     * @param seed The seed for the random number generator.
+     * @return The layout, indexed as layout[x][y].
+     */
+    public static int[][] generate(int width, int height, long seed) {
+        int tiles = width * height;
+        return generate(width, height, seed, 0.1f, tiles / 200, tiles / 400);
+    }
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    /**
+     * Turns the wall next to the carved cell in the corner opposite the entry into the exit.
+     */
+    private static void placeExit(int[][] layout, int cellsX, int cellsY) {
+        int x = 2 * cellsX - 1;
+        int y = 2 * cellsY - 1;
+        layout[x + 1][y] = 2;
+    }
+
+    private static void placeOnFreeFloor(int[][] layout, int type, int count, Random random) {
+        int width = layout.length;
+        int height = layout[0].length;
+        int attempts = count * 20;
+        while (count > 0 && attempts-- > 0) {
+            int x = 1 + random.nextInt(width - 2);
+            int y = 1 + random.nextInt(height - 2);
+            if (layout[x][y] == -1 && (x > 3 || y > 3)) { // Keep the area around the entry free
+                layout[x][y] = type;
+                count--;
+            }
+        }
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+}
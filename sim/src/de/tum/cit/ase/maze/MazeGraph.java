@@ -0,0 +1,141 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Exposes the walkable tiles of a maze as a gdx-ai {@link IndexedGraph}, so gdx-ai's path finders can search it.
+ * Every tile is a node, indexed like the rest of the pathfinding code as {@code x * height + y}, with a
+ * connection to each walkable cardinal neighbor. Only floor tiles are walkable, as in {@link MazeSnapshot}.
+ * The graph listens to the maze and rebuilds the connections around a tile whose walkability changed.
+ */
+public class MazeGraph implements IndexedGraph<MazeGraph.Tile>, MazeListener {
+
+    /**
+     * A node of the graph.
+     */
+    public static final class Tile {
+        public final int x, y;
+        public final int index;
+        public final Vector2 position; // In tiles, for path smoothing
+
+        Tile(int x, int y, int index) {
+            this.x = x;
+            this.y = y;
+            this.index = index;
+            this.position = new Vector2(x, y);
+        }
+    }
+
+    /**
+     * A step between two neighboring tiles.
+     */
+    private static final class Step extends DefaultConnection<Tile> {
+        Step(Tile from, Tile to) {
+            super(from, to);
+        }
+
+        @Override
+        public float getCost() {
+            return Grid.STEP_COST;
+        }
+    }
+
+    private final Maze maze;
+    private final int[][] layout;
+    private final int width;
+    private final int height;
+    private final Tile[] tiles;
+    private final Array<Array<Connection<Tile>>> connections;
+
+    /**
+     * Builds the graph of the maze's current layout and registers for tile changes.
+     *
+     * @param maze The maze to expose.
+     */
+    public MazeGraph(Maze maze) {
+        this.maze = maze;
+        this.layout = maze.getLayout();
+        this.width = layout.length;
+        this.height = layout[0].length;
+        this.tiles = new Tile[width * height];
+        this.connections = new Array<>(true, width * height);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                tiles[x * height + y] = new Tile(x, y, x * height + y);
+                connections.add(new Array<>(4));
+            }
+        }
+        for (Tile tile : tiles) {
+            connect(tile);
+        }
+        maze.addListener(this);
+    }
+
+    /**
+     * Stops listening to the maze.
+     */
+    public void dispose() {
+        maze.removeListener(this);
+    }
+
+    /**
+     * @return The node of a tile, or null outside the maze.
+     */
+    public Tile getTile(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return null;
+        }
+        return tiles[x * height + y];
+    }
+
+    /**
+     * Checks whether a tile can be walked on; tiles outside the maze cannot.
+     */
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && layout[x][y] == -1;
+    }
+
+    @Override
+    public int getIndex(Tile node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return tiles.length;
+    }
+
+    @Override
+    public Array<Connection<Tile>> getConnections(Tile fromNode) {
+        return connections.get(fromNode.index);
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldType, int newType) {
+        if ((oldType == -1) == (newType == -1)) {
+            return;
+        }
+        // A tile's own connections do not depend on it, only those of its neighbors pointing at it
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            Tile neighbor = getTile(x + Grid.NEIGHBOR_OFFSETS[i], y + Grid.NEIGHBOR_OFFSETS[i + 1]);
+            if (neighbor != null) {
+                connect(neighbor);
+            }
+        }
+    }
+
+    private void connect(Tile tile) {
+        Array<Connection<Tile>> out = connections.get(tile.index);
+        out.clear();
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            int nx = tile.x + Grid.NEIGHBOR_OFFSETS[i], ny = tile.y + Grid.NEIGHBOR_OFFSETS[i + 1];
+            if (isWalkable(nx, ny)) {
+                out.add(new Step(tile, tiles[nx * height + ny]));
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Interface for objects that need to know when a tile of the maze layout changes,
+ * for example path planners that keep search state between queries.
+ */
+public interface MazeListener {
+    /**
+     * Called after a tile of the layout has been changed through {@link Maze#setElementAt(int, int, int)}.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @param oldType The previous type of the tile.
+     * @param newType The new type of the tile.
+     */
+    void tileChanged(int x, int y, int oldType, int newType);
+}
@@ -0,0 +1,36 @@
+package de.tum.cit.ase.maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for building a {@link Maze}: how long the file took to parse, or the generated layout to
+ * take over, and how big the maze turned out.
+ */
+@Name("de.tum.cit.ase.maze.MazeLoad")
+@Label("Maze Load")
+@Category({"Maze Runner", "Level"})
+@Description("A maze parsed from a map file or taken over from the generator")
+class MazeLoadEvent extends Event {
+    @Label("Source")
+    @Description("Path of the map file, or \"generated\"")
+    String source;
+
+    @Label("Width")
+    @Description("Width of the maze in tiles")
+    int width;
+
+    @Label("Height")
+    @Description("Height of the maze in tiles")
+    int height;
+
+    @Label("Enemy Spawns")
+    int enemySpawns;
+
+    @Label("Valid")
+    @Description("Whether the maze can be played")
+    boolean valid;
+}
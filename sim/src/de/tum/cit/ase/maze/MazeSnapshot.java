@@ -0,0 +1,69 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * An immutable copy of the walkable tiles of a maze at one layout version.
+ * Snapshots are created on the render thread and can then be read by pathfinding worker threads
+ * without any locking, while the game keeps changing the live layout.
+ */
+public final class MazeSnapshot {
+    private final int width;
+    private final int height;
+    private final int version;
+    private final boolean[] walkable; // Indexed by x * height + y
+    private final Landmarks landmarks; // Heuristic for this version, or null for Manhattan distance
+
+    /**
+     * Copies the walkability of the given layout.
+     *
+     * @param layout The maze layout to copy.
+     * @param version The layout version the copy belongs to.
+     * @param landmarks The landmark heuristic for this layout version, or null.
+     */
+    public MazeSnapshot(int[][] layout, int version, Landmarks landmarks) {
+        this.width = layout.length;
+        this.height = layout[0].length;
+        this.version = version;
+        this.landmarks = landmarks;
+        this.walkable = new boolean[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                walkable[x * height + y] = layout[x][y] == -1; // Only floor tiles can be walked on
+            }
+        }
+    }
+
+    /**
+     * Builds a fresh node grid for pathfinding over this snapshot.
+     *
+     * @return A grid of nodes, one per tile.
+     */
+    public Node[][] createNodes() {
+        Node[][] nodes = new Node[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                nodes[x][y] = new Node(x, y, walkable[x * height + y]);
+            }
+        }
+        return nodes;
+    }
+
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && walkable[x * height + y];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public Landmarks getLandmarks() {
+        return landmarks;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
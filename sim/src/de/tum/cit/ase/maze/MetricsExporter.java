@@ -0,0 +1,147 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a snapshot of a {@link MetricsRegistry} to a file at a fixed interval, on a thread of its own, so the
+ * render thread never waits for the disk. Every snapshot is appended: counters with their total so far, gauges
+ * with their last value, and histograms with the count, mean, p50, p90, p99 and max of the values recorded
+ * since the previous snapshot.
+ * <p>
+ * A file ending in {@code .csv} gets one row per metric and snapshot, under a header; any other file gets one
+ * JSON object per line and snapshot.
+ */
+public class MetricsExporter {
+    private static final String CSV_HEADER = "time,metric,kind,unit,value,count,mean,p50,p90,p99,max\n";
+
+    private final MetricsRegistry registry;
+    private final FileHandle file;
+    private final boolean csv;
+    private final ScheduledExecutorService thread;
+    // The histogram being written; only used on the export thread
+    private final long[] counts = new long[MetricsRegistry.Histogram.BUCKETS];
+    private long total;
+    private double mean;
+    private long max;
+
+    /**
+     * Starts exporting. The file is replaced.
+     *
+     * @param registry The metrics to export.
+     * @param file The file to write to.
+     * @param intervalSeconds The time between two snapshots.
+     */
+    public MetricsExporter(MetricsRegistry registry, FileHandle file, float intervalSeconds) {
+        this.registry = registry;
+        this.file = file;
+        this.csv = file.extension().equalsIgnoreCase("csv");
+        file.writeString(csv ? CSV_HEADER : "", false);
+        this.thread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-exporter");
+            thread.setDaemon(true); // Never keep the application alive
+            return thread;
+        });
+        long interval = Math.max(1, (long) (intervalSeconds * 1000));
+        thread.scheduleAtFixedRate(this::export, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the export thread and writes a last snapshot with what was recorded since the previous one.
+     */
+    public void dispose() {
+        thread.shutdown();
+        try {
+            thread.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        export();
+    }
+
+    private void export() {
+        long time = System.currentTimeMillis();
+        try {
+            file.writeString(csv ? toCsv(time) : toJson(time), true);
+        } catch (GdxRuntimeException e) {
+            // Keep the schedule running; an exception would cancel every later snapshot
+            System.err.println("Couldn't write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private String toJson(long time) {
+        JsonValue snapshot = new JsonValue(JsonValue.ValueType.object);
+        snapshot.addChild("time", new JsonValue(time));
+        JsonValue counters = new JsonValue(JsonValue.ValueType.object);
+        for (MetricsRegistry.Counter counter : registry.getCounters()) {
+            counters.addChild(counter.getName(), new JsonValue(counter.get()));
+        }
+        snapshot.addChild("counters", counters);
+        JsonValue gauges = new JsonValue(JsonValue.ValueType.object);
+        for (MetricsRegistry.Gauge gauge : registry.getGauges()) {
+            gauges.addChild(gauge.getName(), new JsonValue(gauge.get()));
+        }
+        snapshot.addChild("gauges", gauges);
+        JsonValue histograms = new JsonValue(JsonValue.ValueType.object);
+        for (MetricsRegistry.Histogram histogram : registry.getHistograms()) {
+            drain(histogram);
+            JsonValue values = new JsonValue(JsonValue.ValueType.object);
+            values.addChild("unit", new JsonValue(histogram.getUnit()));
+            values.addChild("count", new JsonValue(total));
+            values.addChild("mean", new JsonValue(mean));
+            values.addChild("p50", new JsonValue(quantile(0.50)));
+            values.addChild("p90", new JsonValue(quantile(0.90)));
+            values.addChild("p99", new JsonValue(quantile(0.99)));
+            values.addChild("max", new JsonValue(max));
+            histograms.addChild(histogram.getName(), values);
+        }
+        snapshot.addChild("histograms", histograms);
+        return snapshot.toJson(JsonWriter.OutputType.json) + "\n";
+    }
+
+    private String toCsv(long time) {
+        StringBuilder rows = new StringBuilder();
+        for (MetricsRegistry.Counter counter : registry.getCounters()) {
+            rows.append(time).append(',').append(counter.getName()).append(",counter,,").append(counter.get())
+                    .append(",,,,,,\n");
+        }
+        for (MetricsRegistry.Gauge gauge : registry.getGauges()) {
+            rows.append(time).append(',').append(gauge.getName()).append(",gauge,,").append(gauge.get())
+                    .append(",,,,,,\n");
+        }
+        for (MetricsRegistry.Histogram histogram : registry.getHistograms()) {
+            drain(histogram);
+            rows.append(time).append(',').append(histogram.getName()).append(",histogram,")
+                    .append(histogram.getUnit()).append(",,").append(total).append(',').append(mean)
+                    .append(',').append(quantile(0.50))
+                    .append(',').append(quantile(0.90))
+                    .append(',').append(quantile(0.99))
+                    .append(',').append(max).append('\n');
+        }
+        return rows.toString();
+    }
+
+    /**
+     * Takes the values a histogram recorded since the last snapshot into {@link #counts}, {@link #total},
+     * {@link #mean} and {@link #max}.
+     */
+    private void drain(MetricsRegistry.Histogram histogram) {
+        total = histogram.drain(counts);
+        long sum = histogram.drainSum();
+        mean = total == 0 ? 0 : (double) sum / total;
+        max = histogram.drainMax();
+    }
+
+    /**
+     * @return A quantile of the drained histogram; never above the max, which the upper bound of its bucket can be.
+     */
+    private long quantile(double quantile) {
+        return Math.min(MetricsRegistry.Histogram.quantile(counts, total, quantile), max);
+    }
+}
@@ -0,0 +1,249 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Named counters, gauges and latency histograms of a session, for offline analysis. Metrics are registered once,
+ * when a subsystem is set up, and the subsystem keeps the returned handle; recording into a handle allocates
+ * nothing and is safe from any thread, so the render thread, the pathfinding workers and the JVM's notification
+ * thread can share a registry. A {@link MetricsExporter} writes snapshots of all metrics to a file.
+ */
+public class MetricsRegistry {
+    /**
+     * A count that only goes up, such as the number of collision queries.
+     */
+    public static final class Counter {
+        private final String name;
+        private final AtomicLong value = new AtomicLong();
+
+        private Counter(String name) {
+            this.name = name;
+        }
+
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        public void add(long amount) {
+            value.addAndGet(amount);
+        }
+
+        public long get() {
+            return value.get();
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * A value that is set from time to time, such as the number of chasing enemies. Snapshots read the last one.
+     */
+    public static final class Gauge {
+        private final String name;
+        private volatile long value;
+
+        private Gauge(String name) {
+            this.name = name;
+        }
+
+        public void set(long value) {
+            this.value = value;
+        }
+
+        public long get() {
+            return value;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Counts values, usually nanoseconds, in fixed log-linear buckets: the values below {@code 2 * SUB_BUCKETS} get
+     * a bucket each, and every power of two above is split into {@code SUB_BUCKETS} buckets of equal width. A
+     * bucket is thus at most 1/8 as wide as its values, which is the error of a percentile, and 488 buckets cover
+     * every positive long.
+     */
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final String name;
+        private final String unit;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram(String name, String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        /**
+         * Counts a value. Negative values are counted as 0.
+         */
+        public void record(long value) {
+            value = Math.max(0, value);
+            buckets.incrementAndGet(bucket(value));
+            sum.addAndGet(value);
+            long previous = max.get();
+            while (value > previous && !max.compareAndSet(previous, value)) {
+                previous = max.get(); // Another thread raised the max in between
+            }
+        }
+
+        /**
+         * Finds the value below which the given share of the counted values lie.
+         *
+         * @param counts The bucket counts, as filled by {@link #drain(long[])}.
+         * @param total The number of counted values.
+         * @param quantile The share, between 0 and 1.
+         * @return The upper bound of the value's bucket, or 0 if there are no values.
+         */
+        static long quantile(long[] counts, long total, double quantile) {
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                seen += counts[b];
+                if (seen >= rank && seen > 0) {
+                    return upperBound(b);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Moves the bucket counts into an array and starts them over, so every snapshot holds the values recorded
+         * since the last one. A value recorded while draining may be split between this snapshot and the next.
+         *
+         * @param counts Receives the count of every bucket; at least {@link #BUCKETS} long.
+         * @return The number of drained values.
+         */
+        long drain(long[] counts) {
+            long total = 0;
+            for (int b = 0; b < BUCKETS; b++) {
+                counts[b] = buckets.getAndSet(b, 0);
+                total += counts[b];
+            }
+            return total;
+        }
+
+        /**
+         * @return The sum of the values since the last call, which starts over.
+         */
+        long drainSum() {
+            return sum.getAndSet(0);
+        }
+
+        /**
+         * @return The largest value since the last call, which starts over.
+         */
+        long drainMax() {
+            return max.getAndSet(0);
+        }
+
+        /**
+         * @return The bucket of a value that is not negative.
+         */
+        static int bucket(long value) {
+            if (value < 2 * SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+            return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+        }
+
+        /**
+         * @return The largest value that falls into a bucket.
+         */
+        static long upperBound(int bucket) {
+            if (bucket < 2 * SUB_BUCKETS) {
+                return bucket;
+            }
+            int shift = bucket / SUB_BUCKETS - 1;
+            long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+            return lower + (1L << shift) - 1;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The unit of the values, such as "ns", for the export.
+         */
+        public String getUnit() {
+            return unit;
+        }
+    }
+
+    private final Array<Counter> counters = new Array<>();
+    private final Array<Gauge> gauges = new Array<>();
+    private final Array<Histogram> histograms = new Array<>();
+
+    /**
+     * Gets the counter with the given name, registering it on the first call.
+     */
+    public synchronized Counter counter(String name) {
+        for (Counter counter : counters) {
+            if (counter.name.equals(name)) {
+                return counter;
+            }
+        }
+        Counter counter = new Counter(name);
+        counters.add(counter);
+        return counter;
+    }
+
+    /**
+     * Gets the gauge with the given name, registering it on the first call.
+     */
+    public synchronized Gauge gauge(String name) {
+        for (Gauge gauge : gauges) {
+            if (gauge.name.equals(name)) {
+                return gauge;
+            }
+        }
+        Gauge gauge = new Gauge(name);
+        gauges.add(gauge);
+        return gauge;
+    }
+
+    /**
+     * Gets the histogram with the given name, registering it on the first call.
+     *
+     * @param unit The unit of the recorded values, such as "ns"; only used when the histogram is registered.
+     */
+    public synchronized Histogram histogram(String name, String unit) {
+        for (Histogram histogram : histograms) {
+            if (histogram.name.equals(name)) {
+                return histogram;
+            }
+        }
+        Histogram histogram = new Histogram(name, unit);
+        histograms.add(histogram);
+        return histogram;
+    }
+
+    /**
+     * @return Copies of the registered metrics, in the order they were registered.
+     */
+    synchronized Array<Counter> getCounters() {
+        return new Array<>(counters);
+    }
+
+    synchronized Array<Gauge> getGauges() {
+        return new Array<>(gauges);
+    }
+
+    synchronized Array<Histogram> getHistograms() {
+        return new Array<>(histograms);
+    }
+}
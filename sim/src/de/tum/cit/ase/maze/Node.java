@@ -11,6 +11,9 @@ public class Node {
     public boolean walkable;
     public float gCost, hCost; // Costs for A* algorithm
     public Node parent; // To trace the path
+    public int searchId; // Id of the search that last reached this node
+    public boolean closed; // Whether the node has been expanded by that search
+    public int heapIndex = -1; // Position in the open set, or -1 if not in it
 
     /**
      * Constructs a Node with specified coordinates and walkability.
@@ -0,0 +1,88 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * A per-frame allowance of A* node expansions shared by all enemies.
+ * The game screen resets the budget at the start of every frame, and each enemy that is searching
+ * for a path takes a slice of it. Once the frame budget is used up, the remaining searches simply
+ * continue in the next frame, so many enemies replanning at once cannot cause a frame-time spike.
+ */
+public class PathfindingBudget {
+    // The game's budget, which the benchmarks and tests measure with too
+    public static final int DEFAULT_NODES_PER_FRAME = 512;
+    public static final int DEFAULT_NODES_PER_SEARCH = 64;
+
+    private final int nodesPerFrame; // Total expansions allowed per frame across all enemies
+    private final int nodesPerSearch; // Maximum expansions a single search may take per frame
+    private int remaining;
+
+    /**
+     * Constructs a budget with the game's {@link #DEFAULT_NODES_PER_FRAME} and {@link #DEFAULT_NODES_PER_SEARCH}.
+     */
+    public PathfindingBudget() {
+        this(DEFAULT_NODES_PER_FRAME, DEFAULT_NODES_PER_SEARCH);
+    }
+
+    /**
+     * Constructs a budget.
+     *
+     * @param nodesPerFrame The total number of node expansions allowed per frame.
+     * @param nodesPerSearch The maximum number of node expansions one search may use per frame.
+     */
+    public PathfindingBudget(int nodesPerFrame, int nodesPerSearch) {
+        if (nodesPerFrame <= 0 || nodesPerSearch <= 0) {
+            throw new IllegalArgumentException("Pathfinding budget must be positive");
+        }
+        this.nodesPerFrame = nodesPerFrame;
+        this.nodesPerSearch = nodesPerSearch;
+        this.remaining = nodesPerFrame;
+    }
+
+    /**
+     * Restores the full budget. Called once at the start of every frame.
+     */
+    public void reset() {
+        remaining = nodesPerFrame;
+    }
+
+    /**
+     * Takes a slice of the remaining budget for one search.
+     *
+     * @return The number of nodes the caller may expand now, possibly 0 if the frame budget is spent.
+     */
+    public int acquire() {
+        int granted = Math.min(nodesPerSearch, remaining);
+        remaining -= granted;
+        return granted;
+    }
+
+    /**
+     * Gives back the part of a slice that was not used, e.g. because the search finished early.
+     *
+     * @param unused The number of nodes that were granted but not expanded.
+     */
+    public void release(int unused) {
+        remaining = Math.min(nodesPerFrame, remaining + Math.max(0, unused));
+    }
+
+    /**
+     * Charges nodes that were expanded without asking for a slice first, e.g. by a search that cannot be
+     * paused. The budget does not go below 0.
+     *
+     * @param nodes The number of nodes expanded.
+     */
+    public void consume(int nodes) {
+        remaining = Math.max(0, remaining - Math.max(0, nodes));
+    }
+
+    public int getRemaining() {
+        return remaining;
+    }
+
+    public int getNodesPerFrame() {
+        return nodesPerFrame;
+    }
+
+    public int getNodesPerSearch() {
+        return nodesPerSearch;
+    }
+}
@@ -0,0 +1,11 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Enumeration of the ways a chasing enemy can find its path to the player.
+ */
+public enum PathfindingMode {
+    TIME_SLICED, // In-frame A*, limited by the shared per-frame node budget.
+    BACKGROUND,  // A* on the worker threads of the pathfinding service, delivered next tick.
+    INCREMENTAL, // In-frame D* Lite that repairs its previous search instead of starting over.
+    GDX_AI       // In-frame gdx-ai IndexedAStarPathFinder with path smoothing, charged to the node budget.
+}
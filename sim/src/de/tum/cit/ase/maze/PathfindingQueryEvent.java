@@ -0,0 +1,64 @@
+package de.tum.cit.ase.maze;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one pathfinding query. A time-sliced A* search is recorded once per slice, since the
+ * slices run in different frames; the slice that finishes the search carries the path.
+ */
+@Name("de.tum.cit.ase.maze.PathfindingQuery")
+@Label("Pathfinding Query")
+@Category({"Maze Runner", "Pathfinding"})
+@Description("A path search, or one slice of a time-sliced search")
+@StackTrace(false)
+class PathfindingQueryEvent extends Event {
+    static final String A_STAR = "A*";
+    static final String D_STAR_LITE = "D* Lite";
+    static final String GDX_AI = "gdx-ai";
+
+    private static final PathfindingQueryEvent PROBE = new PathfindingQueryEvent(); // Never committed
+
+    /**
+     * @return Whether a recording wants the event. Checked before an event is created, so the searches allocate
+     *         nothing while no recording does.
+     */
+    static boolean isRecorded() {
+        return PROBE.isEnabled();
+    }
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Start X")
+    int startX;
+
+    @Label("Start Y")
+    int startY;
+
+    @Label("Goal X")
+    int goalX;
+
+    @Label("Goal Y")
+    int goalY;
+
+    @Label("Nodes Expanded")
+    @Description("Nodes the search has expanded so far; for D* Lite, the nodes of this repair")
+    int nodesExpanded;
+
+    @Label("Open Set Peak")
+    @Description("Largest size of the open set so far; for D* Lite, during this repair")
+    int openPeak;
+
+    @Label("Path Length")
+    @Description("Steps of the path found, 0 if there is none or the search is still running")
+    int pathLength;
+
+    @Label("Finished")
+    @Description("Whether the search is done; false for a slice that leaves it in progress")
+    boolean finished;
+}
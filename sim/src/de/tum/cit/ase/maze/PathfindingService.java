@@ -0,0 +1,305 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs path queries on a pool of worker threads so that A* never blocks the render thread.
+ * Requests are made from the game loop and searched against an immutable {@link MazeSnapshot}.
+ * Finished results are queued and handed to the requesters by {@link #deliverResults(int)} at the
+ * start of the next simulation tick, never in the middle of one.
+ * Identical requests (same start, goal and layout version) that are made while a search is pending
+ * share that search, and results computed for an outdated layout version are dropped.
+ * <p>
+ * Which searches finish before a tick depends on the worker threads' timing. For recordings and replays the
+ * service can be made {@link #setDeterministic(boolean) deterministic}: then every tick waits for all searches
+ * requested in the previous one and delivers them in request order.
+ * <p>
+ * Jobs are pooled and paths are passed as cell indices, so outside deterministic mode a request only costs the
+ * render thread the executor's queue entry. The workers can record every search into {@link PathfindingStats}
+ * and, for debug views, keep the tiles each search explored.
+ * All methods except the worker internals must be called from the render thread.
+ */
+public class PathfindingService {
+    /**
+     * Receives the result of a path request.
+     */
+    public interface PathListener {
+        /**
+         * Called on the render thread at the start of the tick after the search finished.
+         *
+         * @param cells The path from the start tile (exclusive) to the goal tile as cell indices
+         *              ({@code x * height + y}), or an empty array if there is none. Only valid during the call.
+         */
+        void onPathFound(IntArray cells);
+    }
+
+    /**
+     * One search on a worker thread, possibly shared by several requesters.
+     */
+    private static final class Job implements Runnable, Pool.Poolable {
+        int startX, startY, goalX, goalY;
+        MazeSnapshot snapshot;
+        final IntArray requesterIds = new IntArray(false, 4); // Only touched on the render thread
+        final IntArray path = new IntArray(); // Written by the worker, read after the job is taken from completed
+        final IntArray explored = new IntArray(false, 16); // Like path; filled only if captureExplored is set
+        final ConcurrentLinkedQueue<Job> completed;
+        Future<?> future; // Set in deterministic mode, to wait for the search
+        PathfindingStats stats; // Receives the search, or null
+        boolean captureExplored;
+
+        Job(ConcurrentLinkedQueue<Job> completed) {
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            WORKER_SEARCH.get().search(this);
+            completed.offer(this);
+        }
+
+        @Override
+        public void reset() {
+            snapshot = null;
+            requesterIds.clear();
+            future = null;
+            stats = null;
+        }
+    }
+
+    /**
+     * The per-thread search state. The node grid is rebuilt only when a worker sees a new snapshot.
+     */
+    private static final class WorkerSearch {
+        private MazeSnapshot snapshot;
+        private AStar pathfinder;
+
+        void search(Job job) {
+            if (snapshot != job.snapshot) {
+                snapshot = job.snapshot;
+                pathfinder = new AStar(snapshot.createNodes());
+                pathfinder.setHeuristic(snapshot.getLandmarks());
+            }
+            pathfinder.beginSearch(job.startX, job.startY, job.goalX, job.goalY);
+            pathfinder.continueSearch(Integer.MAX_VALUE);
+            job.path.clear();
+            job.path.addAll(pathfinder.getPathCells());
+            if (job.stats != null) {
+                job.stats.recordQuery(pathfinder.getNodesExpanded(), pathfinder.getOpenPeak(), job.path.size,
+                        pathfinder.getSearchNanos(), pathfinder.getStatus() == AStar.SearchStatus.FOUND);
+            }
+            job.explored.clear();
+            if (job.captureExplored) {
+                pathfinder.copyExploredCells(job.explored);
+            }
+        }
+    }
+
+    private static final ThreadLocal<WorkerSearch> WORKER_SEARCH = ThreadLocal.withInitial(WorkerSearch::new);
+
+    private final ExecutorService workers;
+    private final ConcurrentLinkedQueue<Job> completed = new ConcurrentLinkedQueue<>();
+    private final LongMap<Job> pending = new LongMap<>(); // Keyed by start and goal tile
+    private final IntMap<PathListener> listeners = new IntMap<>();
+    private final Pool<Job> jobPool = new Pool<>() { // Only touched on the render thread
+        @Override
+        protected Job newObject() {
+            return new Job(completed);
+        }
+    };
+    private boolean deterministic;
+    private PathfindingStats stats; // Receives every search, or null
+    private boolean captureExplored;
+    private final IntArray lastExplored = new IntArray(); // Explored tiles of the last delivered search
+    private final Array<Job> submitted = new Array<>(false, 16); // In request order, in deterministic mode
+
+    /**
+     * Starts a service with the given number of worker threads.
+     *
+     * @param workerCount The number of worker threads, at least 1.
+     */
+    public PathfindingService(int workerCount) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), runnable -> {
+            Thread thread = new Thread(runnable, "pathfinding-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // Never keep the application alive
+            return thread;
+        });
+    }
+
+    /**
+     * Registers the listener that receives the results for a requester.
+     *
+     * @param requesterId The id the requester uses in {@link #requestPath}.
+     * @param listener The listener to call with the results.
+     */
+    public void register(int requesterId, PathListener listener) {
+        listeners.put(requesterId, listener);
+    }
+
+    /**
+     * Removes a requester. Results that are still in flight for it are dropped.
+     *
+     * @param requesterId The id of the requester.
+     */
+    public void unregister(int requesterId) {
+        listeners.remove(requesterId);
+    }
+
+    /**
+     * Queues a path search between two tiles.
+     *
+     * @param requesterId The id of the requester, as passed to {@link #register}.
+     * @param startX The x-coordinate of the start tile.
+     * @param startY The y-coordinate of the start tile.
+     * @param goalX The x-coordinate of the goal tile.
+     * @param goalY The y-coordinate of the goal tile.
+     * @param snapshot The layout to search in; its version tags the result.
+     */
+    public void requestPath(int requesterId, int startX, int startY, int goalX, int goalY, MazeSnapshot snapshot) {
+        long key = key(startX, startY, goalX, goalY);
+        Job job = pending.get(key);
+        if (job == null || job.snapshot.getVersion() != snapshot.getVersion()) {
+            job = jobPool.obtain();
+            job.startX = startX;
+            job.startY = startY;
+            job.goalX = goalX;
+            job.goalY = goalY;
+            job.snapshot = snapshot;
+            job.stats = stats;
+            job.captureExplored = captureExplored;
+            pending.put(key, job);
+            if (deterministic) {
+                job.future = workers.submit(job);
+                submitted.add(job);
+            } else {
+                workers.execute(job);
+            }
+        }
+        if (!job.requesterIds.contains(requesterId)) {
+            job.requesterIds.add(requesterId);
+        }
+    }
+
+    /**
+     * Hands every result that finished since the last call to its requesters.
+     * Results for a layout version other than the current one are discarded.
+     *
+     * @param currentLayoutVersion The layout version of the live maze.
+     */
+    public void deliverResults(int currentLayoutVersion) {
+        if (deterministic) {
+            for (int i = 0; i < submitted.size; i++) {
+                await(submitted.get(i));
+            }
+            completed.clear();
+            for (int i = 0; i < submitted.size; i++) {
+                deliver(submitted.get(i), currentLayoutVersion);
+            }
+            submitted.clear();
+            return;
+        }
+        Job job;
+        while ((job = completed.poll()) != null) {
+            deliver(job, currentLayoutVersion);
+        }
+    }
+
+    private void deliver(Job job, int currentLayoutVersion) {
+        long key = key(job.startX, job.startY, job.goalX, job.goalY);
+        if (pending.get(key) == job) {
+            pending.remove(key);
+        }
+        if (job.captureExplored) {
+            lastExplored.clear();
+            lastExplored.addAll(job.explored);
+        }
+        if (job.snapshot.getVersion() == currentLayoutVersion) { // Else searched against a layout that no longer exists
+            for (int i = 0; i < job.requesterIds.size; i++) {
+                PathListener listener = listeners.get(job.requesterIds.get(i));
+                if (listener != null) {
+                    listener.onPathFound(job.path);
+                }
+            }
+        }
+        jobPool.free(job);
+    }
+
+    private static void await(Job job) {
+        try {
+            job.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Interrupted while waiting for a path search", e);
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException("Path search failed", e.getCause());
+        }
+    }
+
+    /**
+     * Makes the results independent of the worker threads' timing: every {@link #deliverResults(int)} waits for
+     * the searches requested since the last call and delivers them in request order. Costs the render thread the
+     * wait, so it is meant for recording and replaying, not for normal play.
+     *
+     * @param deterministic Whether to deliver deterministically. Should be set before the first request.
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Lets the workers record every search they finish. Takes effect with the next request.
+     *
+     * @param stats The statistics to record into, or null to record nothing.
+     */
+    public void setStats(PathfindingStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Lets the workers keep the tiles each search expanded, for {@link #getLastExplored()}. Costs every search a
+     * pass over the node grid, so it is meant for debug views. Takes effect with the next request.
+     *
+     * @param captureExplored Whether to keep the explored tiles.
+     */
+    public void setExploredCaptured(boolean captureExplored) {
+        this.captureExplored = captureExplored;
+        if (!captureExplored) {
+            lastExplored.clear();
+        }
+    }
+
+    /**
+     * @return The tiles expanded by the last search delivered while explored tiles were captured, as cell indices
+     *         ({@code x * height + y}). Empty if there is none.
+     */
+    public IntArray getLastExplored() {
+        return lastExplored;
+    }
+
+    /**
+     * Stops the worker threads. Searches that are still running are abandoned.
+     */
+    public void dispose() {
+        workers.shutdownNow();
+        pending.clear();
+        completed.clear();
+        submitted.clear();
+        listeners.clear();
+    }
+
+    private static long key(int startX, int startY, int goalX, int goalY) {
+        return (startX & 0xFFFFL) << 48 | (startY & 0xFFFFL) << 32 | (goalX & 0xFFFFL) << 16 | (goalY & 0xFFFFL);
+    }
+}
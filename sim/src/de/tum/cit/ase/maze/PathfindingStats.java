@@ -0,0 +1,183 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Statistics of the path queries of a level, to tell long searches, frequent replans and failed queries apart:
+ * per finished query the nodes expanded, the peak size of the open set, the length of the path and the time
+ * spent searching, and the number of times enemies asked for a new path. The totals and maxima count from the
+ * start of the level or the last {@link #reset()}.
+ * <p>
+ * If a {@link MetricsRegistry} is given, every query is also recorded into its histograms
+ * {@code pathfinding.nodesExpanded}, {@code pathfinding.openPeak}, {@code pathfinding.pathLength} and
+ * {@code pathfinding.searchTime}, and the counters {@code pathfinding.queries}, {@code pathfinding.failed} and
+ * {@code pathfinding.replans}.
+ * <p>
+ * Queries are recorded by the render thread and the pathfinding workers alike; recording takes a lock but
+ * allocates nothing.
+ */
+public class PathfindingStats {
+    private long queries;
+    private long failed;
+    private long replans;
+    private long totalNodesExpanded;
+    private long totalOpenPeak;
+    private long totalPathLength;
+    private long totalNanos;
+    private int maxNodesExpanded;
+    private int maxOpenPeak;
+    private long maxNanos;
+
+    // Metrics, null if there is no registry
+    private final MetricsRegistry.Histogram nodesHistogram;
+    private final MetricsRegistry.Histogram openPeakHistogram;
+    private final MetricsRegistry.Histogram pathLengthHistogram;
+    private final MetricsRegistry.Histogram timeHistogram;
+    private final MetricsRegistry.Counter queryCounter;
+    private final MetricsRegistry.Counter failedCounter;
+    private final MetricsRegistry.Counter replanCounter;
+
+    /**
+     * @param registry The registry to record every query into as well, or null to only keep the statistics.
+     */
+    public PathfindingStats(MetricsRegistry registry) {
+        if (registry != null) {
+            nodesHistogram = registry.histogram("pathfinding.nodesExpanded", "nodes");
+            openPeakHistogram = registry.histogram("pathfinding.openPeak", "nodes");
+            pathLengthHistogram = registry.histogram("pathfinding.pathLength", "tiles");
+            timeHistogram = registry.histogram("pathfinding.searchTime", "ns");
+            queryCounter = registry.counter("pathfinding.queries");
+            failedCounter = registry.counter("pathfinding.failed");
+            replanCounter = registry.counter("pathfinding.replans");
+        } else {
+            nodesHistogram = null;
+            openPeakHistogram = null;
+            pathLengthHistogram = null;
+            timeHistogram = null;
+            queryCounter = null;
+            failedCounter = null;
+            replanCounter = null;
+        }
+    }
+
+    public PathfindingStats() {
+        this(null);
+    }
+
+    /**
+     * Records a finished query.
+     *
+     * @param nodesExpanded The nodes the search expanded.
+     * @param openPeak The largest size of the open set during the search, or 0 if the engine does not tell.
+     * @param pathLength The steps of the path found.
+     * @param nanos The time spent searching, in nanoseconds; for a time-sliced search the sum of its slices.
+     * @param found Whether a path was found.
+     */
+    public void recordQuery(int nodesExpanded, int openPeak, int pathLength, long nanos, boolean found) {
+        synchronized (this) {
+            queries++;
+            if (!found) {
+                failed++;
+            }
+            totalNodesExpanded += nodesExpanded;
+            totalOpenPeak += openPeak;
+            totalPathLength += pathLength;
+            totalNanos += nanos;
+            maxNodesExpanded = Math.max(maxNodesExpanded, nodesExpanded);
+            maxOpenPeak = Math.max(maxOpenPeak, openPeak);
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+        if (queryCounter != null) {
+            nodesHistogram.record(nodesExpanded);
+            openPeakHistogram.record(openPeak);
+            timeHistogram.record(nanos);
+            queryCounter.increment();
+            if (found) {
+                pathLengthHistogram.record(pathLength);
+            } else {
+                failedCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Records that an enemy asked for a new path.
+     */
+    public void recordReplan() {
+        synchronized (this) {
+            replans++;
+        }
+        if (replanCounter != null) {
+            replanCounter.increment();
+        }
+    }
+
+    /**
+     * Starts the statistics over. The metrics in the registry are not touched.
+     */
+    public synchronized void reset() {
+        queries = 0;
+        failed = 0;
+        replans = 0;
+        totalNodesExpanded = 0;
+        totalOpenPeak = 0;
+        totalPathLength = 0;
+        totalNanos = 0;
+        maxNodesExpanded = 0;
+        maxOpenPeak = 0;
+        maxNanos = 0;
+    }
+
+    public synchronized long getQueries() {
+        return queries;
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    public synchronized long getReplans() {
+        return replans;
+    }
+
+    /**
+     * @return The mean nodes expanded per query, or 0 if there were none.
+     */
+    public synchronized float getMeanNodesExpanded() {
+        return queries == 0 ? 0 : (float) totalNodesExpanded / queries;
+    }
+
+    public synchronized int getMaxNodesExpanded() {
+        return maxNodesExpanded;
+    }
+
+    /**
+     * @return The mean peak size of the open set per query, or 0 if there were none.
+     */
+    public synchronized float getMeanOpenPeak() {
+        return queries == 0 ? 0 : (float) totalOpenPeak / queries;
+    }
+
+    public synchronized int getMaxOpenPeak() {
+        return maxOpenPeak;
+    }
+
+    /**
+     * @return The mean length of the paths found, or 0 if none were.
+     */
+    public synchronized float getMeanPathLength() {
+        return queries == failed ? 0 : (float) totalPathLength / (queries - failed);
+    }
+
+    /**
+     * @return The mean search time per query, in milliseconds, or 0 if there were none.
+     */
+    public synchronized float getMeanMillis() {
+        return queries == 0 ? 0 : totalNanos / 1e6f / queries;
+    }
+
+    /**
+     * @return The longest search time of a query, in milliseconds.
+     */
+    public synchronized float getMaxMillis() {
+        return maxNanos / 1e6f;
+    }
+}
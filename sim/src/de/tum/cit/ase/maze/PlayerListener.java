@@ -0,0 +1,17 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Gets told about the things that happen to the player, so the game can play sounds for them without the
+ * simulation knowing about audio.
+ */
+public interface PlayerListener {
+    /**
+     * The player lost a life.
+     */
+    void lifeLost();
+
+    /**
+     * The player picked up the key, for the first time in the level.
+     */
+    void keyObtained();
+}
@@ -0,0 +1,234 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The rules of the player character: where it is, how it moves through the maze, its lives, key and weapon, and
+ * the invulnerability after a hit. Holds no graphics or sounds; the game's Character draws it and plays sounds
+ * through a {@link PlayerListener}.
+ */
+public class PlayerState implements Movable {
+    public static final int MAX_LIVES = 5;
+    private static final int TILE_SIZE = 16; // each tile is 16x16
+    private static final float SPEED = 3; // Tiles per second
+    private static final float INVULNERABILITY_TIME = 3.0f; // Duration of invulnerability after losing a life.
+    private static final float SHIELD_TIME = 20.0f; // Duration of invulnerability from a shield
+
+    private float x;
+    private float y;
+    private final Rectangle bounds; // The feet of the character, which collide with the maze
+    private final Rectangle probe = new Rectangle(); // The bounds at an intended position, reused for every move
+    private Direction direction; // The last direction moved in, null before the first move
+    private int lives;
+    private boolean hasKey;
+    private boolean reachedExit;
+    private boolean armed;
+    private boolean keyReported; // Whether the listener has been told about the key
+    private final TimerWheel timerWheel;
+    private final TimerWheel.Timer invulnerability = new TimerWheel.Timer(); // Scheduled while invulnerable
+    private PlayerListener listener;
+
+    /**
+     * @param x The initial x-coordinate of the character.
+     * @param y The initial y-coordinate of the character.
+     * @param lives The number of lives the character starts with.
+     * @param timerWheel The wheel that ends the character's invulnerability periods.
+     */
+    public PlayerState(float x, float y, int lives, TimerWheel timerWheel) {
+        this.x = x;
+        this.y = y;
+        this.lives = lives;
+        this.timerWheel = timerWheel;
+        this.bounds = new Rectangle(x + 2, y + 2, 8, 4);
+    }
+
+    /**
+     * @param listener Told about lost lives and the key, or null.
+     */
+    public void setListener(PlayerListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Moves the character in the given direction if the move is valid. Walls and the exit without the key block
+     * the move; a trap costs a life, and the key is picked up on the way.
+     *
+     * @param direction The direction to move the character.
+     * @param maze The maze to check for valid moves.
+     * @param delta The time passed since the last tick.
+     */
+    @Override
+    public void move(Direction direction, Maze maze, float delta) {
+        float newX = x, newY = y;
+        float speed = TILE_SIZE * delta * SPEED;
+        switch (direction) {
+            case UP:    newY += speed; break;
+            case DOWN:  newY -= speed; break;
+            case LEFT:  newX -= speed; break;
+            case RIGHT: newX += speed; break;
+            default:    return;
+        }
+        this.direction = direction;
+
+        probe.set(bounds);
+        probe.setPosition(newX, newY);
+        switch (maze.checkCollision(probe, hasKey)) {
+            case 0: // Wall
+            case 2: // Exit without key
+                break; // Movement is blocked
+            case 3: // Trap
+                loseLife();
+                setPosition(newX, newY);
+                break;
+            case 5: // Key
+                hasKey = true;
+                if (!keyReported) {
+                    keyReported = true;
+                    if (listener != null) {
+                        listener.keyObtained();
+                    }
+                }
+                setPosition(newX, newY);
+                break;
+            default:
+                setPosition(newX, newY);
+                break;
+        }
+    }
+
+    /**
+     * Applies the tile the character stands on: a trap costs a life, a key is picked up.
+     *
+     * @param maze The maze the character is in.
+     */
+    public void updateStatus(Maze maze) {
+        switch (maze.getElementAt((int) x, (int) y)) {
+            case 3: // Trap
+                loseLife();
+                break;
+            case 5: // Key
+                hasKey = true;
+                break;
+        }
+    }
+
+    /**
+     * Handles the character touching an enemy: an armed character slays it, an unarmed one loses a life.
+     *
+     * @param enemies The system that simulates the enemy.
+     * @param enemy The index of the enemy the character overlaps.
+     */
+    public void touchEnemy(EnemySystem enemies, int enemy) {
+        if (armed) {
+            enemies.kill(enemy);
+        } else {
+            loseLife();
+        }
+    }
+
+    /**
+     * Decreases the character's lives by one, unless it is invulnerable.
+     */
+    public void loseLife() {
+        if (!invulnerability.isScheduled()) {
+            lives--;
+            extendInvulnerability(INVULNERABILITY_TIME);
+            if (listener != null) {
+                listener.lifeLost();
+            }
+        }
+    }
+
+    /**
+     * Gives the character one more life, up to {@link #MAX_LIVES}.
+     *
+     * @return Whether a life was added.
+     */
+    public boolean gainLife() {
+        if (lives >= MAX_LIVES) {
+            return false;
+        }
+        lives++;
+        return true;
+    }
+
+    /**
+     * Makes the character invulnerable for the time a shield lasts.
+     */
+    public void shield() {
+        extendInvulnerability(SHIELD_TIME);
+    }
+
+    /**
+     * Extends the character's invulnerability period.
+     *
+     * @param duration The duration to extend the invulnerability period to, in seconds.
+     */
+    public void extendInvulnerability(float duration) {
+        // Only ever extend: a shield collected during a longer period does not shorten it
+        if (timerWheel.getRemainingSeconds(invulnerability) < duration) {
+            timerWheel.schedule(invulnerability, duration);
+        }
+    }
+
+    /**
+     * Updates the character's position and bounding box.
+     */
+    public void setPosition(float newX, float newY) {
+        this.x = newX;
+        this.y = newY;
+        this.bounds.setPosition(newX, newY);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public void setLives(int lives) {
+        this.lives = lives;
+    }
+
+    public boolean hasKey() {
+        return hasKey;
+    }
+
+    public void setHasKey(boolean hasKey) {
+        this.hasKey = hasKey;
+    }
+
+    public boolean hasReachedExit() {
+        return reachedExit;
+    }
+
+    public void setReachedExit(boolean reachedExit) {
+        this.reachedExit = reachedExit;
+    }
+
+    public boolean isArmed() {
+        return armed;
+    }
+
+    public void setArmed(boolean armed) {
+        this.armed = armed;
+    }
+
+    public float getInvulnerabilityTimer() {
+        return timerWheel.getRemainingSeconds(invulnerability);
+    }
+}
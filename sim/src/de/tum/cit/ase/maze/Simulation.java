@@ -0,0 +1,175 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * One level of the game without any graphics or audio: the maze, the player, the enemies and the timers, and
+ * the rules between them. The game drives it frame by frame and draws its state; tests, bots and servers can
+ * call {@link #tick(float, int)} directly and run it as fast as the CPU allows.
+ */
+public class Simulation {
+    private static final int TILE_SIZE = 16;
+    // Order in which held directions are applied within a tick, as in the game's input handling
+    private static final Direction[] INPUT_ORDER = {Direction.LEFT, Direction.RIGHT, Direction.UP, Direction.DOWN};
+
+    private final Maze maze;
+    private final EnemySystem enemies;
+    private final PlayerState player;
+    private final TimerWheel timerWheel;
+    private final Rectangle enemyBounds = new Rectangle(0, 0, TILE_SIZE, TILE_SIZE);
+
+    /**
+     * @param maze The maze of the level.
+     * @param enemies The enemies of the level.
+     * @param player The player.
+     * @param timerWheel The wheel the player's timers run on; advanced by {@link #tick(float, int)}.
+     */
+    public Simulation(Maze maze, EnemySystem enemies, PlayerState player, TimerWheel timerWheel) {
+        this.maze = maze;
+        this.enemies = enemies;
+        this.player = player;
+        this.timerWheel = timerWheel;
+    }
+
+    /**
+     * Sets up a level without the game: the player at the entry point and an enemy on every spawn point.
+     *
+     * @param maze The maze of the level; its occupancy layer is cleared.
+     * @param lives The number of lives the player starts with.
+     * @param seed The seed of the enemies' random decisions.
+     * @return The simulation, or null if the maze has no entry point.
+     */
+    public static Simulation create(Maze maze, int lives, long seed) {
+        int[][] layout = maze.getLayout();
+        for (int x = 0; x < layout.length; x++) {
+            for (int y = 0; y < layout[x].length; y++) {
+                if (layout[x][y] == 1) { // Entry point
+                    maze.clearOccupants();
+                    EnemySystem enemies = new EnemySystem(maze, maze.getEnemySpawnCount(), seed);
+                    for (int i = 0; i < maze.getEnemySpawnCount(); i++) {
+                        enemies.spawn(maze.getEnemySpawnX(i) * TILE_SIZE, maze.getEnemySpawnY(i) * TILE_SIZE);
+                    }
+                    TimerWheel timerWheel = new TimerWheel();
+                    PlayerState player = new PlayerState(x * TILE_SIZE, y * TILE_SIZE, lives, timerWheel);
+                    return new Simulation(maze, enemies, player, timerWheel);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The input bit of a direction, for {@link #tick(float, int)}.
+     */
+    public static int inputBit(Direction direction) {
+        return 1 << direction.ordinal();
+    }
+
+    /**
+     * Advances the whole level by one tick: timers, the player's moves, the enemies and the tile under the player.
+     *
+     * @param delta The length of the tick, in seconds.
+     * @param input The held directions, as a combination of {@link #inputBit(Direction)}.
+     */
+    public void tick(float delta, int input) {
+        advanceTimers(delta);
+        movePlayer(delta, input);
+        updateEnemies(delta);
+        updateStatus();
+    }
+
+    /**
+     * Runs the timers that are due, such as the end of the player's invulnerability.
+     */
+    public void advanceTimers(float delta) {
+        timerWheel.update(delta);
+    }
+
+    /**
+     * Moves the player in every held direction, in the order the game applies its keys.
+     *
+     * @param input The held directions, as a combination of {@link #inputBit(Direction)}.
+     */
+    public void movePlayer(float delta, int input) {
+        for (Direction direction : INPUT_ORDER) {
+            if ((input & inputBit(direction)) != 0) {
+                player.move(direction, maze, delta);
+            }
+        }
+    }
+
+    /**
+     * Advances the enemies towards the player and lets the player touch the first living enemy it overlaps, which
+     * slays the enemy or costs a life. Only one enemy is touched per tick.
+     */
+    public void updateEnemies(float delta) {
+        enemies.update(delta, player.getX(), player.getY());
+        Rectangle bounds = player.getBounds();
+        for (int i = 0; i < enemies.getCount(); i++) {
+            if (!enemies.isDead(i) && bounds.overlaps(enemyBounds.setPosition(enemies.getX(i), enemies.getY(i)))) {
+                player.touchEnemy(enemies, i);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies the tile under the player, such as a trap.
+     */
+    public void updateStatus() {
+        player.updateStatus(maze);
+    }
+
+    /**
+     * @return Whether the player stands in the exit with the key.
+     */
+    public boolean isWon() {
+        return player.hasKey() && maze.checkCollision(player.getBounds(), true) == 22;
+    }
+
+    /**
+     * @return Whether the player has no lives left.
+     */
+    public boolean isLost() {
+        return player.getLives() <= 0;
+    }
+
+    /**
+     * Hashes the state a replay must reproduce: the player's position, lives, key and weapon, and every enemy's
+     * position, state and whether it is dead. Two runs that end with the same checksum almost surely took the same
+     * course.
+     */
+    public long checksum() {
+        long hash = 0xCBF29CE484222325L; // FNV-1a over the state words
+        hash = mix(hash, Float.floatToIntBits(player.getX()));
+        hash = mix(hash, Float.floatToIntBits(player.getY()));
+        hash = mix(hash, player.getLives());
+        hash = mix(hash, (player.hasKey() ? 1 : 0) | (player.isArmed() ? 2 : 0));
+        for (int i = 0; i < enemies.getCount(); i++) {
+            hash = mix(hash, Float.floatToIntBits(enemies.getX(i)));
+            hash = mix(hash, Float.floatToIntBits(enemies.getY(i)));
+            hash = mix(hash, enemies.isDead(i) ? -1 : enemies.getState(i).ordinal());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x100000001B3L;
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public EnemySystem getEnemies() {
+        return enemies;
+    }
+
+    public PlayerState getPlayer() {
+        return player;
+    }
+
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+}
@@ -0,0 +1,10 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Enumeration of the level-of-detail tiers an enemy is simulated in, by distance to the player.
+ */
+public enum SimulationTier {
+    NEAR, // Full patrol and chase logic every tick.
+    MID,  // Ticks at a reduced rate and patrols tile by tile with the time that has built up.
+    FAR   // Frozen; the time that passed is caught up in one go when the enemy comes closer.
+}
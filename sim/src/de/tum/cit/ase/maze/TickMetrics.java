@@ -0,0 +1,39 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Records what a tick of a level cost into a {@link MetricsRegistry}: its time in the {@code tick} histogram,
+ * and the collision queries it made in the {@code collision.queriesPerTick} histogram and the
+ * {@code collision.queries} counter. The game and the benchmarks call {@link #recordTick(long)} once per tick.
+ */
+public class TickMetrics {
+    private final Maze maze;
+    private final MetricsRegistry.Histogram tickTime;
+    private final MetricsRegistry.Histogram collisionsPerTick;
+    private final MetricsRegistry.Counter collisions;
+    private long lastCollisionQueries;
+
+    /**
+     * @param registry The registry to record into.
+     * @param maze The maze of the level, whose collision queries are counted.
+     */
+    public TickMetrics(MetricsRegistry registry, Maze maze) {
+        this.maze = maze;
+        this.tickTime = registry.histogram("tick", "ns");
+        this.collisionsPerTick = registry.histogram("collision.queriesPerTick", "queries");
+        this.collisions = registry.counter("collision.queries");
+        this.lastCollisionQueries = maze.getCollisionQueries();
+    }
+
+    /**
+     * Records a tick that just ended.
+     *
+     * @param nanos The time of the tick, in nanoseconds.
+     */
+    public void recordTick(long nanos) {
+        tickTime.record(nanos);
+        long queries = maze.getCollisionQueries();
+        collisionsPerTick.record(queries - lastCollisionQueries);
+        collisions.add(queries - lastCollisionQueries);
+        lastCollisionQueries = queries;
+    }
+}
@@ -0,0 +1,192 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * Runs callbacks at future ticks of the game loop, so entities that wait for something (the end of an
+ * invulnerability period, hiding a message) cost nothing until their timer fires instead of counting down a
+ * field every frame.
+ * <p>
+ * The wheel is hierarchical: every level has {@value #SLOTS} slots, and a slot on level L covers
+ * {@code SLOTS^L} ticks. A timer is put on the lowest level whose range still contains its deadline and moves
+ * down one level each time the slot it is in comes up, so scheduling and cancelling are O(1) and a timer is
+ * touched at most once per level before it fires. Timers further away than the top level wait in an overflow
+ * list that is looked at once per top level turn.
+ * <p>
+ * Time is advanced in fixed ticks of {@link #TICK_DURATION}; the frame time left over is carried to the next
+ * {@link #update(float)}. The wheel is not thread-safe and belongs to the render thread.
+ */
+public class TimerWheel {
+    public static final float TICK_DURATION = 1 / 60f; // Seconds
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4; // 2^24 ticks, about three days at 60 Hz, before the overflow list
+    private static final int OVERFLOW = LEVELS; // Level index of the overflow list
+
+    // Head of a doubly linked list of timers per slot; the last row only uses slot 0, the overflow list
+    private final Timer[][] slots = new Timer[LEVELS + 1][SLOTS];
+    private long currentTick;
+    private float accumulator; // Time since the last whole tick
+
+    /**
+     * A handle for a callback that can be scheduled on a wheel. The same handle can be scheduled again
+     * after it fired or was cancelled, so entities keep one per kind of timer and allocate nothing to use it.
+     */
+    public static class Timer {
+        private final Runnable task;
+        private Timer previous, next;
+        private long deadline;
+        private int level = -1; // -1 while the timer is not scheduled
+        private int slot;
+
+        /**
+         * @param task The callback to run when the timer fires, or null for a timer that only marks a deadline.
+         */
+        public Timer(Runnable task) {
+            this.task = task;
+        }
+
+        public Timer() {
+            this(null);
+        }
+
+        public boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+
+    /**
+     * Schedules a timer to fire after the given time, replacing its earlier deadline if it is already scheduled.
+     *
+     * @param timer The timer to schedule.
+     * @param delay The time until the timer fires, in seconds; rounded up to whole ticks.
+     */
+    public void schedule(Timer timer, float delay) {
+        scheduleTicks(timer, Math.max(1, (long) Math.ceil((delay + accumulator) / TICK_DURATION)));
+    }
+
+    /**
+     * Schedules a timer to fire after the given number of ticks, replacing its earlier deadline if it is
+     * already scheduled.
+     *
+     * @param timer The timer to schedule.
+     * @param ticks The number of ticks until the timer fires, at least 1.
+     */
+    public void scheduleTicks(Timer timer, long ticks) {
+        if (ticks < 1) {
+            throw new IllegalArgumentException("A timer fires at the earliest on the next tick");
+        }
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+        timer.deadline = currentTick + ticks;
+        insert(timer);
+    }
+
+    /**
+     * Cancels a timer. Does nothing if it is not scheduled.
+     */
+    public void cancel(Timer timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+    }
+
+    /**
+     * @return The time until a timer fires in seconds, or 0 if it is not scheduled.
+     */
+    public float getRemainingSeconds(Timer timer) {
+        if (!timer.isScheduled()) {
+            return 0;
+        }
+        return Math.max(0, (timer.deadline - currentTick) * TICK_DURATION - accumulator);
+    }
+
+    /**
+     * Advances the wheel by the time of a frame and runs the callbacks of all timers that are due, in the
+     * order of their deadlines. Callbacks may schedule and cancel timers.
+     *
+     * @param delta The time passed since the last update, in seconds.
+     */
+    public void update(float delta) {
+        accumulator += delta;
+        while (accumulator >= TICK_DURATION) {
+            accumulator -= TICK_DURATION;
+            tick();
+        }
+    }
+
+    private void tick() {
+        currentTick++;
+        // Bring down the timers whose higher level slot has come up, top level first
+        if ((currentTick & (1L << SLOT_BITS * LEVELS) - 1) == 0) {
+            cascade(OVERFLOW, 0);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((currentTick & (1L << SLOT_BITS * level) - 1) == 0) {
+                cascade(level, (int) (currentTick >>> SLOT_BITS * level) & SLOT_MASK);
+            }
+        }
+        // Everything left in the level 0 slot is due now
+        int slot = (int) currentTick & SLOT_MASK;
+        Timer timer;
+        while ((timer = slots[0][slot]) != null) {
+            unlink(timer); // Before running, so the callback can schedule the timer again
+            if (timer.task != null) {
+                timer.task.run();
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Timer timer = slots[level][slot];
+        slots[level][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    /**
+     * Puts a timer on the lowest level whose current turn contains its deadline.
+     */
+    private void insert(Timer timer) {
+        long deadline = timer.deadline;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if (deadline >>> shift == currentTick >>> shift) {
+                link(timer, level, (int) (deadline >>> SLOT_BITS * level) & SLOT_MASK);
+                return;
+            }
+        }
+        link(timer, OVERFLOW, 0);
+    }
+
+    private void link(Timer timer, int level, int slot) {
+        Timer head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.level = -1;
+    }
+}
@@ -0,0 +1,278 @@
+package de.tum.cit.ase.maze;
+
+import java.util.Arrays;
+
+/**
+ * Labels the connected regions of walkable tiles so that path queries between tiles that cannot reach
+ * each other are answered in O(1) instead of by a search that exhausts the whole region.
+ * The labels are kept up to date incrementally as a listener of the maze: a tile that opens up joins or
+ * merges its neighbors' regions, and a tile that closes is checked for a split with breadth-first searches
+ * that start at its neighbors and stop as soon as they meet, so only the smaller side of a split is relabelled.
+ */
+public class WalkableComponents implements MazeListener {
+    private final int width;
+    private final int height;
+    private final int[] labels; // Component id per tile, 0 for tiles that are not walkable
+    private int[] componentSizes; // Number of tiles per component id, grown on demand
+    private int nextLabel = 1;
+
+    // Scratch state for the split check, allocated once
+    private final int[] visitStamp;
+    private final int[] visitOwner;
+    private final int[][] queues = new int[4][];
+    private final int[] queueHead = new int[4];
+    private final int[] queueTail = new int[4];
+    private final int[] groupParent = new int[4];
+    private final boolean[] groupRetired = new boolean[4];
+    private final int[] relabelQueue;
+    private int stamp;
+
+    /**
+     * Labels the walkable tiles of the maze and registers for tile changes.
+     *
+     * @param maze The maze to label.
+     */
+    public WalkableComponents(Maze maze) {
+        int[][] layout = maze.getLayout();
+        this.width = layout.length;
+        this.height = layout[0].length;
+        this.labels = new int[width * height];
+        this.componentSizes = new int[16];
+        this.visitStamp = new int[width * height];
+        this.visitOwner = new int[width * height];
+        this.relabelQueue = new int[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (layout[x][y] == -1 && labels[x * height + y] == 0) {
+                    fill(layout, x * height + y, newLabel());
+                }
+            }
+        }
+        maze.addListener(this);
+    }
+
+    /**
+     * Checks whether a walk from the start tile can reach the goal tile. The start tile itself does not have
+     * to be walkable (an enemy stands on its own tile), in which case any walkable neighbor can be the first step.
+     *
+     * @return true if a path may exist, false if the tiles are certainly in different regions.
+     */
+    public boolean canReach(int startX, int startY, int goalX, int goalY) {
+        if (startX == goalX && startY == goalY) {
+            return true;
+        }
+        int goalLabel = labelAt(goalX, goalY);
+        if (goalLabel == 0) {
+            return false;
+        }
+        if (labelAt(startX, startY) == goalLabel) {
+            return true;
+        }
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            if (labelAt(startX + Grid.NEIGHBOR_OFFSETS[i], startY + Grid.NEIGHBOR_OFFSETS[i + 1]) == goalLabel) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The component id of a tile, or 0 if the tile is not walkable or outside the maze.
+     */
+    public int labelAt(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return 0;
+        }
+        return labels[x * height + y];
+    }
+
+    @Override
+    public void tileChanged(int x, int y, int oldType, int newType) {
+        boolean wasWalkable = oldType == -1;
+        boolean isWalkable = newType == -1;
+        if (wasWalkable == isWalkable) {
+            return;
+        }
+        int cell = x * height + y;
+        if (isWalkable) {
+            open(cell);
+        } else {
+            close(cell);
+        }
+    }
+
+    /**
+     * A tile became walkable: it joins its neighbors' region, and regions that now touch are merged
+     * by relabelling the smaller ones into the largest.
+     */
+    private void open(int cell) {
+        int largest = 0;
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            int label = labelAt(cell / height + Grid.NEIGHBOR_OFFSETS[i], cell % height + Grid.NEIGHBOR_OFFSETS[i + 1]);
+            if (label != 0 && (largest == 0 || componentSizes[label] > componentSizes[largest])) {
+                largest = label;
+            }
+        }
+        if (largest == 0) {
+            largest = newLabel();
+        }
+        labels[cell] = largest;
+        componentSizes[largest]++;
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            int nx = cell / height + Grid.NEIGHBOR_OFFSETS[i], ny = cell % height + Grid.NEIGHBOR_OFFSETS[i + 1];
+            int label = labelAt(nx, ny);
+            if (label != 0 && label != largest) {
+                relabel(nx * height + ny, label, largest);
+            }
+        }
+    }
+
+    /**
+     * A tile became blocked: its walkable neighbors may now be in different regions. A breadth-first search is
+     * started from every neighbor, one step each in turn. Searches that meet are joined; a joined search that
+     * runs out of tiles while others are still going has found a region that was cut off, and gets a new label.
+     */
+    private void close(int cell) {
+        int oldLabel = labels[cell];
+        labels[cell] = 0;
+        componentSizes[oldLabel]--;
+
+        stamp++;
+        int groups = 0;
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            int nx = cell / height + Grid.NEIGHBOR_OFFSETS[i], ny = cell % height + Grid.NEIGHBOR_OFFSETS[i + 1];
+            if (labelAt(nx, ny) == 0) {
+                continue;
+            }
+            int neighbor = nx * height + ny;
+            if (queues[groups] == null) {
+                queues[groups] = new int[labels.length];
+            }
+            visitStamp[neighbor] = stamp;
+            visitOwner[neighbor] = groups;
+            queues[groups][0] = neighbor;
+            queueHead[groups] = 0;
+            queueTail[groups] = 1;
+            groupParent[groups] = groups;
+            groupRetired[groups] = false;
+            groups++;
+        }
+
+        int roots = groups;
+        while (roots > 1) {
+            for (int group = 0; group < groups && roots > 1; group++) {
+                if (queueHead[group] < queueTail[group]) {
+                    roots -= step(group);
+                } else if (groupParent[group] == group && !groupRetired[group] && isExhausted(group, groups)) {
+                    // This joined search has seen its whole region, which no longer touches the others
+                    relabel(queues[group][0], oldLabel, newLabel());
+                    groupRetired[group] = true;
+                    roots--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Expands one tile of a neighbor search.
+     *
+     * @return The number of searches that were joined into another one (0 or 1).
+     */
+    private int step(int group) {
+        int current = queues[group][queueHead[group]++];
+        int joined = 0;
+        int cx = current / height, cy = current % height;
+        for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+            int nx = cx + Grid.NEIGHBOR_OFFSETS[i], ny = cy + Grid.NEIGHBOR_OFFSETS[i + 1];
+            if (labelAt(nx, ny) == 0) {
+                continue;
+            }
+            int next = nx * height + ny;
+            if (visitStamp[next] != stamp) {
+                visitStamp[next] = stamp;
+                visitOwner[next] = group;
+                queues[group][queueTail[group]++] = next;
+            } else {
+                int a = findGroup(group), b = findGroup(visitOwner[next]);
+                if (a != b) {
+                    groupParent[Math.max(a, b)] = Math.min(a, b);
+                    joined++;
+                }
+            }
+        }
+        return joined;
+    }
+
+    private boolean isExhausted(int root, int groups) {
+        for (int group = 0; group < groups; group++) {
+            if (queueHead[group] < queueTail[group] && findGroup(group) == root) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int findGroup(int group) {
+        while (groupParent[group] != group) {
+            group = groupParent[group];
+        }
+        return group;
+    }
+
+    private int newLabel() {
+        if (nextLabel == componentSizes.length) {
+            componentSizes = Arrays.copyOf(componentSizes, componentSizes.length * 2);
+        }
+        componentSizes[nextLabel] = 0;
+        return nextLabel++;
+    }
+
+    /**
+     * Labels every walkable tile connected to the start tile, used for the initial labelling.
+     */
+    private void fill(int[][] layout, int start, int label) {
+        int[] queue = relabelQueue;
+        int head = 0, tail = 0;
+        labels[start] = label;
+        queue[tail++] = start;
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current / height, cy = current % height;
+            for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+                int nx = cx + Grid.NEIGHBOR_OFFSETS[i], ny = cy + Grid.NEIGHBOR_OFFSETS[i + 1];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height || layout[nx][ny] != -1) {
+                    continue;
+                }
+                int next = nx * height + ny;
+                if (labels[next] == 0) {
+                    labels[next] = label;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        componentSizes[label] = tail;
+    }
+
+    /**
+     * Changes the label of the region that contains the start tile.
+     */
+    private void relabel(int start, int from, int to) {
+        int[] queue = relabelQueue;
+        int head = 0, tail = 0;
+        labels[start] = to;
+        queue[tail++] = start;
+        while (head < tail) {
+            int current = queue[head++];
+            int cx = current / height, cy = current % height;
+            for (int i = 0; i < Grid.NEIGHBOR_OFFSETS.length; i += 2) {
+                int nx = cx + Grid.NEIGHBOR_OFFSETS[i], ny = cy + Grid.NEIGHBOR_OFFSETS[i + 1];
+                if (labelAt(nx, ny) == from) {
+                    labels[nx * height + ny] = to;
+                    queue[tail++] = nx * height + ny;
+                }
+            }
+        }
+        componentSizes[from] -= tail;
+        componentSizes[to] += tail;
+    }
+}
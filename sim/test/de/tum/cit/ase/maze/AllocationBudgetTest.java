@@ -0,0 +1,147 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs every level headless in every pathfinding mode and fails if a subsystem allocates more bytes per tick
+ * than its budget in {@code allocation-budgets.properties}. The ticks are split into the same stages as in the
+ * headless benchmark, and the render thread's allocations are counted around each stage, after a warmup that
+ * lets the reusable buffers grow to their working size. Worker threads are not counted, since they do not
+ * stall the frame. The metrics and pathfinding statistics are recorded as in a session that exports them, so
+ * recording counts as well.
+ * <p>
+ * A stage passes if it stays below its budget plus one byte per tick. The byte covers what no warmup removes
+ * reliably, such as a buffer that grows once more or an object the JIT has not yet learned to elide, while an
+ * object allocated on even every tenth tick still fails.
+ */
+class AllocationBudgetTest {
+    private static final String[] STAGES = {"pathfinding", "timers", "player", "enemies", "status"};
+    private static final int LEVELS = 5;
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 10_000;
+    private static final double TOLERANCE = 1; // Bytes per tick on top of every budget
+    private static final float TICK = 1 / 60f;
+    private static final long SEED = 42;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final Properties BUDGETS = new Properties();
+
+    @BeforeAll
+    static void loadBudgets() throws IOException {
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            if (in == null) {
+                throw new IOException("allocation-budgets.properties is missing from the test classpath");
+            }
+            BUDGETS.load(in);
+        }
+    }
+
+    @BeforeAll
+    static void loadLazyClasses() throws ClassNotFoundException {
+        // Compiled code loads a class the first time it runs a call that returns it, which can be in any tick. The
+        // landmarks are off in these levels, so nothing loads their class before; loading it is no garbage of a tick
+        Class.forName(Landmarks.class.getName());
+    }
+
+    static Stream<Arguments> levelsAndModes() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (PathfindingMode mode : PathfindingMode.values()) {
+            for (int level = 1; level <= LEVELS; level++) {
+                arguments.add(Arguments.of(level, mode));
+            }
+        }
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "level-{0} {1}")
+    @MethodSource("levelsAndModes")
+    void staysWithinBudget(int level, PathfindingMode mode) {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "The JVM does not count allocated bytes");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        Maze maze = new Maze(new FileHandle(new File("maps/level-" + level + ".properties")));
+        Simulation simulation = Simulation.create(maze, Integer.MAX_VALUE, SEED);
+        assertTrue(simulation != null, "level-" + level + " has no entry point");
+        PathfindingBudget budget = new PathfindingBudget();
+        PathfindingService service = new PathfindingService(1);
+        EnemySystem enemies = simulation.getEnemies();
+        enemies.setPathfindingBudget(budget);
+        enemies.setPathfindingService(service);
+        enemies.setPathfindingMode(mode);
+        MetricsRegistry metrics = new MetricsRegistry();
+        enemies.setMetrics(metrics);
+        PathfindingStats stats = new PathfindingStats(metrics);
+        enemies.setPathfindingStats(stats);
+        service.setStats(stats);
+        TickMetrics tickMetrics = new TickMetrics(metrics, maze);
+        InputScript script = InputScript.randomWalk(1000, SEED);
+
+        long[] bytes = new long[STAGES.length];
+        long[] stamps = new long[STAGES.length + 1];
+        try {
+            for (int tick = 0; tick < WARMUP_TICKS + MEASURED_TICKS; tick++) {
+                int input = script.next();
+                long started = System.nanoTime();
+                stamps[0] = THREADS.getCurrentThreadAllocatedBytes();
+                budget.reset();
+                service.deliverResults(maze.getLayoutVersion());
+                stamps[1] = THREADS.getCurrentThreadAllocatedBytes();
+                simulation.advanceTimers(TICK);
+                stamps[2] = THREADS.getCurrentThreadAllocatedBytes();
+                simulation.movePlayer(TICK, input);
+                stamps[3] = THREADS.getCurrentThreadAllocatedBytes();
+                simulation.updateEnemies(TICK);
+                stamps[4] = THREADS.getCurrentThreadAllocatedBytes();
+                simulation.updateStatus();
+                tickMetrics.recordTick(System.nanoTime() - started);
+                stamps[5] = THREADS.getCurrentThreadAllocatedBytes();
+                if (tick >= WARMUP_TICKS) {
+                    for (int s = 0; s < STAGES.length; s++) {
+                        bytes[s] += stamps[s + 1] - stamps[s];
+                    }
+                }
+            }
+        } finally {
+            enemies.dispose();
+            service.dispose();
+        }
+
+        StringBuilder failures = new StringBuilder();
+        for (int s = 0; s < STAGES.length; s++) {
+            double perTick = (double) bytes[s] / MEASURED_TICKS;
+            double allowed = budget(mode, STAGES[s]);
+            if (perTick >= allowed + TOLERANCE) {
+                failures.append(String.format("%n  %s: %.1f bytes per tick, budget %.1f", STAGES[s], perTick, allowed));
+            }
+        }
+        assertTrue(failures.length() == 0, "level-" + level + " in " + mode + " is over budget:" + failures);
+    }
+
+    /**
+     * @return The budget of a stage in a mode, in bytes per tick: the mode's own entry, else the {@code *} entry.
+     */
+    private static double budget(PathfindingMode mode, String stage) {
+        String value = BUDGETS.getProperty(mode.name() + "." + stage, BUDGETS.getProperty("*." + stage));
+        if (value == null) {
+            throw new IllegalStateException("No allocation budget for " + stage);
+        }
+        return Double.parseDouble(value.trim());
+    }
+}